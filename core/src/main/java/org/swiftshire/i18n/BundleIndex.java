@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.swiftshire.i18n.locale.LocaleRegistry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Index of the messages interfaces and bundle files of a class path, written at build time by the Maven
+ * i18n plugin to {@value #RESOURCE}. It lets the {@link MessageFactory} fail fast for locales that have no
+ * bundle and only probe the class path for the candidate names that have a bundle file, and tells it what
+ * to preload.
+ * <p>
+ * Each line of an index lists one interface, tab separated: the interface name, the base name of its
+ * bundle, and a comma separated list of {@code locale=keys} pairs for every bundle file found, where the
+ * locale of the base bundle is empty. Blank lines and lines starting with {@code #} are ignored. The
+ * indexes of all jars visible to a class loader are merged.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+final class BundleIndex {
+    private static final Logger log = LoggerFactory.getLogger(BundleIndex.class);
+
+    /**
+     * Location of the index files on the class path
+     */
+    static final String RESOURCE = "META-INF/ji18n/index";
+
+    /**
+     * Index without any entries, used when no index file exists
+     */
+    private static final BundleIndex EMPTY = new BundleIndex( Collections.<String, Entry>emptyMap() );
+
+    /**
+     * Indexes already read keyed by class loader
+     */
+    private static final Map<ClassLoader, BundleIndex> indexes = new WeakHashMap<>();
+
+    /**
+     * Entries keyed by interface name
+     */
+    private final Map<String, Entry> entries;
+
+    private BundleIndex(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the index of all bundles visible to the given class loader, reading it on first use.
+     *
+     * @param loader Class loader of the messages interfaces, may be {@code null}
+     * @return Bundle index, empty if there are no index files
+     */
+    static BundleIndex of(ClassLoader loader) {
+        if (loader == null) {
+            return EMPTY;
+        }
+
+        synchronized (indexes) {
+            BundleIndex index = indexes.get(loader);
+
+            if (index == null) {
+                index = read(loader);
+                indexes.put(loader, index);
+            }
+
+            return index;
+        }
+    }
+
+    /**
+     * Forgets all indexes read so far, so that they are read again on next use.
+     */
+    static void clear() {
+        synchronized (indexes) {
+            indexes.clear();
+        }
+    }
+
+    /**
+     * Reads and merges all index files visible to the given class loader. Unreadable files are skipped.
+     *
+     * @param loader Class loader to search
+     * @return Bundle index
+     */
+    private static BundleIndex read(ClassLoader loader) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+
+        try {
+            Enumeration<URL> urls = loader.getResources(RESOURCE);
+
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    parse(reader, entries);
+                }
+                catch (IOException | RuntimeException ex) {
+                    log.warn("Ignoring unreadable bundle index " + url + ": " + ex.getMessage());
+                }
+            }
+        }
+        catch (IOException ex) {
+            log.warn("Failed to search for bundle indexes: " + ex.getMessage());
+        }
+
+        return entries.isEmpty() ? EMPTY : new BundleIndex(entries);
+    }
+
+    /**
+     * Parses one index file into the given entries.
+     *
+     * @param reader  Index contents
+     * @param entries Entries keyed by interface name
+     * @throws IOException if the index cannot be read
+     */
+    static void parse(BufferedReader reader, Map<String, Entry> entries) throws IOException {
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+
+            String[] fields = line.split("\t");
+
+            if (fields.length < 2) {
+                throw new IllegalArgumentException("Malformed line: " + line);
+            }
+
+            Map<String, Integer> keys = new HashMap<>();
+
+            if (fields.length > 2) {
+                for (String pair : fields[2].split(",")) {
+                    int delim = pair.indexOf('=');
+
+                    if (delim >= 0) {
+                        keys.put( pair.substring(0, delim).trim(), Integer.valueOf(pair.substring(delim + 1).trim()) );
+                    }
+                }
+            }
+
+            Entry entry = entries.get( fields[0] );
+
+            // The same interface may be indexed by several jars, for instance by language packs
+            if (entry != null) {
+                keys.putAll(entry.keys);
+            }
+
+            entries.put(fields[0], new Entry(fields[0], fields[1], keys));
+        }
+    }
+
+    /**
+     * Returns the entry of the given interface.
+     *
+     * @param type Name of the messages interface
+     * @return Index entry, {@code null} if the interface is not indexed
+     */
+    Entry get(String type) {
+        return entries.get(type);
+    }
+
+    /**
+     * Returns all entries of this index.
+     *
+     * @return Index entries in the order they were read
+     */
+    Collection<Entry> entries() {
+        return Collections.unmodifiableCollection( entries.values() );
+    }
+
+    /**
+     * Bundles indexed for one messages interface.
+     */
+    static final class Entry {
+        private final String type;
+        private final String bundleName;
+        private final Map<String, Integer> keys;
+
+        /**
+         * Controls restricted to the indexed locales keyed by the control they restrict
+         */
+        private final ConcurrentMap<MessagesControl, MessagesControl> controls = new ConcurrentHashMap<>();
+
+        Entry(String type, String bundleName, Map<String, Integer> keys) {
+            this.type = type;
+            this.bundleName = bundleName;
+            this.keys = keys;
+        }
+
+        /**
+         * Name of the messages interface.
+         *
+         * @return Interface name
+         */
+        String getType() {
+            return type;
+        }
+
+        /**
+         * Base name of the bundle of the interface.
+         *
+         * @return Bundle base name
+         */
+        String getBundleName() {
+            return bundleName;
+        }
+
+        /**
+         * Locales that have a bundle file, excluding the base bundle.
+         *
+         * @return Bundle locales
+         */
+        List<Locale> getLocales() {
+            List<Locale> locales = new ArrayList<>();
+
+            for (String locale : keys.keySet()) {
+                if (!locale.isEmpty()) {
+                    locales.add( LocaleRegistry.parse(locale) );
+                }
+            }
+
+            return locales;
+        }
+
+        /**
+         * Number of keys in the bundle file of the given locale.
+         *
+         * @param locale Bundle locale, {@link Locale#ROOT} for the base bundle
+         * @return Key count, {@code -1} if there is no such bundle file
+         */
+        int getKeyCount(Locale locale) {
+            Integer count = keys.get( locale.toString() );
+
+            return count != null ? count : -1;
+        }
+
+        /**
+         * Whether a bundle lookup in the given locale can find any bundle file, either through the fallback
+         * chain of the locale itself or, if enabled, through that of the default locale.
+         *
+         * @param locale                Requested locale
+         * @param defaultLocaleFallback Whether the lookup falls back to the default locale
+         * @return {@code false} if the lookup is known to fail
+         */
+        boolean covers(Locale locale, boolean defaultLocaleFallback) {
+            return covers( MessageFactory.expand(bundleName, locale, "") ) ||
+                   (defaultLocaleFallback && covers( MessageFactory.expand(bundleName, Locale.getDefault(), "") ));
+        }
+
+        /**
+         * Returns the given control restricted to the locales that have a bundle file.
+         *
+         * @param control Control of the interface
+         * @return Restricted control
+         */
+        MessagesControl control(MessagesControl control) {
+            MessagesControl restricted = controls.get(control);
+
+            if (restricted == null) {
+                restricted = control.restrictTo( keys.keySet() );
+                MessagesControl existing = controls.putIfAbsent(control, restricted);
+
+                if (existing != null) {
+                    restricted = existing;
+                }
+            }
+
+            return restricted;
+        }
+
+        private boolean covers(List<String> candidates) {
+            for (String candidate : candidates) {
+                String locale = candidate.length() > bundleName.length() ?
+                        candidate.substring(bundleName.length() + 1) : "";
+
+                if (keys.containsKey(locale)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.swiftshire.i18n.bundle.BinaryBundle;
+import org.swiftshire.i18n.bundle.PropertiesBundle;
+import org.swiftshire.i18n.bundle.XliffBundle;
+import org.swiftshire.i18n.bundle.XmlBundle;
+import org.swiftshire.i18n.handler.MessageHandler;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reloads the property bundles of active message handlers when they change on disk. Bundles are only
+ * reloadable from exploded class path directories; bundles inside archives are skipped.
+ * <p>
+ * While enabled, a daemon thread watches the directories holding the bundle files through a
+ * {@link WatchService} and, as a fallback for file systems that do not deliver events, checks their
+ * modification times every {@link MessageFactory#getReloadInterval() interval}. Changed bundles are rebuilt
+ * on that thread and published by {@link MessageHandler#reload()} in a single reference swap, so threads
+ * rendering messages never wait for a reload.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+final class BundleReloader implements Runnable {
+    /**
+     * Logging handle
+     */
+    private static final Logger log = LoggerFactory.getLogger(BundleReloader.class);
+
+    /**
+     * Suffixes of the bundle files that may back a handler
+     */
+    private static final String[] SUFFIXES = {
+            "." + PropertiesBundle.SUFFIX, "." + XmlBundle.SUFFIX, "." + XliffBundle.SUFFIX, "." + BinaryBundle.SUFFIX
+    };
+
+    /**
+     * Reloader thread currently running, if any
+     */
+    private static BundleReloader running;
+
+    /**
+     * Number of bundles reloaded so far
+     */
+    private static final AtomicLong reloadCount = new AtomicLong();
+
+    /**
+     * Time taken by the last reload in milliseconds
+     */
+    private static final AtomicLong lastReloadMillis = new AtomicLong();
+
+    /**
+     * Delay between modification checks in milliseconds
+     */
+    private final long interval;
+
+    /**
+     * Notifies the thread of changes to watched directories, {@code null} if unavailable
+     */
+    private final WatchService watcher;
+
+    /**
+     * Directories registered with the watcher
+     */
+    private final Set<Path> watched = new HashSet<>();
+
+    /**
+     * Last seen modification stamp of the bundle files of each handler
+     */
+    private final Map<MessageHandler, Long> stamps = new WeakHashMap<>();
+
+    private volatile boolean stopped;
+
+    private BundleReloader(long interval) {
+        WatchService service = null;
+
+        try {
+            service = FileSystems.getDefault().newWatchService();
+        }
+        catch (IOException | UnsupportedOperationException ex) {
+            log.warn("File watching unavailable; polling bundles every " + interval + " ms. " + ex.getMessage());
+        }
+
+        this.interval = interval;
+        this.watcher = service;
+    }
+
+    /**
+     * Starts, restarts or stops the reloader thread.
+     *
+     * @param interval Delay between modification checks in milliseconds, 0 to stop reloading
+     */
+    static synchronized void setInterval(long interval) {
+        if (running != null) {
+            running.stop();
+            running = null;
+        }
+
+        // Files rewritten in place must not be mapped, or reading the old mapping fails
+        BinaryBundle.setMapFiles(interval == 0);
+
+        if (interval > 0) {
+            running = new BundleReloader(interval);
+
+            Thread thread = new Thread(running, "ji18n-bundle-reloader");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Reloads the bundles of all active message handlers right away.
+     *
+     * @return Number of bundles reloaded
+     */
+    static int reloadAll() {
+        return reload( MessageFactory.activeHandlers() );
+    }
+
+    /**
+     * Number of bundles reloaded so far.
+     *
+     * @return Reload count
+     */
+    static long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    /**
+     * Time taken by the last reload.
+     *
+     * @return Duration in milliseconds
+     */
+    static long getLastReloadMillis() {
+        return lastReloadMillis.get();
+    }
+
+    /**
+     * Reloads the given handlers, recording how long it took.
+     *
+     * @param handlers Handlers to reload
+     * @return Number of bundles reloaded
+     */
+    private static int reload(List<MessageHandler> handlers) {
+        long start = System.nanoTime();
+        int count = 0;
+
+        // Clear the bundle cache once per class loader, so that bundles shared by handlers are read once
+        Set<ClassLoader> loaders = Collections.newSetFromMap( new IdentityHashMap<ClassLoader, Boolean>() );
+
+        for (MessageHandler handler : handlers) {
+            ClassLoader loader = handler.getClassLoader();
+
+            if (handler.isReloadable() && loader != null && loaders.add(loader)) {
+                ResourceBundle.clearCache(loader);
+            }
+        }
+
+        for (MessageHandler handler : handlers) {
+            if (handler.refresh()) {
+                count++;
+            }
+        }
+
+        lastReloadMillis.set( TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) );
+        reloadCount.addAndGet(count);
+
+        if (count > 0) {
+            log.info("Reloaded " + count + " message bundles in " + lastReloadMillis.get() + " ms");
+        }
+
+        return count;
+    }
+
+    /**
+     * Checks for changed bundles until stopped.
+     */
+    public void run() {
+        try {
+            while (!stopped) {
+                scan();
+                await();
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException ignore) {
+        }
+        finally {
+            close();
+        }
+    }
+
+    /**
+     * Stops the thread at its next wake up.
+     */
+    private void stop() {
+        stopped = true;
+        close();
+    }
+
+    /**
+     * Waits for a change notification or the end of the interval, whichever comes first.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void await() throws InterruptedException {
+        if (watcher == null) {
+            Thread.sleep(interval);
+            return;
+        }
+
+        WatchKey key = watcher.poll(interval, TimeUnit.MILLISECONDS);
+
+        while (key != null) {
+            key.pollEvents();
+            key.reset();
+            key = watcher.poll();
+        }
+    }
+
+    /**
+     * Reloads every active handler whose bundle files changed since the last scan.
+     */
+    private void scan() {
+        List<MessageHandler> changed = new ArrayList<>();
+
+        for (MessageHandler handler : MessageFactory.activeHandlers()) {
+            if (!handler.isReloadable()) {
+                continue;
+            }
+
+            long stamp = stamp(handler);
+            Long previous = stamps.put(handler, stamp);
+
+            if (previous != null && previous != stamp) {
+                changed.add(handler);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            reload(changed);
+        }
+    }
+
+    /**
+     * Combines the modification times of the files the bundle of a handler may be loaded from, watching
+     * their directories along the way.
+     *
+     * @param handler Reloadable handler
+     * @return Modification stamp
+     */
+    private long stamp(MessageHandler handler) {
+        String name = handler.getBundleName().replace('.', '/');
+        ClassLoader loader = handler.getClassLoader();
+        long stamp = 1;
+
+        Set<String> candidates = new HashSet<>();
+
+        for (String suffix : SUFFIXES) {
+            candidates.addAll( MessageFactory.expand(name, handler.getRequestedLocale(), suffix) );
+            candidates.addAll( MessageFactory.expand(name, Locale.getDefault(), suffix) );
+        }
+
+        for (String candidate : candidates) {
+            URL url = loader != null ? loader.getResource(candidate) : ClassLoader.getSystemResource(candidate);
+            Path file = toPath(url);
+
+            if (file != null) {
+                watch( file.getParent() );
+
+                try {
+                    stamp = stamp * 31 + Files.getLastModifiedTime(file).toMillis();
+                }
+                catch (IOException ex) {
+                    // Deleted meanwhile; the next scan will notice
+                    stamp = stamp * 31;
+                }
+            }
+        }
+
+        return stamp;
+    }
+
+    /**
+     * Registers a directory with the watcher unless already watched.
+     *
+     * @param dir Directory holding bundle files
+     */
+    private void watch(Path dir) {
+        if (watcher == null || dir == null || !watched.add(dir)) {
+            return;
+        }
+
+        try {
+            dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        }
+        catch (IOException ex) {
+            log.debug("Unable to watch " + dir + "; relying on polling", ex);
+        }
+    }
+
+    /**
+     * Returns the file a resource URL points to.
+     *
+     * @param url Resource URL, may be {@code null}
+     * @return File, or {@code null} if the resource is not a plain file
+     */
+    private static Path toPath(URL url) {
+        if (url == null || !"file".equals( url.getProtocol() )) {
+            return null;
+        }
+
+        try {
+            return Paths.get( url.toURI() );
+        }
+        catch (URISyntaxException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Releases the watcher.
+     */
+    private void close() {
+        if (watcher != null) {
+            try {
+                watcher.close();
+            }
+            catch (IOException ignore) {
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+/**
+ * Eviction policies available to the cache of messages objects kept by {@link MessageFactory}.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public enum CachePolicy {
+    /**
+     * Evicts a messages object that has not been used recently. Recency is tracked with a single
+     * reference bit per entry (the CLOCK approximation of LRU), so a cache hit costs no more than
+     * setting a flag. This is the default.
+     */
+    LRU,
+
+    /**
+     * Evicts the messages object that has been used the least often. Suits applications with a few
+     * busy locales and a long tail of rarely requested ones.
+     */
+    LFU
+}
@@ -0,0 +1,486 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds the number of messages objects held by the {@link MessagesRegistry registries} of all
+ * interfaces. Every messages object created by {@link MessageFactory} is admitted here; once more than
+ * {@link MessageFactory#getCacheMaxEntries()} are resident, one is evicted according to the current
+ * {@link CachePolicy}. A busy service creating messages objects for locales taken from untrusted input
+ * therefore cannot grow the heap without limit.
+ * <p>
+ * With {@link MessageFactory#getSoftReferences() soft references} enabled an evicted messages object is
+ * not dropped right away but kept cold, through a {@link SoftReference}, until the garbage collector
+ * needs the memory or another {@code getCacheMaxEntries()} cold objects have been evicted after it. A
+ * cold object that is used again becomes resident once more.
+ * <p>
+ * Cache hits are recorded on the entry itself with plain writes and never take the lock, so the hit
+ * counts behind the LFU policy and the statistics are approximate under contention. The statistics count
+ * hits in a {@code long}. The LFU policy uses a separate frequency that saturates instead of wrapping and
+ * is halved for every resident entry on each eviction round, so locales that were hot long ago age out.
+ * Admission and eviction happen on cache misses only and are serialized.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+final class HandlerCache {
+    /**
+     * Entry is held strongly and counts against the limit
+     */
+    private static final int RESIDENT = 0;
+
+    /**
+     * Entry has been evicted and is only softly reachable
+     */
+    private static final int COLD = 1;
+
+    /**
+     * Entry has been removed from its registry
+     */
+    private static final int DROPPED = 2;
+
+    /**
+     * Guards all of the mutable state below.
+     */
+    private static final Object lock = new Object();
+
+    /**
+     * Entries currently held strongly
+     */
+    private static final List<Entry> resident = new ArrayList<>();
+
+    /**
+     * Evicted entries still softly reachable, oldest first
+     */
+    private static final ArrayDeque<Entry> cold = new ArrayDeque<>();
+
+    /**
+     * Position of the CLOCK hand within {@link #resident}
+     */
+    private static int hand;
+
+    /**
+     * Hits recorded by entries that have since been dropped
+     */
+    private static long retiredHits;
+
+    /**
+     * Number of messages objects that had to be created
+     */
+    private static final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Number of messages objects evicted from the resident set
+     */
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private HandlerCache() {}
+
+    /**
+     * Admits a newly created messages object, evicting others as needed to stay within the limit.
+     *
+     * @param entry Entry of the new messages object, already stored in its registry
+     */
+    static void admit(Entry entry) {
+        misses.incrementAndGet();
+
+        synchronized (lock) {
+            purgeCleared();
+
+            entry.state = RESIDENT;
+            resident.add(entry);
+            MessageFactory.handlers.put(entry.cacheId, entry.messages);
+
+            evict(entry);
+        }
+    }
+
+    /**
+     * Evicts resident entries until the current limit is met.
+     */
+    static void trim() {
+        synchronized (lock) {
+            evict(null);
+        }
+    }
+
+    /**
+     * Forgets all entries. The registries discard their own references through their epoch.
+     */
+    static void clear() {
+        synchronized (lock) {
+            for (Entry entry : resident) {
+                retire(entry);
+            }
+
+            for (Entry entry : cold) {
+                retire(entry);
+            }
+
+            resident.clear();
+            cold.clear();
+            hand = 0;
+        }
+    }
+
+    /**
+     * Number of messages objects held strongly.
+     *
+     * @return Resident count
+     */
+    static int size() {
+        synchronized (lock) {
+            return resident.size();
+        }
+    }
+
+    /**
+     * Number of evicted messages objects that are still softly reachable.
+     *
+     * @return Cold count
+     */
+    static int coldSize() {
+        synchronized (lock) {
+            purgeCleared();
+            return cold.size();
+        }
+    }
+
+    /**
+     * Number of lookups answered by a cached messages object.
+     *
+     * @return Approximate hit count
+     */
+    static long getHitCount() {
+        synchronized (lock) {
+            long hits = retiredHits;
+
+            for (Entry entry : resident) {
+                hits += entry.hits;
+            }
+
+            for (Entry entry : cold) {
+                hits += entry.hits;
+            }
+
+            return hits;
+        }
+    }
+
+    /**
+     * Returns the resident entry holding the given messages object.
+     *
+     * @param messages Messages object
+     * @return Its entry, or {@code null} if it is not resident
+     */
+    static Entry entry(Messages messages) {
+        synchronized (lock) {
+            for (Entry entry : resident) {
+                if (entry.messages == messages) {
+                    return entry;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Number of lookups that had to create a messages object.
+     *
+     * @return Miss count
+     */
+    static long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Number of messages objects evicted from the resident set, whether dropped or kept cold.
+     *
+     * @return Eviction count
+     */
+    static long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Makes a cold entry that has been used again resident.
+     *
+     * @param entry    Cold entry
+     * @param messages Its messages object, still reachable
+     */
+    private static void promote(Entry entry, Messages messages) {
+        synchronized (lock) {
+            if (entry.state != COLD) {
+                return;
+            }
+
+            cold.remove(entry);
+
+            entry.messages = messages;
+            entry.soft = null;
+            entry.state = RESIDENT;
+            resident.add(entry);
+            MessageFactory.handlers.put(entry.cacheId, messages);
+
+            evict(entry);
+        }
+    }
+
+    /**
+     * Evicts resident entries until the limit is met. Must hold the lock.
+     *
+     * @param keep Entry that must not be evicted, may be {@code null}
+     */
+    private static void evict(Entry keep) {
+        int limit = Math.max(1, MessageFactory.cacheMaxEntries.get());
+        CachePolicy policy = MessageFactory.cachePolicy.get();
+        boolean soft = MessageFactory.softReferences.get();
+
+        if (resident.size() <= limit) {
+            return;
+        }
+
+        if (policy == CachePolicy.LFU) {
+            age();
+        }
+
+        while (resident.size() > limit) {
+            int index = policy == CachePolicy.LFU ? leastFrequent(keep) : leastRecent(keep);
+
+            if (index < 0) {
+                return;
+            }
+
+            // Swap the last entry into the hole, which is cheaper than shifting and harmless to CLOCK
+            Entry victim = resident.get(index);
+            Entry last = resident.remove(resident.size() - 1);
+
+            if (last != victim) {
+                resident.set(index, last);
+            }
+
+            evictions.incrementAndGet();
+            MessageFactory.handlers.remove(victim.cacheId, victim.messages);
+
+            if (soft) {
+                victim.soft = new SoftReference<>(victim.messages);
+                victim.messages = null;
+                victim.state = COLD;
+                cold.addLast(victim);
+
+                while (cold.size() > limit) {
+                    drop( cold.pollFirst() );
+                }
+            }
+            else {
+                drop(victim);
+            }
+        }
+    }
+
+    /**
+     * Advances the CLOCK hand to an entry that has not been used since the hand last passed it.
+     * Must hold the lock.
+     *
+     * @param keep Entry to skip, may be {@code null}
+     * @return Index of the victim, or -1 if there is none
+     */
+    private static int leastRecent(Entry keep) {
+        int size = resident.size();
+
+        // Two sweeps suffice: the first clears every reference bit the second may find set
+        for (int scanned = 0; scanned <= 2 * size; scanned++) {
+            if (hand >= size) {
+                hand = 0;
+            }
+
+            Entry entry = resident.get(hand);
+
+            if (entry != keep) {
+                if (!entry.referenced) {
+                    return hand;
+                }
+
+                entry.referenced = false;
+            }
+
+            hand++;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Halves the frequency of every resident entry, so that past popularity decays. Must hold the lock.
+     */
+    private static void age() {
+        for (Entry entry : resident) {
+            entry.frequency >>>= 1;
+        }
+    }
+
+    /**
+     * Finds the resident entry with the lowest frequency. Must hold the lock.
+     *
+     * @param keep Entry to skip, may be {@code null}
+     * @return Index of the victim, or -1 if there is none
+     */
+    private static int leastFrequent(Entry keep) {
+        int victim = -1;
+        int fewest = Integer.MAX_VALUE;
+
+        for (int i = 0; i < resident.size(); i++) {
+            Entry entry = resident.get(i);
+
+            if (entry != keep && entry.frequency < fewest) {
+                victim = i;
+                fewest = entry.frequency;
+            }
+        }
+
+        return victim;
+    }
+
+    /**
+     * Drops cold entries whose messages object has been reclaimed. Must hold the lock.
+     */
+    private static void purgeCleared() {
+        for (Iterator<Entry> it = cold.iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            SoftReference<Messages> ref = entry.soft;
+
+            if (ref == null || ref.get() == null) {
+                it.remove();
+                drop(entry);
+            }
+        }
+    }
+
+    /**
+     * Removes an entry from its registry. Must hold the lock.
+     *
+     * @param entry Entry to drop
+     */
+    private static void drop(Entry entry) {
+        retire(entry);
+        entry.registry.remove(entry.locale, entry);
+    }
+
+    /**
+     * Marks an entry as no longer cached, keeping its hits for the statistics. Must hold the lock.
+     *
+     * @param entry Entry to retire
+     */
+    private static void retire(Entry entry) {
+        retiredHits += entry.hits;
+        entry.hits = 0;
+        entry.frequency = 0;
+        entry.state = DROPPED;
+    }
+
+    /**
+     * Cached messages object of one interface and locale.
+     */
+    static final class Entry {
+        final MessagesRegistry registry;
+        final Locale locale;
+        final String cacheId;
+
+        /**
+         * Messages object while resident, {@code null} once evicted
+         */
+        private volatile Messages messages;
+
+        /**
+         * Messages object while cold
+         */
+        private volatile SoftReference<Messages> soft;
+
+        /**
+         * Set on every hit and cleared by the CLOCK hand
+         */
+        private volatile boolean referenced;
+
+        /**
+         * Approximate number of hits, for the statistics
+         */
+        long hits;
+
+        /**
+         * Approximate recent hits for the LFU policy, saturating at {@link Integer#MAX_VALUE} and halved
+         * on each eviction round
+         */
+        int frequency;
+
+        /**
+         * One of {@link #RESIDENT}, {@link #COLD} or {@link #DROPPED}, guarded by the lock
+         */
+        private int state = DROPPED;
+
+        Entry(MessagesRegistry registry, Locale locale, Messages messages) {
+            this.registry = registry;
+            this.locale = locale;
+            this.cacheId = registry.cacheId(locale);
+            this.messages = messages;
+        }
+
+        /**
+         * Returns the cached messages object, recording the hit.
+         *
+         * @return Messages object, or {@code null} if it has been reclaimed
+         */
+        Messages get() {
+            Messages current = messages;
+
+            if (current == null) {
+                SoftReference<Messages> ref = soft;
+                current = ref != null ? ref.get() : null;
+
+                if (current == null) {
+                    return null;
+                }
+
+                promote(this, current);
+            }
+
+            hits++;
+
+            // Plain read-modify-write may lose increments under contention but can never wrap
+            int seen = frequency;
+
+            if (seen != Integer.MAX_VALUE) {
+                frequency = seen + 1;
+            }
+
+            if (!referenced) {
+                referenced = true;
+            }
+
+            return current;
+        }
+    }
+}
@@ -17,11 +17,17 @@
 
 package org.swiftshire.i18n;
 
+import org.swiftshire.i18n.handler.MessageHandler;
+import org.swiftshire.i18n.handler.MemoizedTemplate;
+import org.swiftshire.i18n.handler.MessagePool;
 import org.swiftshire.i18n.locale.LocaleManager;
+import org.swiftshire.i18n.locale.LocaleRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
 
 /**
  * MBean implementation for the {@link MessageFactory}
@@ -48,13 +54,358 @@ public class I18nService implements I18nServiceMBean {
         MessageFactory.doBundleFabrication.set(yesno);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public boolean getGenerateClasses() {
+        return MessageFactory.doClassGeneration.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param yesno
+     */
+    public void setGenerateClasses(boolean yesno) {
+        MessageFactory.doClassGeneration.set(yesno);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public String getTemplateEngine() {
+        return MessageFactory.templateEngine.get().name();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param engine
+     */
+    public void setTemplateEngine(String engine) {
+        MessageFactory.templateEngine.set( MessageFactory.parseEngine(engine, MessageFactory.templateEngine.get()) );
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public int getCacheMaxEntries() {
+        return MessageFactory.getCacheMaxEntries();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param maxEntries
+     */
+    public void setCacheMaxEntries(int maxEntries) {
+        MessageFactory.setCacheMaxEntries(maxEntries);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public String getCachePolicy() {
+        return MessageFactory.cachePolicy.get().name();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param policy
+     */
+    public void setCachePolicy(String policy) {
+        MessageFactory.cachePolicy.set( MessageFactory.parseCachePolicy(policy, MessageFactory.cachePolicy.get()) );
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public boolean getSoftReferences() {
+        return MessageFactory.softReferences.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param yesno
+     */
+    public void setSoftReferences(boolean yesno) {
+        MessageFactory.softReferences.set(yesno);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public int getSoftCacheSize() {
+        return HandlerCache.coldSize();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getCacheHits() {
+        return HandlerCache.getHitCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getCacheMisses() {
+        return HandlerCache.getMissCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public double getCacheHitRate() {
+        long hits = HandlerCache.getHitCount();
+        long total = hits + HandlerCache.getMissCount();
+
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getCacheEvictions() {
+        return HandlerCache.getEvictionCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getReloadInterval() {
+        return MessageFactory.getReloadInterval();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param millis
+     */
+    public void setReloadInterval(long millis) {
+        MessageFactory.setReloadInterval(millis);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public int reloadBundles() {
+        return MessageFactory.reloadBundles();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param types
+     * @param locales
+     * @return
+     */
+    public String preload(String types, String locales) {
+        ClassLoader loader = contextClassLoader();
+
+        List<Class<? extends Messages>> classes = new ArrayList<>();
+
+        for (String name : split(types)) {
+            try {
+                classes.add( Class.forName(name, false, loader).asSubclass(Messages.class) );
+            }
+            catch (ClassNotFoundException | ClassCastException ex) {
+                throw new IllegalArgumentException("Not a messages interface: " + name);
+            }
+        }
+
+        List<Locale> parsed = new ArrayList<>();
+
+        for (String locale : split(locales)) {
+            parsed.add( LocaleRegistry.parse(locale) );
+        }
+
+        return MessageFactory.preload(classes, parsed).toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public String preloadIndexed() {
+        return MessageFactory.preloadIndexed( contextClassLoader() ).toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public boolean getUseIndex() {
+        return MessageFactory.getUseIndex();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param yesno
+     */
+    public void setUseIndex(boolean yesno) {
+        MessageFactory.setUseIndex(yesno);
+    }
+
+    /**
+     * Returns the class loader used to find messages interfaces named by operations.
+     *
+     * @return Context class loader of the calling thread, or the loader of this class if there is none
+     */
+    private static ClassLoader contextClassLoader() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+        return loader != null ? loader : I18nService.class.getClassLoader();
+    }
+
+    /**
+     * Splits a comma separated operation argument, dropping blank items.
+     *
+     * @param list Comma separated list, may be {@code null}
+     * @return Trimmed items
+     */
+    private static List<String> split(String list) {
+        List<String> items = new ArrayList<>();
+
+        if (list != null) {
+            for (String item : list.split(",")) {
+                if (item.trim().length() > 0) {
+                    items.add( item.trim() );
+                }
+            }
+        }
+
+        return items;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getLastReloadMillis() {
+        return BundleReloader.getLastReloadMillis();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getReloadCount() {
+        return BundleReloader.getReloadCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getPoolBytesSaved() {
+        return MessagePool.getBytesSaved();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getPoolHits() {
+        return MessagePool.getHitCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public int getPoolSize() {
+        return MessagePool.getStringCount() + MessagePool.getTemplateCount();
+    }
+
     /**
      * {@inheritDoc}
      *
      * @return
      */
     public int getResourceBundleCount() {
-        return MessageFactory.handlers.size();
+        return HandlerCache.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getMissingBundleTtl() {
+        return MessageFactory.getMissingBundleTtl();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param millis
+     */
+    public void setMissingBundleTtl(long millis) {
+        MessageFactory.setMissingBundleTtl(millis);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public String getSubstituteLocale() {
+        Locale locale = MessageFactory.getSubstituteLocale();
+
+        return locale != null ? locale.toString() : "";
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param locale
+     */
+    public void setSubstituteLocale(String locale) {
+        MessageFactory.setSubstituteLocale( MessageFactory.parseLocale(locale) );
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getMissingBundleHits() {
+        return MessageFactory.missingBundleHits.get();
     }
 
     /**
@@ -75,6 +426,108 @@ public class I18nService implements I18nServiceMBean {
         return MessageFactory.fabricatedBundleCount.get();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getTemplateCacheHits() {
+        long hits = 0;
+
+        for (MessageHandler handler : MessageFactory.activeHandlers()) {
+            hits += handler.getTemplateCache().getHitCount();
+        }
+
+        return hits;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getTemplateCacheMisses() {
+        long misses = 0;
+
+        for (MessageHandler handler : MessageFactory.activeHandlers()) {
+            misses += handler.getTemplateCache().getMissCount();
+        }
+
+        return misses;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getMemoHits() {
+        return MemoizedTemplate.getHitCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getMemoMisses() {
+        return MemoizedTemplate.getMissCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public double getMemoHitRate() {
+        long hits = MemoizedTemplate.getHitCount();
+        long total = hits + MemoizedTemplate.getMissCount();
+
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getMemoEvictions() {
+        return MemoizedTemplate.getEvictionCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public long getMissingKeyCount() {
+        long missing = 0;
+
+        for (MessageHandler handler : MessageFactory.activeHandlers()) {
+            missing += handler.getMissingKeyCount();
+        }
+
+        return missing;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return
+     */
+    public List<String> fetchMissingKeys() {
+        List<String> bundles = new ArrayList<>();
+
+        for (MessageHandler handler : MessageFactory.activeHandlers()) {
+            if (handler.getMissingKeyCount() > 0) {
+                bundles.add(handler.getDescription() + ": " + handler.getMissingKeyCount() + " missing " +
+                        new TreeSet<>( handler.getMissingKeys() ));
+            }
+        }
+
+        return bundles;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -96,6 +549,14 @@ public class I18nService implements I18nServiceMBean {
             bundles.add(name);
         }
 
+        for (Map.Entry<String, MessageFactory.MissingBundle> entry : MessageFactory.missingBundles.entrySet()) {
+            long remaining = entry.getValue().remainingMillis();
+
+            if (remaining > 0) {
+                bundles.add(entry.getKey() + " (missing, expires in " + remaining + " ms)");
+            }
+        }
+
         return bundles;
     }
 }
@@ -41,6 +41,239 @@ public interface I18nServiceMBean {
      */
     void setFabricateBundles(boolean yesno);
 
+    /**
+     * Switch to back new messages objects with generated classes instead of dynamic proxies.
+     *
+     * @return Class generation flag
+     */
+    boolean getGenerateClasses();
+
+    /**
+     * Switch to back new messages objects with generated classes instead of dynamic proxies.
+     *
+     * @param yesno
+     */
+    void setGenerateClasses(boolean yesno);
+
+    /**
+     * Name of the engine used to compile the message patterns of new messages objects.
+     *
+     * @return Template engine name
+     */
+    String getTemplateEngine();
+
+    /**
+     * Name of the engine used to compile the message patterns of new messages objects, either
+     * {@code MESSAGE_FORMAT} or {@code COMPILED}.
+     *
+     * @param engine
+     */
+    void setTemplateEngine(String engine);
+
+    /**
+     * Maximum number of messages objects kept across all interfaces and locales.
+     *
+     * @return Cache limit
+     */
+    int getCacheMaxEntries();
+
+    /**
+     * Maximum number of messages objects kept across all interfaces and locales. Lowering the limit
+     * evicts right away.
+     *
+     * @param maxEntries
+     */
+    void setCacheMaxEntries(int maxEntries);
+
+    /**
+     * Name of the policy used to evict messages objects once the cache is full.
+     *
+     * @return Cache policy name
+     */
+    String getCachePolicy();
+
+    /**
+     * Name of the policy used to evict messages objects once the cache is full, either {@code LRU}
+     * or {@code LFU}.
+     *
+     * @param policy
+     */
+    void setCachePolicy(String policy);
+
+    /**
+     * Switch to keep evicted messages objects softly reachable instead of dropping them.
+     *
+     * @return Soft reference flag
+     */
+    boolean getSoftReferences();
+
+    /**
+     * Switch to keep evicted messages objects softly reachable instead of dropping them.
+     *
+     * @param yesno
+     */
+    void setSoftReferences(boolean yesno);
+
+    /**
+     * Number of evicted messages objects that are still softly reachable.
+     *
+     * @return Cold cache size
+     */
+    int getSoftCacheSize();
+
+    /**
+     * Number of requests for a messages object that were served from the cache.
+     *
+     * @return Cache hit count
+     */
+    long getCacheHits();
+
+    /**
+     * Number of requests for a messages object that had to create one.
+     *
+     * @return Cache miss count
+     */
+    long getCacheMisses();
+
+    /**
+     * Fraction of requests for a messages object that were served from the cache.
+     *
+     * @return Hit rate between 0 and 1
+     */
+    double getCacheHitRate();
+
+    /**
+     * Number of messages objects evicted from the cache.
+     *
+     * @return Eviction count
+     */
+    long getCacheEvictions();
+
+    /**
+     * Delay in milliseconds between checks for changed bundle files, 0 if bundles are not reloaded.
+     *
+     * @return Reload interval
+     */
+    long getReloadInterval();
+
+    /**
+     * Delay in milliseconds between checks for changed bundle files, 0 to stop reloading.
+     *
+     * @param millis
+     */
+    void setReloadInterval(long millis);
+
+    /**
+     * Reloads the bundles of all active messages objects right away.
+     *
+     * @return Number of bundles reloaded
+     */
+    int reloadBundles();
+
+    /**
+     * Loads and compiles the bundles of the given messages interfaces in the given locales ahead of their
+     * first use.
+     *
+     * @param types   Comma separated class names of interfaces that extend {@link Messages}
+     * @param locales Comma separated locales such as "en_US,fr_FR"
+     * @return Report of the timings and failures of each bundle and locale pair
+     * @see MessageFactory#preload
+     */
+    String preload(String types, String locales);
+
+    /**
+     * Loads and compiles the bundles of every messages interface listed in the bundle index, in every
+     * locale that has a bundle file.
+     *
+     * @return Report of the timings and failures of each bundle and locale pair
+     * @see MessageFactory#preloadIndexed
+     */
+    String preloadIndexed();
+
+    /**
+     * Switch to consult the build time bundle index before searching the class path for a bundle.
+     *
+     * @return Bundle index flag
+     */
+    boolean getUseIndex();
+
+    /**
+     * Switch to consult the build time bundle index before searching the class path for a bundle.
+     *
+     * @param yesno
+     */
+    void setUseIndex(boolean yesno);
+
+    /**
+     * Time the last reload took to rebuild its bundles.
+     *
+     * @return Duration in milliseconds
+     */
+    long getLastReloadMillis();
+
+    /**
+     * Number of bundles reloaded so far.
+     *
+     * @return Reload count
+     */
+    long getReloadCount();
+
+    /**
+     * Estimated number of bytes currently saved by sharing identical strings and templates between bundles.
+     *
+     * @return Bytes saved
+     */
+    long getPoolBytesSaved();
+
+    /**
+     * Number of strings and templates that were replaced by a shared copy.
+     *
+     * @return Pool hit count
+     */
+    long getPoolHits();
+
+    /**
+     * Number of distinct strings and templates currently shared between bundles.
+     *
+     * @return Pool size
+     */
+    int getPoolSize();
+
+    /**
+     * Time a bundle that was not found is remembered as missing.
+     *
+     * @return Time in milliseconds, 0 if missing bundles are not remembered
+     */
+    long getMissingBundleTtl();
+
+    /**
+     * Time a bundle that was not found is remembered as missing.
+     *
+     * @param millis
+     */
+    void setMissingBundleTtl(long millis);
+
+    /**
+     * Locale served in place of bundles that do not exist.
+     *
+     * @return Locale string, empty if missing bundles throw
+     */
+    String getSubstituteLocale();
+
+    /**
+     * Locale served in place of bundles that do not exist.
+     *
+     * @param locale Locale string such as "en_US", empty to throw instead
+     */
+    void setSubstituteLocale(String locale);
+
+    /**
+     * Number of lookups answered from the cache of missing bundles.
+     *
+     * @return Missing bundle cache hit count
+     */
+    long getMissingBundleHits();
+
     /**
      * Number of resource bundles currently in use.
      *
@@ -62,6 +295,63 @@ public interface I18nServiceMBean {
      */
     int getFabricatedBundleCount();
 
+    /**
+     * Number of message renders that found an already compiled template, summed over all active bundles.
+     *
+     * @return Template cache hit count
+     */
+    long getTemplateCacheHits();
+
+    /**
+     * Number of message renders that had to compile a template, summed over all active bundles.
+     *
+     * @return Template cache miss count
+     */
+    long getTemplateCacheMisses();
+
+    /**
+     * Number of calls of memoized message methods answered with a remembered message.
+     *
+     * @return Memoization hit count
+     */
+    long getMemoHits();
+
+    /**
+     * Number of calls of memoized message methods that had to render their message.
+     *
+     * @return Memoization miss count
+     */
+    long getMemoMisses();
+
+    /**
+     * Fraction of calls of memoized message methods answered with a remembered message.
+     *
+     * @return Hit rate between 0 and 1
+     */
+    double getMemoHitRate();
+
+    /**
+     * Number of remembered messages evicted to make room for new ones.
+     *
+     * @return Memoization eviction count
+     */
+    long getMemoEvictions();
+
+    /**
+     * Number of lookups of message keys that their bundle has no message for, summed over all active bundles.
+     *
+     * @return Missing key count
+     */
+    long getMissingKeyCount();
+
+    /**
+     * Returns the active message bundles that were asked for keys they have no message for, with the
+     * number of such lookups and the missing keys.
+     *
+     * @return List of bundle names with their missing key counts and keys
+     */
+    List<String> fetchMissingKeys();
+
     /**
      * Current application locale.
      *
@@ -70,7 +360,7 @@ public interface I18nServiceMBean {
     Locale getApplicationLocale();
 
     /**
-     * Returns a list of the active message bundles.
+     * Returns a list of the active message bundles, followed by the bundles currently remembered as missing.
      *
      * @return List of bundle names
      */
@@ -0,0 +1,366 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.swiftshire.i18n.annotation.Message;
+import org.swiftshire.i18n.handler.DispatchEntry;
+import org.swiftshire.i18n.handler.GeneratedMessages;
+import org.swiftshire.i18n.handler.MessageHandler;
+import org.swiftshire.i18n.locale.LocaleManager;
+import org.swiftshire.i18n.locale.LocaleRegistry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Invocation handler of locale aware messages objects. Every call is forwarded to the messages object of the
+ * locale that is current for the calling thread according to {@link LocaleManager}, so that a single
+ * {@code static final} messages field can serve any number of locales at once.
+ * <p/>
+ * The messages objects already used are kept in an array indexed by {@link LocaleRegistry#id(Locale) locale id},
+ * so calls take no lock and never touch the registry of the factory. The array is copied on write. Locales
+ * without an id, once the locale registry is full, are kept in a bounded map; only locales beyond that bound
+ * are resolved through {@link MessageFactory#create(Class, Locale)} on every call.
+ * <p/>
+ * Calls are forwarded to the invocation handler of proxy targets directly. Calls of generated targets are
+ * resolved once per method into the index of the generated method, after which they render through the
+ * template of the target without reflection.
+ *
+ * @author swiftj
+ * @since 1.0
+ * @see MessageFactory#createLocaleAware(Class)
+ */
+final class LocaleDispatcher<T extends Messages> implements InvocationHandler {
+    /**
+     * Maximum number of locales without an id that are kept.
+     */
+    static final int MAX_OVERFLOW = 64;
+
+    /**
+     * Messages interface
+     */
+    private final Class<T> type;
+
+    /**
+     * Messages objects of the locales used so far
+     */
+    private final AtomicReference<Targets> targets = new AtomicReference<>( new Targets(-1, new Target[0]) );
+
+    /**
+     * Calls of generated targets resolved so far, by interface method
+     */
+    private final ConcurrentMap<Method, Call> calls = new ConcurrentHashMap<>();
+
+    LocaleDispatcher(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Creates a locale aware messages object for the given interface.
+     *
+     * @param type Messages interface
+     * @return Messages object dispatching on the current locale
+     */
+    static <T extends Messages> T newInstance(Class<T> type) {
+        return type.cast( Proxy.newProxyInstance(type.getClassLoader(), new Class[] { type },
+                new LocaleDispatcher<>(type)) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "LocaleAware[" + type.getName() + "]";
+            }
+        }
+
+        Target target = target( currentLocale() );
+
+        if (target.handler != null) {
+            return target.handler.invoke(target.messages, method, args);
+        }
+
+        if (target.messages instanceof GeneratedMessages) {
+            return dispatch((GeneratedMessages) target.messages, method, args);
+        }
+
+        return invokeReflectively(target.messages, method, args);
+    }
+
+    /**
+     * Forwards a call to a generated messages object.
+     *
+     * @param messages Generated messages object of the current locale
+     * @param method   Interface method called
+     * @param args     Arguments of the call, may be {@code null}
+     * @return Result of the call
+     * @throws Throwable whatever the call throws
+     */
+    private Object dispatch(GeneratedMessages messages, Method method, Object[] args) throws Throwable {
+        Call call = calls.get(method);
+
+        // Indexes belong to one generated class, which is the same for every locale of the interface
+        if (call == null || call.owner != messages.getClass()) {
+            call = Call.resolve(messages, method);
+            calls.put(method, call);
+        }
+
+        if (call.kind == null) {
+            return invokeReflectively(messages, method, args);
+        }
+
+        switch (call.kind) {
+            case MESSAGE:
+                return messages.messageTemplate(call.index).format(args);
+
+            case MESSAGE_TO:
+                MessageHandler.render(messages.messageTemplate(call.index), (Appendable) args[0],
+                        Arrays.copyOfRange(args, 1, args.length));
+                return null;
+
+            case FORMAT:
+                return messages.format( (String) args[0] );
+
+            case FORMAT_ARGS:
+                return messages.format( (String) args[0], (Object[]) args[1] );
+
+            case FORMAT_TO:
+                messages.formatTo( (Appendable) args[0], (String) args[1], (Object[]) args[2] );
+                return null;
+
+            case GET_BUNDLE:
+                return messages.getBundle();
+
+            case GET_LOCALE:
+                return messages.getLocale();
+
+            default:
+                return invokeReflectively(messages, method, args);
+        }
+    }
+
+    /**
+     * Forwards a call that has no resolved dispatch through reflection.
+     */
+    private static Object invokeReflectively(Messages messages, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(messages, args);
+        }
+        catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Returns the locale of the calling thread.
+     */
+    private static Locale currentLocale() {
+        Locale locale = LocaleManager.getManager().getLocale();
+
+        return locale != null ? locale : Locale.getDefault();
+    }
+
+    /**
+     * Returns the messages object of the given locale, creating it on first use.
+     *
+     * @param locale Locale of the calling thread
+     * @return Dispatch target
+     */
+    Target target(Locale locale) {
+        Targets current = targets.get();
+        int id = LocaleRegistry.id(locale);
+
+        if (current.epoch == MessagesRegistry.epoch()) {
+            Target target = id != LocaleRegistry.NO_ID ? current.get(id) : current.overflow.get(locale);
+
+            if (target != null) {
+                return target;
+            }
+        }
+
+        return add(id, locale);
+    }
+
+    /**
+     * Creates the messages object of a locale not used before and keeps it.
+     */
+    private Target add(int id, Locale locale) {
+        Messages messages = MessageFactory.create(type, locale);
+        Target target = new Target(locale, messages);
+
+        while (true) {
+            Targets current = targets.get();
+            int epoch = MessagesRegistry.epoch();
+
+            if (current.epoch != epoch) {
+                Targets fresh = new Targets(epoch, new Target[0]);
+
+                if (!targets.compareAndSet(current, fresh)) {
+                    continue;
+                }
+
+                current = fresh;
+            }
+
+            if (id == LocaleRegistry.NO_ID) {
+                if (current.overflow.size() < MAX_OVERFLOW) {
+                    current.overflow.putIfAbsent(locale, target);
+                }
+
+                return target;
+            }
+
+            Target[] grown = Arrays.copyOf(current.entries, Math.max(current.entries.length, id + 1));
+            grown[id] = target;
+
+            Targets next = new Targets(epoch, grown, current.overflow);
+
+            if (targets.compareAndSet(current, next)) {
+                return target;
+            }
+        }
+    }
+
+    /**
+     * Messages object of one locale.
+     */
+    static final class Target {
+        final Locale locale;
+        final Messages messages;
+
+        /**
+         * Handler of the messages object if it is a proxy, which is then invoked directly
+         */
+        final InvocationHandler handler;
+
+        Target(Locale locale, Messages messages) {
+            this.locale = locale;
+            this.messages = messages;
+            this.handler = Proxy.isProxyClass( messages.getClass() ) ? Proxy.getInvocationHandler(messages) : null;
+        }
+    }
+
+    /**
+     * How a method of the interface is forwarded to a generated messages object.
+     */
+    private static final class Call {
+        /**
+         * Generated class the call was resolved against
+         */
+        final Class<?> owner;
+
+        /**
+         * What the method does, {@code null} if it is forwarded through reflection
+         */
+        final DispatchEntry.Kind kind;
+
+        /**
+         * Index of the generated method rendering the message, -1 unless the method is a message
+         */
+        final int index;
+
+        Call(Class<?> owner, DispatchEntry.Kind kind, int index) {
+            this.owner = owner;
+            this.kind = kind;
+            this.index = index;
+        }
+
+        /**
+         * Resolves a method against a generated messages object.
+         *
+         * @param messages Generated messages object
+         * @param method   Interface method
+         * @return Resolved call
+         */
+        static Call resolve(GeneratedMessages messages, Method method) {
+            Class<?> owner = messages.getClass();
+            Message annotation = method.getAnnotation(Message.class);
+
+            if (annotation != null) {
+                int index = messages.messageIndex( annotation.key().isEmpty() ? method.getName() : annotation.key() );
+
+                if (index >= 0) {
+                    return new Call(owner, MessageHandler.isSink(method) ?
+                            DispatchEntry.Kind.MESSAGE_TO : DispatchEntry.Kind.MESSAGE, index);
+                }
+            }
+            else if (method.getDeclaringClass() == Messages.class) {
+                switch (method.getName()) {
+                    case "format":
+                        return new Call(owner, method.getParameterTypes().length == 1 ?
+                                DispatchEntry.Kind.FORMAT : DispatchEntry.Kind.FORMAT_ARGS, -1);
+                    case "formatTo":
+                        return new Call(owner, DispatchEntry.Kind.FORMAT_TO, -1);
+                    case "getBundle":
+                        return new Call(owner, DispatchEntry.Kind.GET_BUNDLE, -1);
+                    case "getLocale":
+                        return new Call(owner, DispatchEntry.Kind.GET_LOCALE, -1);
+                    default:
+                        break;
+                }
+            }
+
+            return new Call(owner, null, -1);
+        }
+    }
+
+    /**
+     * Targets created during one registry epoch.
+     */
+    private static final class Targets {
+        final int epoch;
+
+        /**
+         * Targets indexed by locale id, never modified once published
+         */
+        final Target[] entries;
+
+        /**
+         * Targets of locales without an id
+         */
+        final ConcurrentMap<Locale, Target> overflow;
+
+        Targets(int epoch, Target[] entries) {
+            this(epoch, entries, new ConcurrentHashMap<Locale, Target>());
+        }
+
+        Targets(int epoch, Target[] entries, ConcurrentMap<Locale, Target> overflow) {
+            this.epoch = epoch;
+            this.entries = entries;
+            this.overflow = overflow;
+        }
+
+        Target get(int id) {
+            return id < entries.length ? entries[id] : null;
+        }
+    }
+}
@@ -21,8 +21,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.swiftshire.i18n.annotation.BundleType;
 import org.swiftshire.i18n.annotation.Message;
+import org.swiftshire.i18n.format.TemplateEngine;
+import org.swiftshire.i18n.handler.GeneratedMessages;
 import org.swiftshire.i18n.handler.MessageHandler;
+import org.swiftshire.i18n.handler.MessagesClassGenerator;
+import org.swiftshire.i18n.handler.ResolvedBundle;
+import org.swiftshire.i18n.handler.TemplateCache;
 import org.swiftshire.i18n.locale.LocaleManager;
+import org.swiftshire.i18n.locale.LocaleRegistry;
 import org.swiftshire.i18n.annotation.ResourceBundle;
 
 import javax.management.InstanceAlreadyExistsException;
@@ -34,9 +40,18 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Creates message handlers of type {@link Messages} to perform l10n within your application. Note that
@@ -72,9 +87,69 @@ public class MessageFactory {
     private static final String EMPTY = "";
 
     /**
-     * Internal message (handlers) cache.
+     * Default maximum number of cached messages objects
      */
-    static final Map<String, Messages> handlers = new ConcurrentHashMap<>();
+    static final int DEFAULT_CACHE_MAX_ENTRIES = 512;
+
+    /**
+     * Index of all cached messages objects by bundle name and locale, for management purposes. Lookups
+     * go through the {@link MessagesRegistry} of the interface instead.
+     */
+    static final ConcurrentMap<String, Messages> handlers = new ConcurrentHashMap<>();
+
+    /**
+     * Handlers of every messages object created that is still reachable, whether it is cached or not and
+     * whatever its bundle name. Bundle reloads and statistics walk these rather than {@link #handlers}, since
+     * interfaces sharing a bundle name share a key there and evicted objects may still be in use. Handlers
+     * do not override {@code equals}, so entries are keyed by identity. Guarded by itself.
+     */
+    private static final Map<MessageHandler, Boolean> liveHandlers = new WeakHashMap<>();
+
+    /**
+     * Upper bound on the number of fallback chains kept by {@link #expand(String, Locale, String)}.
+     * Chains beyond it are still computed, just not retained.
+     */
+    private static final int MAX_FALLBACK_CHAINS = 1024;
+
+    /**
+     * Fallback chains computed by {@link #expand(String, Locale, String)}.
+     */
+    private static final ConcurrentMap<FallbackKey, List<String>> fallbackChains = new ConcurrentHashMap<>();
+
+    /**
+     * Default time in milliseconds a missing bundle is remembered.
+     */
+    public static final long DEFAULT_MISSING_BUNDLE_TTL = 60000L;
+
+    /**
+     * Upper bound on the number of missing bundles remembered. Lookups beyond it are not cached.
+     */
+    private static final int MAX_MISSING_BUNDLES = 1024;
+
+    /**
+     * Bundles known to be missing keyed by cache id, so that repeated requests for a locale that is not
+     * shipped do not search the class path again.
+     */
+    static final ConcurrentMap<String, MissingBundle> missingBundles = new ConcurrentHashMap<>();
+
+    /**
+     * Time in milliseconds a missing bundle is remembered, 0 to not remember them. Defaults to the value
+     * of the {@code ji18n.missing.ttl} system property, or {@link #DEFAULT_MISSING_BUNDLE_TTL} if not set.
+     */
+    static final AtomicLong missingBundleTtl =
+            new AtomicLong( Long.getLong("ji18n.missing.ttl", DEFAULT_MISSING_BUNDLE_TTL) );
+
+    /**
+     * Locale served instead of a missing bundle, {@code null} to fail instead. Defaults to the value of the
+     * {@code ji18n.missing.substitute} system property.
+     */
+    static final AtomicReference<Locale> substituteLocale =
+            new AtomicReference<>( parseLocale(System.getProperty("ji18n.missing.substitute")) );
+
+    /**
+     * Number of lookups answered by the missing bundle cache.
+     */
+    static final AtomicLong missingBundleHits = new AtomicLong();
 
     /**
      * Flag that controls whether bundles can be fabricated on the fly when there is
@@ -82,6 +157,53 @@ public class MessageFactory {
      */
     static final AtomicBoolean doBundleFabrication = new AtomicBoolean(true);
 
+    /**
+     * Flag that controls whether messages objects are backed by classes generated at run time
+     * instead of {@code java.lang.reflect.Proxy} instances. Defaults to the value of the
+     * {@code ji18n.generate} system property.
+     */
+    static final AtomicBoolean doClassGeneration = new AtomicBoolean( Boolean.getBoolean("ji18n.generate") );
+
+    /**
+     * Engine used to compile the message patterns of new messages objects. Defaults to the value of the
+     * {@code ji18n.engine} system property, or {@link TemplateEngine#MESSAGE_FORMAT} if not set.
+     */
+    static final AtomicReference<TemplateEngine> templateEngine =
+            new AtomicReference<>( parseEngine(System.getProperty("ji18n.engine"), TemplateEngine.MESSAGE_FORMAT) );
+
+    /**
+     * Maximum number of messages objects kept strongly across all interfaces and locales. Defaults to the
+     * value of the {@code ji18n.cache.max} system property, or {@value #DEFAULT_CACHE_MAX_ENTRIES} if not set.
+     */
+    static final AtomicInteger cacheMaxEntries =
+            new AtomicInteger( Integer.getInteger("ji18n.cache.max", DEFAULT_CACHE_MAX_ENTRIES) );
+
+    /**
+     * Policy selecting which messages object to evict once the cache is full. Defaults to the value of
+     * the {@code ji18n.cache.policy} system property, or {@link CachePolicy#LRU} if not set.
+     */
+    static final AtomicReference<CachePolicy> cachePolicy =
+            new AtomicReference<>( parseCachePolicy(System.getProperty("ji18n.cache.policy"), CachePolicy.LRU) );
+
+    /**
+     * Flag that controls whether evicted messages objects are kept softly reachable rather than dropped.
+     * Defaults to the value of the {@code ji18n.cache.soft} system property.
+     */
+    static final AtomicBoolean softReferences = new AtomicBoolean( Boolean.getBoolean("ji18n.cache.soft") );
+
+    /**
+     * Flag to consult the build time bundle index before searching the class path for a bundle.
+     * Defaults to the value of the {@code ji18n.index} system property, or true if it is not set.
+     */
+    static final AtomicBoolean useIndex =
+            new AtomicBoolean( Boolean.parseBoolean(System.getProperty("ji18n.index", "true")) );
+
+    /**
+     * Delay in milliseconds between checks for changed bundle files, 0 if bundles are not reloaded.
+     * Defaults to the value of the {@code ji18n.reload.interval} system property.
+     */
+    static final AtomicLong reloadInterval = new AtomicLong( Long.getLong("ji18n.reload.interval", 0L) );
+
     /**
      * Missing bundle counter to track how many missing bundles there are.
      */
@@ -111,6 +233,10 @@ public class MessageFactory {
 				log.debug("I18n MBean registration failure", ex);
 			}
 		}
+
+		if (reloadInterval.get() > 0) {
+			BundleReloader.setInterval( reloadInterval.get() );
+		}
 	}
 
     protected MessageFactory() {}
@@ -137,6 +263,275 @@ public class MessageFactory {
         return doBundleFabrication.get();
     }
 
+    /**
+     * Controls whether new messages objects are implemented by classes generated at run time rather
+     * than by dynamic proxies. Generated classes call each message's compiled template directly, which
+     * is considerably cheaper per call. Interfaces that cannot be generated still get a proxy. Note that
+     * this only affects messages objects created after the call.
+     *
+     * @param yesno enable or disable class generation
+     */
+    public static void setGenerateClasses(boolean yesno) {
+        doClassGeneration.set(yesno);
+    }
+
+    /**
+     * Controls whether new messages objects are implemented by classes generated at run time rather
+     * than by dynamic proxies.
+     *
+     * @return true if this factory generates implementation classes
+     */
+    public static boolean getGenerateClasses() {
+        return doClassGeneration.get();
+    }
+
+    /**
+     * Selects the engine used to compile the message patterns of messages objects created after the call.
+     * {@link TemplateEngine#COMPILED} renders messages without the per call allocations of
+     * {@code java.text.MessageFormat} while producing identical output.
+     *
+     * @param engine Template engine to use
+     */
+    public static void setTemplateEngine(TemplateEngine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Template engine must not be null");
+        }
+
+        templateEngine.set(engine);
+    }
+
+    /**
+     * Returns the engine used to compile the message patterns of new messages objects.
+     *
+     * @return Template engine in use
+     */
+    public static TemplateEngine getTemplateEngine() {
+        return templateEngine.get();
+    }
+
+    /**
+     * Parses a template engine name, ignoring case.
+     *
+     * @param name     Engine name, may be {@code null}
+     * @param fallback Engine to return if the name is {@code null} or unknown
+     * @return Template engine
+     */
+    static TemplateEngine parseEngine(String name, TemplateEngine fallback) {
+        if (name != null) {
+            try {
+                return TemplateEngine.valueOf( name.trim().toUpperCase(Locale.ROOT) );
+            }
+            catch (IllegalArgumentException ex) {
+                log.warn("Unknown template engine '" + name + "'; using " + fallback);
+            }
+        }
+
+        return fallback;
+    }
+
+    /**
+     * Limits the number of messages objects kept across all interfaces and locales. Once the limit is
+     * exceeded messages objects are evicted according to the {@link #setCachePolicy(CachePolicy) cache policy};
+     * lowering the limit evicts right away. Messages objects already handed out keep working after
+     * eviction, {@code create} merely builds a new one the next time it is asked for that locale.
+     *
+     * @param maxEntries Maximum number of cached messages objects, at least 1
+     */
+    public static void setCacheMaxEntries(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache must hold at least one entry");
+        }
+
+        cacheMaxEntries.set(maxEntries);
+        HandlerCache.trim();
+    }
+
+    /**
+     * Returns the maximum number of messages objects kept across all interfaces and locales.
+     *
+     * @return Cache limit
+     */
+    public static int getCacheMaxEntries() {
+        return cacheMaxEntries.get();
+    }
+
+    /**
+     * Selects the policy used to evict messages objects once the cache is full.
+     *
+     * @param policy Eviction policy
+     */
+    public static void setCachePolicy(CachePolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Cache policy must not be null");
+        }
+
+        cachePolicy.set(policy);
+    }
+
+    /**
+     * Returns the policy used to evict messages objects once the cache is full.
+     *
+     * @return Eviction policy
+     */
+    public static CachePolicy getCachePolicy() {
+        return cachePolicy.get();
+    }
+
+    /**
+     * Controls whether evicted messages objects are kept through soft references, so that locales which
+     * have gone cold can be revived without reloading their bundle for as long as the heap has room.
+     *
+     * @param yesno enable or disable soft references
+     */
+    public static void setSoftReferences(boolean yesno) {
+        softReferences.set(yesno);
+    }
+
+    /**
+     * Controls whether evicted messages objects are kept through soft references.
+     *
+     * @return true if evicted messages objects are kept softly reachable
+     */
+    public static boolean getSoftReferences() {
+        return softReferences.get();
+    }
+
+    /**
+     * Controls whether the bundle index written by the Maven i18n plugin to {@code META-INF/ji18n/index} is
+     * consulted before searching the class path. With the index, locales that have no bundle file fail right
+     * away instead of probing every candidate name. Disable it when bundles are added to the class path
+     * without being indexed, such as unindexed language packs.
+     *
+     * @param yesno enable or disable the bundle index
+     */
+    public static void setUseIndex(boolean yesno) {
+        useIndex.set(yesno);
+    }
+
+    /**
+     * Controls whether the bundle index is consulted before searching the class path.
+     *
+     * @return true if the bundle index is used
+     */
+    public static boolean getUseIndex() {
+        return useIndex.get();
+    }
+
+    /**
+     * Enables reloading of property bundles that change on disk. A daemon thread watches the class path
+     * directories holding the bundles of active messages objects and checks them at least every
+     * {@code millis} milliseconds; changed bundles are rebuilt on that thread and swapped in atomically.
+     * Messages objects already handed out pick up the new messages. Bundles packaged in archives are
+     * never reloaded.
+     *
+     * @param millis Delay between checks in milliseconds, or 0 to stop reloading
+     */
+    public static void setReloadInterval(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Reload interval must not be negative");
+        }
+
+        reloadInterval.set(millis);
+        BundleReloader.setInterval(millis);
+    }
+
+    /**
+     * Returns the delay between checks for changed bundle files.
+     *
+     * @return Delay in milliseconds, 0 if bundles are not reloaded
+     */
+    public static long getReloadInterval() {
+        return reloadInterval.get();
+    }
+
+    /**
+     * Reloads the bundles of all cached messages objects right away, whether or not they changed. Each
+     * bundle is rebuilt before it is swapped in, so concurrent callers keep rendering with the previous
+     * bundle in the meantime.
+     *
+     * @return Number of bundles reloaded
+     */
+    public static int reloadBundles() {
+        missingBundles.clear();
+
+        return BundleReloader.reloadAll();
+    }
+
+    /**
+     * Sets how long a bundle that was not found is remembered as missing. Within that time further requests
+     * for the same bundle and locale fail, or are served in the substitute locale, without searching the
+     * class path again. Bundles that are fabricated are never considered missing.
+     *
+     * @param millis Time to remember missing bundles in milliseconds, or 0 to not remember them
+     * @see #setSubstituteLocale(Locale)
+     */
+    public static void setMissingBundleTtl(long millis) {
+        missingBundleTtl.set( Math.max(0L, millis) );
+
+        if (millis <= 0) {
+            missingBundles.clear();
+        }
+    }
+
+    /**
+     * Returns how long a bundle that was not found is remembered as missing.
+     *
+     * @return Time in milliseconds, 0 if missing bundles are not remembered
+     */
+    public static long getMissingBundleTtl() {
+        return missingBundleTtl.get();
+    }
+
+    /**
+     * Sets the locale whose messages objects are returned for bundles that do not exist, instead of
+     * throwing {@code MissingResourceException}.
+     *
+     * @param locale Substitute locale, or {@code null} to throw
+     */
+    public static void setSubstituteLocale(Locale locale) {
+        substituteLocale.set(locale);
+    }
+
+    /**
+     * Returns the locale whose messages objects are returned for bundles that do not exist.
+     *
+     * @return Substitute locale, {@code null} if missing bundles throw
+     */
+    public static Locale getSubstituteLocale() {
+        return substituteLocale.get();
+    }
+
+    /**
+     * Parses an optional locale setting.
+     *
+     * @param localeString Locale string such as "en_US", may be {@code null} or empty
+     * @return Locale, {@code null} if not set
+     */
+    static Locale parseLocale(String localeString) {
+        return localeString != null && localeString.trim().length() > 0 ?
+                LocaleRegistry.parse( localeString.trim() ) : null;
+    }
+
+    /**
+     * Parses a cache policy name, ignoring case.
+     *
+     * @param name     Policy name, may be {@code null}
+     * @param fallback Policy to return if the name is {@code null} or unknown
+     * @return Cache policy
+     */
+    static CachePolicy parseCachePolicy(String name, CachePolicy fallback) {
+        if (name != null) {
+            try {
+                return CachePolicy.valueOf( name.trim().toUpperCase(Locale.ROOT) );
+            }
+            catch (IllegalArgumentException ex) {
+                log.warn("Unknown cache policy '" + name + "'; using " + fallback);
+            }
+        }
+
+        return fallback;
+    }
+
     /**
      * Set the locale with the language and country for the
      * current thread.
@@ -144,7 +539,7 @@ public class MessageFactory {
      * @param language language code of the locale
      */
     public static void setThreadLocale(String language) {
-        LocaleManager.getManager().setThreadLocale( new Locale(language) );
+        LocaleManager.getManager().setThreadLocale( LocaleRegistry.of(language, "", "") );
     }
 
     /**
@@ -155,7 +550,7 @@ public class MessageFactory {
      * @param country  country code of the locale
      */
     public static void setThreadLocale(String language, String country) {
-        LocaleManager.getManager().setThreadLocale( new Locale(language, country) );
+        LocaleManager.getManager().setThreadLocale( LocaleRegistry.of(language, country, "") );
     }
 
     /**
@@ -167,7 +562,7 @@ public class MessageFactory {
      * @param variant variant code of the locale
      */
     public static void setThreadLocale(String language, String country, String variant) {
-        LocaleManager.getManager().setThreadLocale( new Locale(language, country, variant) );
+        LocaleManager.getManager().setThreadLocale( LocaleRegistry.of(language, country, variant) );
     }
 
     /**
@@ -186,7 +581,7 @@ public class MessageFactory {
      * @param language language code of the locale
      */
     public static void setLocale(String language) {
-        LocaleManager.getManager().setLocale( new Locale(language) );
+        LocaleManager.getManager().setLocale( LocaleRegistry.of(language, "", "") );
     }
 
     /**
@@ -196,7 +591,7 @@ public class MessageFactory {
      * @param country  country code of the locale
      */
     public static void setLocale(String language, String country) {
-        LocaleManager.getManager().setLocale( new Locale(language, country) );
+        LocaleManager.getManager().setLocale( LocaleRegistry.of(language, country, "") );
     }
 
     /**
@@ -207,7 +602,7 @@ public class MessageFactory {
      * @param variant variant code of the locale
      */
     public static void setLocale(String language, String country, String variant) {
-        LocaleManager.getManager().setLocale( new Locale(language, country, variant) );
+        LocaleManager.getManager().setLocale( LocaleRegistry.of(language, country, variant) );
     }
 
     /**
@@ -229,32 +624,15 @@ public class MessageFactory {
     }
 
     /**
-     * Parses the locale string, which must be in the form of "language_country_variant"
-     * where country and variant are optional, and returns that locale.
-     *
-     * @param localeString the locale string in the form of
-     * "language_country_variant"
-     *
-     * @return the true locale
-     */
-    private static Locale parseLocaleString(String localeString) {
-
-        String[] localeComponents = localeString.split("_");
-
-        String language = localeComponents.length > 0 ? localeComponents[0] : "";
-        String country  = localeComponents.length > 1 ? localeComponents[1] : "";
-        String variant  = localeComponents.length > 2 ? localeComponents[2] : "";
-
-        return new Locale(language, country, variant);
-    }
-
-    /**
-     * Expands messages with locale information in various ways.
+     * Expands messages with locale information in various ways. The candidate names are ordered from
+     * most to least specific, i.e. {@code name_lang_COUNTRY_variant} down to {@code name}, each ending
+     * with the given suffix. Chains are computed once per name, locale and suffix and then served
+     * from a table, so the returned list is shared and cannot be modified.
      *
-     * @param name
-     * @param locale
-     * @param suffix
-     * @return
+     * @param name   Base name to expand
+     * @param locale Locale to expand the name with
+     * @param suffix Suffix appended to every candidate, e.g. {@code ".properties"}
+     * @return Immutable list of candidate names, most specific first
      */
     public static List<String> expand(String name, Locale locale, String suffix) {
         if (name == null) {
@@ -269,36 +647,165 @@ public class MessageFactory {
             throw new IllegalArgumentException("Suffix must not be null");
         }
 
-        List<String> names = new ArrayList<>();
+        FallbackKey key = new FallbackKey(name, locale, suffix);
+        List<String> names = fallbackChains.get(key);
+
+        if (names == null) {
+            names = buildFallbackChain(name, locale, suffix);
+
+            if (fallbackChains.size() < MAX_FALLBACK_CHAINS) {
+                List<String> existing = fallbackChains.putIfAbsent(key, names);
+
+                if (existing != null) {
+                    names = existing;
+                }
+            }
+        }
+
+        return names;
+    }
 
-        StringBuilder buffer = new StringBuilder(name);
+    /**
+     * Builds the candidate names of {@link #expand(String, Locale, String)} directly in most specific
+     * first order.
+     *
+     * @param name   Base name to expand
+     * @param locale Locale to expand the name with
+     * @param suffix Suffix appended to every candidate
+     * @return Immutable list of candidate names
+     */
+    private static List<String> buildFallbackChain(String name, Locale locale, String suffix) {
         String language = locale.getLanguage();
         String country  = locale.getCountry();
         String variant  = locale.getVariant();
 
-        names.add(name + suffix);
+        String[] names = new String[4];
+        int count = 0;
+
+        StringBuilder buffer = new StringBuilder(name.length() + suffix.length() + 16).append(name);
+        names[count++] = name + suffix;
 
         if (!EMPTY.equals(language)) {
-            buffer.append("_");
-            buffer.append(language);
-            names.add(buffer.toString() + suffix);
+            buffer.append('_').append(language);
+            names[count++] = buffer + suffix;
         }
 
         if (!EMPTY.equals(country)) {
-            buffer.append("_");
-            buffer.append(country);
-            names.add(buffer.toString() + suffix);
+            buffer.append('_').append(country);
+            names[count++] = buffer + suffix;
         }
 
         if (!EMPTY.equals(variant)) {
-            buffer.append("_");
-            buffer.append(variant);
-            names.add(buffer.toString() + suffix);
+            buffer.append('_').append(variant);
+            names[count++] = buffer + suffix;
         }
 
-        Collections.reverse(names);
+        String[] chain = new String[count];
 
-        return names;
+        for (int i = 0; i < count; i++) {
+            chain[i] = names[count - 1 - i];
+        }
+
+        return Collections.unmodifiableList( Arrays.asList(chain) );
+    }
+
+    /**
+     * Identifies one fallback chain of {@link #expand(String, Locale, String)}.
+     */
+    private static final class FallbackKey {
+        private final String name;
+        private final Locale locale;
+        private final String suffix;
+        private final int hash;
+
+        FallbackKey(String name, Locale locale, String suffix) {
+            this.name = name;
+            this.locale = locale;
+            this.suffix = suffix;
+            this.hash = (name.hashCode() * 31 + locale.hashCode()) * 31 + suffix.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+
+            if (!(other instanceof FallbackKey)) {
+                return false;
+            }
+
+            FallbackKey that = (FallbackKey) other;
+
+            return hash == that.hash && name.equals(that.name) && locale.equals(that.locale)
+                    && suffix.equals(that.suffix);
+        }
+    }
+
+    /**
+     * A bundle remembered as missing until its entry expires.
+     */
+    static final class MissingBundle {
+        /**
+         * Message of the failed lookup
+         */
+        final String message;
+
+        /**
+         * Class name reported by the failed lookup
+         */
+        final String className;
+
+        /**
+         * Key reported by the failed lookup
+         */
+        final String key;
+
+        /**
+         * Expiry as given by {@link System#nanoTime()}
+         */
+        final long expires;
+
+        MissingBundle(MissingResourceException cause, long expires) {
+            this.message = cause.getMessage();
+            this.className = cause.getClassName();
+            this.key = cause.getKey();
+            this.expires = expires;
+        }
+
+        /**
+         * Recreates the failure of the lookup for the current caller. The original exception is not kept,
+         * since its stack trace belongs to whichever caller missed first and it could be modified by anyone
+         * it is thrown to.
+         *
+         * @return New exception describing the missing bundle
+         */
+        MissingResourceException newException() {
+            return new MissingResourceException(message, className, key);
+        }
+
+        /**
+         * Remaining time to live.
+         *
+         * @return Milliseconds until the entry expires, 0 or less if it has expired
+         */
+        long remainingMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(expires - System.nanoTime());
+        }
+
+        /**
+         * Whether the entry is no longer valid.
+         *
+         * @return true if the entry has expired
+         */
+        boolean isExpired() {
+            return expires - System.nanoTime() <= 0;
+        }
     }
 
     /**
@@ -325,7 +832,7 @@ public class MessageFactory {
             String loc = bundle.locale();
 
             if (loc != null) {
-                bundleLocale = parseLocaleString(loc);
+                bundleLocale = LocaleRegistry.parse(loc);
             }
         }
 
@@ -391,7 +898,7 @@ public class MessageFactory {
         Locale locale;
 
         if (localeString != null) {
-            locale = parseLocaleString(localeString);
+            locale = LocaleRegistry.parse(localeString);
         }
         else {
             locale = getLocale();
@@ -417,67 +924,523 @@ public class MessageFactory {
             throw new UnsupportedOperationException("Types derived from Messages must be an interface!");
         }
 
-        // Has the user overridden the default behavior for resource bundles?
-        String bundleName = clazz.getName();
+        final MessagesRegistry registry = MessagesRegistry.of(clazz);
+
+        // Cache hits take no lock and allocate nothing
+        Messages messages = registry.get(locale);
 
-        ResourceBundle bundle = clazz.getAnnotation(ResourceBundle.class);
+        if (messages == null) {
+            messages = load(registry, clazz, locale);
+        }
 
-        if (bundle != null) {
-            // Have they specified a bundle name?
-            String name = bundle.name();
+        return (T) messages;
+    }
+    
+    /**
+     * Returns the locale aware messages object of the given interface. Unlike the objects returned by
+     * {@link #create(Class, Locale)} it is not bound to a locale: every call renders the message in the
+     * locale that is current for the calling thread, as set through {@link #setThreadLocale(String, String)}
+     * or {@link #setLocale(String, String)}. There is a single such object per interface, so it can be kept
+     * in a {@code static final} field of a server handling many locales at once.
+     *
+     * @param clazz An interface that extends {@link Messages}
+     * @return Messages object dispatching on the current locale
+     */
+    public static <T extends Messages> T createLocaleAware(Class<T> clazz) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("Messages type must not be null");
+        }
 
-            if (name != null && name.length() > 0) {
-                bundleName = name;
+        if (!clazz.isInterface()) {
+            throw new UnsupportedOperationException("Types derived from Messages must be an interface!");
+        }
+
+        return MessagesRegistry.of(clazz).getLocaleAware(clazz);
+    }
+
+    /**
+     * Loads the messages objects of the given interfaces in the given locales ahead of their first use and
+     * compiles all of their message templates, so that live requests do not pay for probing the class path,
+     * parsing bundles and compiling patterns. The bundle and locale pairs are loaded in parallel on a
+     * fork-join pool sized to the available processors. Pairs that cannot be loaded are reported rather
+     * than thrown.
+     *
+     * @param types   Interfaces that extend {@link Messages}
+     * @param locales Locales to load each interface in
+     * @return Timings and failures of each bundle and locale pair
+     */
+    public static PreloadReport preload(Collection<Class<? extends Messages>> types, Collection<Locale> locales) {
+        long start = System.nanoTime();
+
+        List<Callable<PreloadReport.Entry>> tasks = new ArrayList<>();
+
+        for (Class<? extends Messages> type : types) {
+            for (Locale locale : locales) {
+                tasks.add( preloadTask(type, locale) );
             }
         }
 
-        final String cacheId = bundleName + "_" + locale;
+        return preload(tasks, start);
+    }
 
-        Messages messages;
+    /**
+     * Preloads every messages interface listed in the bundle indexes visible to the given class loader, in
+     * every locale that has a bundle file. Interfaces that only have a base bundle are loaded in the
+     * default locale. Listed interfaces that cannot be loaded are skipped.
+     *
+     * @param loader Class loader to read the indexes from and to load the interfaces with
+     * @return Timings and failures of each bundle and locale pair
+     * @see #preload(Collection, Collection)
+     */
+    public static PreloadReport preloadIndexed(ClassLoader loader) {
+        long start = System.nanoTime();
 
-        synchronized (handlers) {
-            messages = handlers.get(cacheId);
+        List<Callable<PreloadReport.Entry>> tasks = new ArrayList<>();
 
-            if (messages == null) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Creating new message handler for bundle " +
-                            bundleName.substring( bundleName.lastIndexOf('.') + 1 ) + "_" + locale);
+        for (BundleIndex.Entry entry : BundleIndex.of(loader).entries()) {
+            Class<? extends Messages> type;
+
+            try {
+                type = Class.forName(entry.getType(), false, loader).asSubclass(Messages.class);
+            }
+            catch (ClassNotFoundException | ClassCastException | LinkageError ex) {
+                log.warn("Skipping indexed messages interface " + entry.getType() + ": " + ex);
+                continue;
+            }
+
+            List<Locale> locales = entry.getLocales();
+
+            if (locales.isEmpty() && entry.getKeyCount(Locale.ROOT) >= 0) {
+                locales = Collections.singletonList( getLocale() );
+            }
+
+            for (Locale locale : locales) {
+                tasks.add( preloadTask(type, locale) );
+            }
+        }
+
+        return preload(tasks, start);
+    }
+
+    /**
+     * Runs preload tasks in parallel on a fork-join pool sized to the available processors.
+     *
+     * @param tasks Preload tasks
+     * @param start Start of the preload as given by {@link System#nanoTime()}
+     * @return Timings and failures of each task
+     */
+    private static PreloadReport preload(List<Callable<PreloadReport.Entry>> tasks, long start) {
+        List<PreloadReport.Entry> entries = new ArrayList<>( tasks.size() );
+
+        if (!tasks.isEmpty()) {
+            ForkJoinPool pool = new ForkJoinPool(
+                    Math.min( tasks.size(), Runtime.getRuntime().availableProcessors() ));
+
+            try {
+                for (Future<PreloadReport.Entry> result : pool.invokeAll(tasks)) {
+                    entries.add( awaitEntry(result) );
                 }
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+
+        PreloadReport report = new PreloadReport(entries, System.nanoTime() - start);
+
+        if (log.isInfoEnabled()) {
+            log.info("Preloaded " + report.getLoadedCount() + " of " + entries.size() + " message bundles in " +
+                    report.getElapsedMillis() + " ms");
+        }
+
+        return report;
+    }
+
+    /**
+     * Creates the task preloading one messages interface in one locale.
+     *
+     * @param type   Messages interface
+     * @param locale Locale of the bundle
+     * @return Preload task
+     */
+    private static Callable<PreloadReport.Entry> preloadTask(final Class<? extends Messages> type,
+                                                             final Locale locale) {
+        return new Callable<PreloadReport.Entry>() {
+            public PreloadReport.Entry call() {
+                return preload(type, locale);
+            }
+        };
+    }
+
+    /**
+     * Loads one messages object and compiles all of its templates.
+     *
+     * @param type   Messages interface
+     * @param locale Locale of the bundle
+     * @return Outcome of the preload
+     */
+    private static PreloadReport.Entry preload(Class<? extends Messages> type, Locale locale) {
+        long start = System.nanoTime();
+
+        try {
+            MessageHandler handler = handlerOf( create(type, locale) );
+            int templates = 0;
+
+            if (handler != null) {
+                TemplateCache cache = handler.getTemplateCache();
+                cache.compileAll( handler.getBundle().keySet() );
+                templates = cache.size();
+            }
+
+            return new PreloadReport.Entry(type, locale, System.nanoTime() - start, templates, null);
+        }
+        catch (RuntimeException ex) {
+            return new PreloadReport.Entry(type, locale, System.nanoTime() - start, 0, String.valueOf( ex.getMessage() ));
+        }
+    }
 
-                // Create the proper invocation message handler
-                InvocationHandler handler;
+    /**
+     * Waits for a preload task, which reports its own failures.
+     *
+     * @param result Pending preload
+     * @return Outcome of the preload
+     */
+    private static PreloadReport.Entry awaitEntry(Future<PreloadReport.Entry> result) {
+        boolean interrupted = false;
 
+        try {
+            while (true) {
                 try {
-                    handler = new MessageHandler(bundleName, locale, clazz.getClassLoader());
+                    return result.get();
+                }
+                catch (InterruptedException ex) {
+                    interrupted = true;
                 }
-                catch (MissingResourceException ex) {
+                catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof Error) {
+                        throw (Error) ex.getCause();
+                    }
 
-                    missingBundleCount.incrementAndGet();
+                    throw new IllegalStateException( ex.getCause() );
+                }
+            }
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 
-                    // Do we fabricate the bundle or punt?
-                    if ((bundle != null && bundle.type() == BundleType.NONE) || doBundleFabrication.get()) {
+    /**
+     * Loads the messages object for a cache miss, unless its bundle is already known to be missing. A
+     * missing bundle is remembered for {@link #getMissingBundleTtl()} milliseconds and answered with the
+     * messages object of the substitute locale if one is set, or with the original failure otherwise.
+     *
+     * @param registry Registry of the messages interface
+     * @param clazz    Messages interface
+     * @param locale   Locale of the bundle
+     * @return Messages object
+     */
+    private static <T extends Messages> Messages load(MessagesRegistry registry, Class<T> clazz, Locale locale) {
+        String id = registry.cacheId(locale);
+        MissingBundle missing = missingBundles.get(id);
+
+        if (missing != null) {
+            if (!missing.isExpired()) {
+                missingBundleHits.incrementAndGet();
 
-                        log.warn(ex.getMessage() + "; fabricating bundle dynamically.");
+                return substitute(clazz, locale, missing.newException());
+            }
+
+            missingBundles.remove(id, missing);
+        }
 
-                        handler = new MessageHandler( fabricateBundle(clazz) );
+        try {
+            return loadOnce(registry, clazz, locale);
+        }
+        catch (MissingResourceException ex) {
+            rememberMissing(id, ex);
+
+            return substitute(clazz, locale, ex);
+        }
+    }
+
+    /**
+     * Returns the messages object of the substitute locale in place of a missing bundle.
+     *
+     * @param clazz  Messages interface
+     * @param locale Locale whose bundle is missing
+     * @param cause  Failure to report if there is no substitute
+     * @return Messages object of the substitute locale
+     * @throws MissingResourceException if there is no substitute locale
+     */
+    private static <T extends Messages> Messages substitute(Class<T> clazz, Locale locale,
+                                                            MissingResourceException cause) {
+        Locale substitute = substituteLocale.get();
+
+        if (substitute == null || substitute.equals(locale)) {
+            throw cause;
+        }
+
+        return create(clazz, substitute);
+    }
+
+    /**
+     * Remembers a missing bundle until its time to live expires. Expired entries are purged when the
+     * cache is full; if it is still full the bundle is not remembered.
+     *
+     * @param id    Cache id of the bundle
+     * @param cause Failure the lookup ended with
+     */
+    private static void rememberMissing(String id, MissingResourceException cause) {
+        long ttl = missingBundleTtl.get();
+
+        if (ttl <= 0) {
+            return;
+        }
+
+        if (missingBundles.size() >= MAX_MISSING_BUNDLES) {
+            for (Map.Entry<String, MissingBundle> entry : missingBundles.entrySet()) {
+                if (entry.getValue().isExpired()) {
+                    missingBundles.remove(entry.getKey(), entry.getValue());
+                }
+            }
+
+            if (missingBundles.size() >= MAX_MISSING_BUNDLES) {
+                return;
+            }
+        }
+
+        missingBundles.put(id, new MissingBundle(cause, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttl)));
+    }
+
+    /**
+     * Loads the messages object for a cache miss. Only one thread builds the messages object of a given
+     * bundle and locale; other threads missing on the same pair wait for its result rather than loading
+     * the bundle again, while misses on other pairs proceed in parallel. Failures are not cached.
+     *
+     * @param registry Registry of the messages interface
+     * @param clazz    Messages interface
+     * @param locale   Locale of the bundle
+     * @return Messages object, also stored in the registry
+     */
+    private static <T extends Messages> Messages loadOnce(final MessagesRegistry registry, final Class<T> clazz,
+                                                          final Locale locale) {
+        FutureTask<Messages> task = new FutureTask<>(new Callable<Messages>() {
+            public Messages call() {
+                return newMessages(clazz, registry.getBundleName(), locale, registry.getSettings());
+            }
+        });
+
+        FutureTask<Messages> existing = registry.claim(locale, task);
+
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            // Another thread may have finished loading between the cache lookup and claiming the load
+            Messages messages = registry.get(locale);
+
+            if (messages != null) {
+                return messages;
+            }
+
+            task.run();
+
+            messages = await(task);
+
+            // Publish before releasing the claim so that later misses find it in the registry
+            registry.put(locale, messages);
+
+            return messages;
+        }
+        finally {
+            registry.release(locale, task);
+        }
+    }
+
+    /**
+     * Discards all cached messages objects so that subsequent calls to {@code create} build new ones,
+     * picking up the current factory settings.
+     */
+    static void clearCache() {
+        HandlerCache.clear();
+        handlers.clear();
+        fallbackChains.clear();
+
+        synchronized (liveHandlers) {
+            liveHandlers.clear();
+        }
+
+        ResolvedBundle.clear();
+        BundleIndex.clear();
+        missingBundles.clear();
+        MessagesRegistry.invalidateAll();
+    }
+
+    /**
+     * Waits for a pending load without giving up on interruption, rethrowing its failure.
+     *
+     * @param task Pending load
+     * @return Loaded messages object
+     */
+    private static Messages await(FutureTask<Messages> task) {
+        boolean interrupted = false;
+
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                }
+                catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+                catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
                     }
-                    else {
-                        throw ex;
+                    else if (cause instanceof Error) {
+                        throw (Error) cause;
                     }
+
+                    throw new IllegalStateException(cause);
                 }
+            }
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Creates a new messages object, backed by a generated class if possible and by a proxy otherwise.
+     *
+     * @param clazz      Messages interface
+     * @param bundleName Base name of the bundle
+     * @param locale     Locale of the bundle
+     * @param bundle     Bundle settings of the interface, may be {@code null}
+     * @return New messages object
+     * @throws MissingResourceException if there is no bundle and fabrication is disabled
+     */
+    private static <T extends Messages> Messages newMessages(Class<T> clazz, String bundleName, Locale locale,
+                                                             ResourceBundle bundle) {
+        if (log.isDebugEnabled()) {
+            log.debug("Creating new message handler for bundle " +
+                    bundleName.substring( bundleName.lastIndexOf('.') + 1 ) + "_" + locale);
+        }
 
-                messages = (Messages) Proxy.newProxyInstance(
-                                            clazz.getClassLoader(),
-                                            new Class[] { clazz },
-                                            handler);
+        // Generated implementations need no dispatch table on the handler
+        final boolean generate = doClassGeneration.get();
+        final Class<T> dispatchType = MessagesClassGenerator.hasImplementation(clazz, generate) ? null : clazz;
+        final TemplateEngine engine = templateEngine.get();
 
-                handlers.put(cacheId, messages);
+        // Create the proper invocation message handler
+        MessageHandler handler;
+
+        try {
+            MessagesControl control = bundleControl(bundle);
+            BundleIndex.Entry indexed = useIndex.get() ?
+                    BundleIndex.of( clazz.getClassLoader() ).get( clazz.getName() ) : null;
+
+            // The index knows every bundle file built for the interface; only probe for those
+            if (indexed != null && indexed.getBundleName().equals(bundleName)) {
+                if (!indexed.covers(locale, control.isDefaultLocaleFallback())) {
+                    throw new MissingResourceException("Can't find bundle for base name " + bundleName +
+                            ", locale " + locale + " in the bundle index", bundleName + "_" + locale, "");
+                }
+
+                control = indexed.control(control);
             }
+
+            handler = new MessageHandler(bundleName, locale, clazz.getClassLoader(), dispatchType, engine, control);
         }
+        catch (MissingResourceException ex) {
 
-        return (T) messages;
+            missingBundleCount.incrementAndGet();
+
+            // Do we fabricate the bundle or punt?
+            if ((bundle != null && bundle.type() == BundleType.NONE) || doBundleFabrication.get()) {
+
+                log.warn(ex.getMessage() + "; fabricating bundle dynamically.");
+
+                handler = new MessageHandler( fabricateBundle(clazz), dispatchType, engine );
+            }
+            else {
+                throw ex;
+            }
+        }
+
+        synchronized (liveHandlers) {
+            liveHandlers.put(handler, Boolean.TRUE);
+        }
+
+        Messages messages = null;
+
+        if (dispatchType == null) {
+            messages = MessagesClassGenerator.newInstance(clazz, handler, generate);
+        }
+
+        if (messages == null) {
+            messages = (Messages) Proxy.newProxyInstance(
+                                        clazz.getClassLoader(),
+                                        new Class[] { clazz },
+                                        handler);
+        }
+
+        return messages;
     }
-    
+
+    /**
+     * Returns the control that loads bundles of the type declared by an interface.
+     *
+     * @param bundle Bundle settings of the interface, may be {@code null}
+     * @return Bundle control
+     */
+    private static MessagesControl bundleControl(ResourceBundle bundle) {
+        return bundle != null ? MessagesControl.of( bundle.type(), bundle.defaultLocaleFallback() )
+                              : MessagesControl.of(BundleType.PROPERTY, false);
+    }
+
+    /**
+     * Returns the message handlers backing all messages objects created since the cache was last cleared
+     * that are still reachable, including those evicted from the cache but still referenced by the
+     * application.
+     *
+     * @return Active message handlers
+     */
+    static List<MessageHandler> activeHandlers() {
+        synchronized (liveHandlers) {
+            return new ArrayList<>( liveHandlers.keySet() );
+        }
+    }
+
+    /**
+     * Returns the message handler backing a messages object.
+     *
+     * @param messages Messages object created by this factory
+     * @return Message handler, {@code null} if the object is not backed by one
+     */
+    static MessageHandler handlerOf(Messages messages) {
+        if (messages instanceof GeneratedMessages) {
+            return ((GeneratedMessages) messages).getHandler();
+        }
+        else if (Proxy.isProxyClass( messages.getClass() )) {
+            InvocationHandler handler = Proxy.getInvocationHandler(messages);
+
+            if (handler instanceof MessageHandler) {
+                return (MessageHandler) handler;
+            }
+        }
+
+        return null;
+    }
+
 	/**
 	 * Attempt to find a locally running {@code MBeanServer}. Fails if no
 	 * {@code MBeanServer} can be found. Logs a warning if more than one {@code
@@ -17,6 +17,7 @@
 
 package org.swiftshire.i18n;
 
+import java.io.IOException;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
@@ -26,7 +27,9 @@ import java.util.ResourceBundle;
  * <p/>
  * <ul>
  *  <li>Only other interfaces are allowed to extend this interface</li>
- *  <li>All methods in the extending interface must return {@code java.lang.String}</li>
+ *  <li>All methods in the extending interface must return {@code java.lang.String}, or return {@code void}
+ *  and take a {@link Appendable} (typically a {@link StringBuilder}) as their first parameter which
+ *  the message is then rendered into</li>
  * </ul>
  * <p/>
  * To use this API, you must create your own interface that extends this interface and
@@ -42,6 +45,9 @@ import java.util.ResourceBundle;
  *
  *     &#64;Message("Hello {0}. You visited this website {1} times")
  *     <mark>String hello(String name, int count);</mark>
+ *
+ *     &#64;Message("Hello {0}. You visited this website {1} times")
+ *     void hello(StringBuilder out, String name, int count);
  * }
  * </pre>
  * With this set of I18n messages defined. One then uses the corresponding Maven or Gradle JI18n plugin in their project
@@ -82,6 +88,27 @@ public interface Messages {
      */
     String format(String key, Object... args);
 
+    /**
+     * Format a message based on the given key and additional arguments, appending it to the given
+     * buffer rather than returning a new string.
+     *
+     * @param out  buffer to append the message to
+     * @param key  key for the message in the bundle
+     * @param args arguments for the message
+     */
+    void formatTo(StringBuilder out, String key, Object... args);
+
+    /**
+     * Format a message based on the given key and additional arguments, appending it to the given
+     * target rather than returning it.
+     *
+     * @param out  target to append the message to
+     * @param key  key for the message in the bundle
+     * @param args arguments for the message
+     * @throws IOException if the target fails to append
+     */
+    void formatTo(Appendable out, String key, Object... args) throws IOException;
+
     /**
      * Return the underlying <code>java.spring.ResourceBundle</code>.
      *
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.swiftshire.i18n.annotation.BundleType;
+import org.swiftshire.i18n.bundle.BinaryBundle;
+import org.swiftshire.i18n.bundle.PropertiesBundle;
+import org.swiftshire.i18n.bundle.XliffBundle;
+import org.swiftshire.i18n.bundle.XmlBundle;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+/**
+ * Control used by the {@link MessageFactory} to load the bundle of a messages interface. Unlike the default
+ * control it only looks for the one file format declared by
+ * {@link org.swiftshire.i18n.annotation.ResourceBundle#type()} and never tries to load a class for each
+ * candidate name, which is costly in deep class loader hierarchies. The candidate locales are built from
+ * the components of the requested locale in the order of the {@link MessageFactory#expand} fallback chains.
+ * <p>
+ * By default the lookup does not fall back to the bundles of the JVM default locale, whose setting says
+ * nothing about the clients of a server; a bundle can ask for it through
+ * {@link org.swiftshire.i18n.annotation.ResourceBundle#defaultLocaleFallback()}.
+ * <p>
+ * When the {@link BundleIndex} lists the bundle files of an interface, a control {@link #restrictTo restricted}
+ * to the indexed locales drops the candidates that have no file, so that the class path is only probed for
+ * bundles known to exist.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+final class MessagesControl extends ResourceBundle.Control {
+    /**
+     * Controls without default locale fallback keyed by bundle type
+     */
+    private static final Map<BundleType, MessagesControl> strict = new EnumMap<>(BundleType.class);
+
+    /**
+     * Controls with default locale fallback keyed by bundle type
+     */
+    private static final Map<BundleType, MessagesControl> lenient = new EnumMap<>(BundleType.class);
+
+    static {
+        for (BundleType type : BundleType.values()) {
+            strict.put(type, new MessagesControl(type, false));
+            lenient.put(type, new MessagesControl(type, true));
+        }
+    }
+
+    /**
+     * Control reading the files of the bundle format
+     */
+    private final ResourceBundle.Control format;
+
+    /**
+     * Format names looked for
+     */
+    private final List<String> formats;
+
+    /**
+     * Whether to fall back to the bundles of the default locale
+     */
+    private final boolean defaultLocaleFallback;
+
+    /**
+     * Names of the locales that have a bundle file, {@code null} if unknown
+     */
+    private final Set<String> indexed;
+
+    private MessagesControl(BundleType type, boolean defaultLocaleFallback) {
+        switch (type) {
+            case XML:
+                this.format = XmlBundle.CONTROL;
+                this.formats = Collections.singletonList(XmlBundle.FORMAT);
+                break;
+
+            case XLIFF:
+                this.format = XliffBundle.CONTROL;
+                this.formats = Collections.singletonList(XliffBundle.FORMAT);
+                break;
+
+            case BINARY:
+                this.format = BinaryBundle.CONTROL;
+                this.formats = Collections.singletonList(BinaryBundle.FORMAT);
+                break;
+
+            default:
+                this.format = PropertiesBundle.CONTROL;
+                this.formats = Collections.singletonList(PropertiesBundle.FORMAT);
+                break;
+        }
+
+        this.defaultLocaleFallback = defaultLocaleFallback;
+        this.indexed = null;
+    }
+
+    private MessagesControl(MessagesControl control, Set<String> indexed) {
+        this.format = control.format;
+        this.formats = control.formats;
+        this.defaultLocaleFallback = control.defaultLocaleFallback;
+        this.indexed = indexed;
+    }
+
+    /**
+     * Returns the control for bundles of the given type.
+     *
+     * @param type                  Bundle type
+     * @param defaultLocaleFallback Whether to fall back to the bundles of the default locale
+     * @return Bundle control
+     */
+    static MessagesControl of(BundleType type, boolean defaultLocaleFallback) {
+        return (defaultLocaleFallback ? lenient : strict).get(type);
+    }
+
+    /**
+     * Returns a control that only looks for the bundle files of the given locales.
+     *
+     * @param locales Names of the locales that have a bundle file, the empty name for the base bundle
+     * @return Restricted bundle control
+     */
+    MessagesControl restrictTo(Set<String> locales) {
+        return new MessagesControl(this, locales);
+    }
+
+    /**
+     * Whether this control falls back to the bundles of the default locale.
+     *
+     * @return true if it falls back to the default locale
+     */
+    boolean isDefaultLocaleFallback() {
+        return defaultLocaleFallback;
+    }
+
+    @Override
+    public List<String> getFormats(String baseName) {
+        if (baseName == null) {
+            throw new NullPointerException();
+        }
+
+        return formats;
+    }
+
+    @Override
+    public List<Locale> getCandidateLocales(String baseName, Locale locale) {
+        if (baseName == null || locale == null) {
+            throw new NullPointerException();
+        }
+
+        String language = locale.getLanguage();
+        String country  = locale.getCountry();
+        String variant  = locale.getVariant();
+
+        // Same order and components as the MessageFactory#expand fallback chains, most specific first
+        List<Locale> locales = new ArrayList<>(4);
+
+        if (!variant.isEmpty()) {
+            candidate(locales, new Locale(language, country, variant));
+        }
+
+        if (!country.isEmpty()) {
+            candidate(locales, new Locale(language, country));
+        }
+
+        if (!language.isEmpty()) {
+            candidate(locales, new Locale(language));
+        }
+
+        candidate(locales, Locale.ROOT);
+
+        return locales;
+    }
+
+    /**
+     * Adds a candidate locale unless the index is known to have no bundle file for it.
+     *
+     * @param locales  Candidate locales
+     * @param locale   Candidate to add
+     */
+    private void candidate(List<Locale> locales, Locale locale) {
+        if (indexed == null || indexed.contains( suffix(locale) )) {
+            locales.add(locale);
+        }
+    }
+
+    /**
+     * Returns the suffix that {@link MessageFactory#expand} appends to the base name for the given locale,
+     * which is also how the {@link BundleIndex} names the locale of a bundle file.
+     *
+     * @param locale Candidate locale
+     * @return Locale suffix, empty for the base bundle
+     */
+    private static String suffix(Locale locale) {
+        StringBuilder buffer = new StringBuilder();
+
+        for (String part : new String[] { locale.getLanguage(), locale.getCountry(), locale.getVariant() }) {
+            if (!part.isEmpty()) {
+                buffer.append(buffer.length() > 0 ? "_" : "").append(part);
+            }
+        }
+
+        return buffer.toString();
+    }
+
+    @Override
+    public Locale getFallbackLocale(String baseName, Locale locale) {
+        return defaultLocaleFallback ? super.getFallbackLocale(baseName, locale) : null;
+    }
+
+    @Override
+    public ResourceBundle newBundle(String baseName, Locale locale, String format, ClassLoader loader,
+                                    boolean reload)
+            throws IllegalAccessException, InstantiationException, IOException {
+        return this.format.newBundle(baseName, locale, format, loader, reload);
+    }
+}
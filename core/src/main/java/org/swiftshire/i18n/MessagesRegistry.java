@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.swiftshire.i18n.annotation.ResourceBundle;
+import org.swiftshire.i18n.locale.LocaleRegistry;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-interface registry of the messages objects created by {@link MessageFactory}. The bundle settings of
+ * an interface are resolved once, when its registry is created, and messages objects are kept in an array
+ * indexed by the {@link LocaleRegistry} id of their locale. A repeated lookup therefore neither reads
+ * annotations nor builds or hashes a string key. Registries are attached to their interface through a
+ * {@link ClassValue} so they go away along with it.
+ * How many messages objects stay registered across all interfaces is bounded by the {@link HandlerCache}.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+final class MessagesRegistry {
+    /**
+     * Registries keyed by messages interface.
+     */
+    private static final ClassValue<MessagesRegistry> registries = new ClassValue<MessagesRegistry>() {
+        @Override
+        protected MessagesRegistry computeValue(Class<?> type) {
+            return new MessagesRegistry(type);
+        }
+    };
+
+    /**
+     * Bumped to discard the messages objects of all registries at once.
+     */
+    private static final AtomicInteger epoch = new AtomicInteger();
+
+    /**
+     * Base name of the bundle backing the interface
+     */
+    private final String bundleName;
+
+    /**
+     * Bundle settings of the interface, may be {@code null}
+     */
+    private final ResourceBundle settings;
+
+    /**
+     * Messages objects of the current epoch keyed by locale
+     */
+    private volatile Table table = new Table( epoch.get() );
+
+    /**
+     * Messages object dispatching on the current locale, created on demand
+     */
+    private volatile Messages localeAware;
+
+    /**
+     * Messages objects currently being loaded keyed by locale
+     */
+    private final ConcurrentMap<Locale, FutureTask<Messages>> pending = new ConcurrentHashMap<>();
+
+    private MessagesRegistry(Class<?> type) {
+        ResourceBundle settings = type.getAnnotation(ResourceBundle.class);
+
+        // Has the user overridden the default behavior for resource bundles?
+        String name = settings != null ? settings.name() : null;
+
+        this.bundleName = name != null && name.length() > 0 ? name : type.getName();
+        this.settings = settings;
+    }
+
+    /**
+     * Returns the registry of the given interface.
+     *
+     * @param type Messages interface
+     * @return Registry of the interface
+     */
+    static MessagesRegistry of(Class<?> type) {
+        return registries.get(type);
+    }
+
+    /**
+     * Discards the messages objects held by all registries.
+     */
+    static void invalidateAll() {
+        epoch.incrementAndGet();
+    }
+
+    /**
+     * Returns the current epoch, which changes whenever {@link #invalidateAll()} is called.
+     *
+     * @return Epoch
+     */
+    static int epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Returns the locale aware messages object of the interface, creating it on first use.
+     *
+     * @param type Messages interface of this registry
+     * @return Messages object dispatching on the current locale
+     */
+    <T extends Messages> T getLocaleAware(Class<T> type) {
+        Messages messages = localeAware;
+
+        if (messages == null) {
+            synchronized (this) {
+                messages = localeAware;
+
+                if (messages == null) {
+                    messages = LocaleDispatcher.newInstance(type);
+                    localeAware = messages;
+                }
+            }
+        }
+
+        return type.cast(messages);
+    }
+
+    /**
+     * Base name of the bundle backing the interface.
+     *
+     * @return Bundle name
+     */
+    String getBundleName() {
+        return bundleName;
+    }
+
+    /**
+     * Bundle settings of the interface.
+     *
+     * @return Bundle annotation or {@code null}
+     */
+    ResourceBundle getSettings() {
+        return settings;
+    }
+
+    /**
+     * Returns the identifier of the bundle of the given locale as shown to administrators.
+     *
+     * @param locale Bundle locale
+     * @return Cache id
+     */
+    String cacheId(Locale locale) {
+        return bundleName + "_" + locale;
+    }
+
+    /**
+     * Returns the messages object registered for the given locale.
+     *
+     * @param locale Bundle locale
+     * @return Messages object or {@code null}
+     */
+    Messages get(Locale locale) {
+        Table current = table;
+
+        if (current.epoch != epoch.get()) {
+            return null;
+        }
+
+        int id = LocaleRegistry.id(locale);
+        HandlerCache.Entry entry = id != LocaleRegistry.NO_ID ? current.get(id) : current.overflow.get(locale);
+
+        return entry != null ? entry.get() : null;
+    }
+
+    /**
+     * Registers the messages object of the given locale and admits it to the {@link HandlerCache},
+     * which may evict the messages objects of other locales or interfaces as a result.
+     *
+     * @param locale   Bundle locale
+     * @param messages Messages object
+     */
+    void put(Locale locale, Messages messages) {
+        Table current = table;
+        int now = epoch.get();
+
+        if (current.epoch != now) {
+            // Losing an entry to a concurrent reset merely causes another cache miss
+            current = new Table(now);
+            table = current;
+        }
+
+        HandlerCache.Entry entry = new HandlerCache.Entry(this, locale, messages);
+        int id = LocaleRegistry.id(locale);
+
+        if (id != LocaleRegistry.NO_ID) {
+            current.put(id, entry);
+        }
+        else {
+            current.overflow.put(locale, entry);
+        }
+
+        HandlerCache.admit(entry);
+    }
+
+    /**
+     * Unregisters an entry evicted by the {@link HandlerCache}, unless it has been replaced already.
+     *
+     * @param locale Bundle locale
+     * @param entry  Evicted entry
+     */
+    void remove(Locale locale, HandlerCache.Entry entry) {
+        Table current = table;
+        int id = LocaleRegistry.id(locale);
+
+        if (id != LocaleRegistry.NO_ID) {
+            current.remove(id, entry);
+        }
+        else {
+            current.overflow.remove(locale, entry);
+        }
+    }
+
+    /**
+     * Claims the load of the messages object of the given locale.
+     *
+     * @param locale Bundle locale
+     * @param task   Task that will load the messages object
+     * @return {@code null} if the claim succeeded, otherwise the task of the thread already loading it
+     */
+    FutureTask<Messages> claim(Locale locale, FutureTask<Messages> task) {
+        return pending.putIfAbsent(locale, task);
+    }
+
+    /**
+     * Releases a claim obtained through {@link #claim(Locale, FutureTask)}.
+     *
+     * @param locale Bundle locale
+     * @param task   Task that loaded the messages object
+     */
+    void release(Locale locale, FutureTask<Messages> task) {
+        pending.remove(locale, task);
+    }
+
+    /**
+     * Messages objects registered during one epoch.
+     */
+    private static final class Table {
+        final int epoch;
+
+        /**
+         * Cache entries indexed by locale id, grown on demand
+         */
+        volatile HandlerCache.Entry[] byId = new HandlerCache.Entry[0];
+
+        /**
+         * Cache entries of locales without an id
+         */
+        final ConcurrentMap<Locale, HandlerCache.Entry> overflow = new ConcurrentHashMap<>();
+
+        Table(int epoch) {
+            this.epoch = epoch;
+        }
+
+        HandlerCache.Entry get(int id) {
+            HandlerCache.Entry[] current = byId;
+
+            return id < current.length ? current[id] : null;
+        }
+
+        synchronized void put(int id, HandlerCache.Entry entry) {
+            HandlerCache.Entry[] grown = Arrays.copyOf(byId, Math.max(byId.length, id + 1));
+            grown[id] = entry;
+            byId = grown;
+        }
+
+        synchronized void remove(int id, HandlerCache.Entry entry) {
+            if (id < byId.length && byId[id] == entry) {
+                HandlerCache.Entry[] shrunk = byId.clone();
+                shrunk[id] = null;
+                byId = shrunk;
+            }
+        }
+    }
+}
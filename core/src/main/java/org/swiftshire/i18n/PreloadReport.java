@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of {@link MessageFactory#preload}: how long each bundle and locale pair took to load and compile,
+ * and which pairs failed.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public final class PreloadReport {
+    /**
+     * Outcome of preloading one bundle in one locale.
+     */
+    public static final class Entry {
+        private final Class<? extends Messages> type;
+        private final Locale locale;
+        private final long nanos;
+        private final int templates;
+        private final String failure;
+
+        Entry(Class<? extends Messages> type, Locale locale, long nanos, int templates, String failure) {
+            this.type = type;
+            this.locale = locale;
+            this.nanos = nanos;
+            this.templates = templates;
+            this.failure = failure;
+        }
+
+        /**
+         * Messages interface that was preloaded.
+         *
+         * @return Messages interface
+         */
+        public Class<? extends Messages> getType() {
+            return type;
+        }
+
+        /**
+         * Locale that was preloaded.
+         *
+         * @return Requested locale
+         */
+        public Locale getLocale() {
+            return locale;
+        }
+
+        /**
+         * Time taken to load the bundle and compile its templates.
+         *
+         * @return Duration in milliseconds
+         */
+        public double getMillis() {
+            return nanos / 1e6;
+        }
+
+        /**
+         * Number of compiled templates held by the bundle once preloaded.
+         *
+         * @return Template count
+         */
+        public int getTemplateCount() {
+            return templates;
+        }
+
+        /**
+         * Reason the bundle could not be loaded.
+         *
+         * @return Failure message, {@code null} if the bundle was loaded
+         */
+        public String getFailure() {
+            return failure;
+        }
+
+        /**
+         * Whether the bundle was loaded.
+         *
+         * @return {@code true} if loaded
+         */
+        public boolean isLoaded() {
+            return failure == null;
+        }
+
+        @Override
+        public String toString() {
+            String name = type.getName() + "_" + locale;
+
+            if (failure != null) {
+                return String.format(Locale.ROOT, "%s: %.2f ms, failed: %s", name, getMillis(), failure);
+            }
+
+            return String.format(Locale.ROOT, "%s: %.2f ms, %d templates", name, getMillis(), templates);
+        }
+    }
+
+    private final List<Entry> entries;
+    private final long nanos;
+
+    PreloadReport(List<Entry> entries, long nanos) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.nanos = nanos;
+    }
+
+    /**
+     * Outcome of each bundle and locale pair, in the order they were requested.
+     *
+     * @return Preload entries
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Number of bundle and locale pairs that were loaded.
+     *
+     * @return Loaded count
+     */
+    public int getLoadedCount() {
+        int loaded = 0;
+
+        for (Entry entry : entries) {
+            if (entry.isLoaded()) {
+                loaded++;
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Number of bundle and locale pairs that could not be loaded.
+     *
+     * @return Failed count
+     */
+    public int getFailedCount() {
+        return entries.size() - getLoadedCount();
+    }
+
+    /**
+     * Wall clock time taken by the whole preload.
+     *
+     * @return Duration in milliseconds
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+
+        out.append("Preloaded ").append( getLoadedCount() ).append(" of ").append( entries.size() )
+           .append(" bundles in ").append( getElapsedMillis() ).append(" ms");
+
+        for (Entry entry : entries) {
+            out.append("\n  ").append(entry);
+        }
+
+        return out.toString();
+    }
+}
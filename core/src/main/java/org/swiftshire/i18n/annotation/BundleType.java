@@ -48,6 +48,13 @@ public enum BundleType {
      * standard XLIFF format as defined by the <a href="http://docs.oasis-open.org/xliff/xliff-core/xliff-core.html">
      * XLIFF Specification</a>.
      */
-    XLIFF
+    XLIFF,
+
+    /**
+     * Bundle type that indicates that the backing resource bundle should be expected to be or generated in the
+     * compact binary format read by {@link org.swiftshire.i18n.bundle.BinaryBundle}, which is memory mapped at
+     * run time instead of being parsed onto the heap.
+     */
+    BINARY
 }
 
@@ -44,4 +44,14 @@ public @interface Message {
      * @return the message text
      */
     String value();
+
+    /**
+     * Number of rendered messages to remember for this method, so that calls repeating the arguments of an
+     * earlier call return the earlier result without formatting again. Only calls whose arguments are all
+     * immutable values, such as strings, boxed primitives or enum constants, are remembered.
+     *
+     * @return Maximum number of remembered renderings, 0 to disable memoization, or a negative value to use
+     *         the setting of the {@link ResourceBundle} annotation
+     */
+    int memoize() default -1;
 }
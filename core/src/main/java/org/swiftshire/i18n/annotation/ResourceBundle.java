@@ -50,6 +50,26 @@ public @interface ResourceBundle {
      */
     BundleType type() default BundleType.PROPERTY;
 
+    /**
+     * Whether a bundle lookup that finds no bundle for the requested locale or any of its parents should
+     * try the bundles of the JVM default locale before giving up. Servers rendering messages for clients
+     * in many locales should leave this off, since the default locale of the server says nothing about
+     * the client.
+     *
+     * @return true to fall back to the default locale
+     */
+    boolean defaultLocaleFallback() default false;
+
+    /**
+     * Number of rendered messages to remember for each message method of the bundle, so that calls repeating
+     * the arguments of an earlier call return the earlier result without formatting again. Only worth
+     * enabling for hot messages whose arguments take few distinct values, such as enum constants or small
+     * counts. Methods can override this with {@link Message#memoize()}.
+     *
+     * @return Maximum number of remembered renderings per method, 0 to disable memoization
+     */
+    int memoize() default 0;
+
     /**
      * Optionally include a set of messages that are not tied to any particular
      * method of the annotated {@link org.swiftshire.i18n.Messages Messages} class.
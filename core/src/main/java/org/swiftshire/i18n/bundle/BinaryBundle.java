@@ -0,0 +1,429 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.bundle;
+
+import org.swiftshire.i18n.format.CompiledTemplate;
+import org.swiftshire.i18n.format.MessageTemplate;
+import org.swiftshire.i18n.format.TemplateEngine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+/**
+ * Resource bundle read from the compact binary format written by {@link BinaryBundleWriter}. The file is
+ * memory mapped when it lives in a class path directory, so opening a bundle neither parses it nor builds a
+ * table on the heap: keys are found by binary search over the mapped index and only the messages actually
+ * used are decoded. Messages whose arguments are all plain {@code {n}} placeholders also carry their parsed
+ * segments, which {@link #getTemplate(String, TemplateEngine)} turns into a {@link CompiledTemplate} without
+ * parsing the pattern again.
+ * <p>
+ * The layout, all integers big endian, is a header of {@value #HEADER_SIZE} bytes (magic, version, reserved,
+ * entry count, then the offsets of the index, string pool and segment table), an index of
+ * {@value #ENTRY_SIZE} byte entries sorted by key hash and key, a pool of UTF-8 strings and a segment table.
+ * Each index entry holds the key hash, the pool offset and length of the key and of the message, and the
+ * segment table offset of the message or -1.
+ * <p>
+ * Bundles of this format are loaded with {@link #CONTROL}, which looks for {@code .ji18n} files following
+ * the usual {@code name_lang_COUNTRY_variant} naming and fallback rules.
+ * <p>
+ * A mapped file must not be truncated or rewritten in place while the bundle is in use, since reading a
+ * mapping whose file shrank fails with an {@link InternalError}. The i18n plugin therefore writes bundles
+ * to a temporary file and renames it over the old one. Files are read onto the heap instead of being mapped
+ * while {@link #setMapFiles(boolean) mapping is turned off}, which the bundle reloader does for as long as
+ * it watches bundle files, so that bundles rewritten by other tools can be reloaded safely.
+ *
+ * @author swiftj
+ * @since 1.0
+ * @see org.swiftshire.i18n.annotation.BundleType#BINARY
+ */
+public final class BinaryBundle extends ResourceBundle {
+    /**
+     * File name extension of binary bundles
+     */
+    public static final String SUFFIX = "ji18n";
+
+    /**
+     * Format name used with {@link ResourceBundle.Control}
+     */
+    public static final String FORMAT = "ji18n.binary";
+
+    /**
+     * Loads binary bundles through {@code ResourceBundle#getBundle(String, Locale, ClassLoader, ResourceBundle.Control)}.
+     */
+    public static final ResourceBundle.Control CONTROL = new BinaryControl();
+
+    /**
+     * First four bytes of every binary bundle, "JI18"
+     */
+    static final int MAGIC = 0x4A493138;
+
+    /**
+     * Current format version
+     */
+    static final short VERSION = 1;
+
+    /**
+     * Size of the header in bytes
+     */
+    static final int HEADER_SIZE = 24;
+
+    /**
+     * Size of an index entry in bytes
+     */
+    static final int ENTRY_SIZE = 24;
+
+    /**
+     * Whether bundles in class path directories are memory mapped
+     */
+    private static volatile boolean mapFiles = true;
+
+    /**
+     * Bundle contents, never modified
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Number of messages
+     */
+    private final int count;
+
+    /**
+     * Start of the index
+     */
+    private final int indexOffset;
+
+    /**
+     * Start of the string pool
+     */
+    private final int poolOffset;
+
+    /**
+     * Start of the segment table
+     */
+    private final int segmentOffset;
+
+    private BinaryBundle(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a binary message bundle");
+        }
+
+        if (buffer.getShort(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary bundle version " + buffer.getShort(4));
+        }
+
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        this.indexOffset = buffer.getInt(12);
+        this.poolOffset = buffer.getInt(16);
+        this.segmentOffset = buffer.getInt(20);
+    }
+
+    /**
+     * Reads a binary bundle from the given buffer, which must not be modified afterwards.
+     *
+     * @param buffer Bundle contents
+     * @return Bundle
+     * @throws IllegalArgumentException if the buffer does not hold a binary bundle
+     */
+    public static BinaryBundle read(ByteBuffer buffer) {
+        return new BinaryBundle(buffer);
+    }
+
+    /**
+     * Loads a binary bundle, memory mapping it if the URL refers to a file.
+     *
+     * @param url Location of the bundle
+     * @return Bundle
+     * @throws IOException if the bundle cannot be read or is not a binary bundle
+     */
+    public static BinaryBundle load(URL url) throws IOException {
+        try {
+            return new BinaryBundle( map(url) );
+        }
+        catch (IllegalArgumentException ex) {
+            throw new IOException(url + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Sets whether bundles loaded from now on are memory mapped when they live in a class path directory.
+     * Bundles that are not mapped are read onto the heap, which is safe even if their files are rewritten
+     * in place later on.
+     *
+     * @param yesno true to map bundle files, the default
+     */
+    public static void setMapFiles(boolean yesno) {
+        mapFiles = yesno;
+    }
+
+    /**
+     * Returns whether bundles in class path directories are memory mapped.
+     *
+     * @return true if bundle files are mapped
+     */
+    public static boolean getMapFiles() {
+        return mapFiles;
+    }
+
+    /**
+     * Maps a file, if {@link #getMapFiles() enabled}, or reads the resource into memory.
+     *
+     * @param url Location of the bundle
+     * @return Bundle contents
+     * @throws IOException if the bundle cannot be read
+     */
+    private static ByteBuffer map(URL url) throws IOException {
+        if (mapFiles && "file".equals( url.getProtocol() )) {
+            try (RandomAccessFile file = new RandomAccessFile(new File( url.toURI() ), "r");
+                 FileChannel channel = file.getChannel()) {
+                // The mapping stays valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            catch (URISyntaxException | IllegalArgumentException ignore) {
+                // Not a plain file after all; read it as a stream
+            }
+        }
+
+        try (InputStream in = BundleControl.open(url)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+            byte[] chunk = new byte[8192];
+
+            for (int n = in.read(chunk); n != -1; n = in.read(chunk)) {
+                out.write(chunk, 0, n);
+            }
+
+            return ByteBuffer.wrap( out.toByteArray() );
+        }
+    }
+
+    /**
+     * Number of messages in this bundle, not counting its parents.
+     *
+     * @return Message count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the template of the given message. With {@link TemplateEngine#COMPILED} a message stored with
+     * its segments is assembled without parsing its pattern; otherwise the pattern is compiled by the engine.
+     * Messages this bundle lacks are looked up in its parents.
+     *
+     * @param key    Bundle key identifying the message
+     * @param engine Engine used to compile message patterns
+     * @return Template of the message
+     * @throws MissingResourceException if neither this bundle nor its parents have the message
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public MessageTemplate getTemplate(String key, TemplateEngine engine) {
+        int entry = find(key);
+
+        if (entry < 0) {
+            if (parent instanceof BinaryBundle) {
+                return ((BinaryBundle) parent).getTemplate(key, engine);
+            }
+
+            // Reports the miss just like getString would
+            return engine.compile( parent != null ? parent.getString(key) : getString(key) );
+        }
+
+        String pattern = string(buffer.getInt(entry + 12), buffer.getInt(entry + 16));
+        int segments = buffer.getInt(entry + 20);
+
+        if (segments < 0 || engine != TemplateEngine.COMPILED) {
+            return engine.compile(pattern);
+        }
+
+        int at = segmentOffset + segments;
+        int arity = buffer.getInt(at);
+
+        String[] literals = new String[arity + 1];
+        int[] arguments = new int[arity];
+
+        at += 4;
+
+        for (int i = 0; i <= arity; i++, at += 8) {
+            literals[i] = string(buffer.getInt(at), buffer.getInt(at + 4));
+        }
+
+        for (int i = 0; i < arity; i++, at += 4) {
+            arguments[i] = buffer.getInt(at);
+        }
+
+        return CompiledTemplate.assemble(pattern, literals, arguments, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object handleGetObject(String key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        int entry = find(key);
+
+        return entry >= 0 ? string(buffer.getInt(entry + 12), buffer.getInt(entry + 16)) : null;
+    }
+
+    /**
+     * Looks the key up in the index instead of building the key set.
+     *
+     * @param key Bundle key
+     * @return true if this bundle or one of its parents has the key
+     */
+    @Override
+    public boolean containsKey(String key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        return find(key) >= 0 || (parent != null && parent.containsKey(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Set<String> handleKeySet() {
+        Set<String> keys = new HashSet<>(count * 2);
+
+        for (int i = 0; i < count; i++) {
+            int entry = indexOffset + i * ENTRY_SIZE;
+            keys.add( string(buffer.getInt(entry + 4), buffer.getInt(entry + 8)) );
+        }
+
+        return keys;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Enumeration<String> getKeys() {
+        return Collections.enumeration( keySet() );
+    }
+
+    /**
+     * Finds the index entry of the given key.
+     *
+     * @param key Bundle key
+     * @return Buffer position of the entry, or -1 if this bundle has no such key
+     */
+    private int find(String key) {
+        int hash = key.hashCode();
+        int low = 0;
+        int high = count - 1;
+
+        // Locate the first entry with a matching hash
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+
+            if (buffer.getInt(indexOffset + mid * ENTRY_SIZE) < hash) {
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+
+        byte[] encoded = null;
+
+        for (int i = low; i < count; i++) {
+            int entry = indexOffset + i * ENTRY_SIZE;
+
+            if (buffer.getInt(entry) != hash) {
+                break;
+            }
+
+            if (encoded == null) {
+                encoded = key.getBytes(StandardCharsets.UTF_8);
+            }
+
+            if (matches(encoded, buffer.getInt(entry + 4), buffer.getInt(entry + 8))) {
+                return entry;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Compares a string in the pool with the given UTF-8 bytes.
+     */
+    private boolean matches(byte[] encoded, int offset, int length) {
+        if (length != encoded.length) {
+            return false;
+        }
+
+        int at = poolOffset + offset;
+
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(at + i) != encoded[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Decodes a string from the pool.
+     */
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+
+        ByteBuffer view = buffer.duplicate();
+        ((Buffer) view).position(poolOffset + offset);
+        view.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Control that loads binary bundles instead of classes or property files.
+     */
+    private static final class BinaryControl extends BundleControl {
+        BinaryControl() {
+            super(FORMAT, SUFFIX);
+        }
+
+        @Override
+        ResourceBundle read(URL url) throws IOException {
+            return load(url);
+        }
+    }
+}
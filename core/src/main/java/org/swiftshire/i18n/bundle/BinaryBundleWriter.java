@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.bundle;
+
+import org.swiftshire.i18n.format.CompiledTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes messages in the binary bundle format read by {@link BinaryBundle}. Identical strings are stored
+ * once in the pool, and every message whose arguments are all plain {@code {n}} placeholders is stored along
+ * with its parsed segments.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public final class BinaryBundleWriter {
+    /**
+     * Orders messages the way the index is searched: by key hash, then by key.
+     */
+    private static final Comparator<Map.Entry<String, String>> INDEX_ORDER =
+            new Comparator<Map.Entry<String, String>>() {
+        public int compare(Map.Entry<String, String> a, Map.Entry<String, String> b) {
+            int ha = a.getKey().hashCode();
+            int hb = b.getKey().hashCode();
+
+            return ha != hb ? (ha < hb ? -1 : 1) : a.getKey().compareTo( b.getKey() );
+        }
+    };
+
+    /**
+     * UTF-8 strings written so far
+     */
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+
+    /**
+     * Pool offset and length of each string written so far
+     */
+    private final Map<String, int[]> pooled = new HashMap<>();
+
+    private BinaryBundleWriter() {}
+
+    /**
+     * Writes the given messages as a binary bundle.
+     *
+     * @param messages Message patterns keyed by bundle key
+     * @param out      Stream to write to, left open
+     * @throws IOException if the stream fails
+     */
+    public static void write(Map<String, String> messages, OutputStream out) throws IOException {
+        new BinaryBundleWriter().writeBundle(messages, out);
+    }
+
+    private void writeBundle(Map<String, String> messages, OutputStream out) throws IOException {
+        List<Map.Entry<String, String>> entries = new ArrayList<>( messages.entrySet() );
+        Collections.sort(entries, INDEX_ORDER);
+
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream(entries.size() * BinaryBundle.ENTRY_SIZE);
+        DataOutputStream index = new DataOutputStream(indexBytes);
+
+        ByteArrayOutputStream segmentBytes = new ByteArrayOutputStream();
+        DataOutputStream segments = new DataOutputStream(segmentBytes);
+
+        List<String> literals = new ArrayList<>();
+
+        for (Map.Entry<String, String> entry : entries) {
+            int[] key = intern( entry.getKey() );
+            int[] value = intern( entry.getValue() );
+
+            index.writeInt( entry.getKey().hashCode() );
+            index.writeInt(key[0]);
+            index.writeInt(key[1]);
+            index.writeInt(value[0]);
+            index.writeInt(value[1]);
+
+            // Patterns the template engine cannot compile are left to it at run time
+            CompiledTemplate template = CompiledTemplate.compile(entry.getValue(), Locale.ROOT);
+
+            literals.clear();
+            int[] arguments = template != null ? template.decompose(literals) : null;
+
+            if (arguments == null) {
+                index.writeInt(-1);
+                continue;
+            }
+
+            index.writeInt( segments.size() );
+            segments.writeInt(arguments.length);
+
+            for (String literal : literals) {
+                int[] text = intern(literal);
+                segments.writeInt(text[0]);
+                segments.writeInt(text[1]);
+            }
+
+            for (int argument : arguments) {
+                segments.writeInt(argument);
+            }
+        }
+
+        int indexOffset = BinaryBundle.HEADER_SIZE;
+        int poolOffset = indexOffset + indexBytes.size();
+        int segmentOffset = poolOffset + pool.size();
+
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(BinaryBundle.MAGIC);
+        header.writeShort(BinaryBundle.VERSION);
+        header.writeShort(0);
+        header.writeInt( entries.size() );
+        header.writeInt(indexOffset);
+        header.writeInt(poolOffset);
+        header.writeInt(segmentOffset);
+
+        indexBytes.writeTo(out);
+        pool.writeTo(out);
+        segmentBytes.writeTo(out);
+
+        out.flush();
+    }
+
+    /**
+     * Adds a string to the pool unless it is there already.
+     *
+     * @param text String to add
+     * @return Pool offset and length in bytes
+     */
+    private int[] intern(String text) {
+        int[] location = pooled.get(text);
+
+        if (location == null) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+            location = new int[] { pool.size(), bytes.length };
+            pool.write(bytes, 0, bytes.length);
+            pooled.put(text, location);
+        }
+
+        return location;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.bundle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * Control that loads bundles of one of the file formats in this package, following the usual
+ * {@code name_lang_COUNTRY_variant} naming and fallback rules of {@link ResourceBundle#getBundle}.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+abstract class BundleControl extends ResourceBundle.Control {
+    /**
+     * Format name reported by {@link #getFormats(String)}
+     */
+    private final String format;
+
+    /**
+     * File name extension of the bundles
+     */
+    private final String suffix;
+
+    BundleControl(String format, String suffix) {
+        this.format = format;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Reads the bundle at the given location.
+     *
+     * @param url Location of the bundle
+     * @return Bundle
+     * @throws IOException if the bundle cannot be read or is malformed
+     */
+    abstract ResourceBundle read(URL url) throws IOException;
+
+    /**
+     * Opens a bundle for reading, bypassing the URL cache so that reloading picks up changed archives too.
+     *
+     * @param url Location of the bundle
+     * @return Stream of the bundle contents
+     * @throws IOException if the bundle cannot be opened
+     */
+    static InputStream open(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+
+        return connection.getInputStream();
+    }
+
+    @Override
+    public List<String> getFormats(String baseName) {
+        if (baseName == null) {
+            throw new NullPointerException();
+        }
+
+        return Collections.singletonList(format);
+    }
+
+    @Override
+    public ResourceBundle newBundle(String baseName, Locale locale, String format, ClassLoader loader,
+                                    boolean reload) throws IOException {
+        if (!this.format.equals(format)) {
+            return null;
+        }
+
+        URL url = loader.getResource( toResourceName(toBundleName(baseName, locale), suffix) );
+
+        return url != null ? read(url) : null;
+    }
+}
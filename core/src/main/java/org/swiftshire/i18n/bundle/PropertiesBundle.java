@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swiftshire.i18n.bundle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.PropertyResourceBundle;
+import java.util.ResourceBundle;
+
+/**
+ * Resource bundle read from a standard property file. The bundle itself behaves exactly like a
+ * {@link PropertyResourceBundle}; what this class adds is {@link #CONTROL}, which loads property files only,
+ * never classes, and reads them past the URL cache like the controls of the other formats in this package.
+ *
+ * @author swiftj
+ * @since 1.0
+ * @see org.swiftshire.i18n.annotation.BundleType#PROPERTY
+ */
+public final class PropertiesBundle extends PropertyResourceBundle {
+    /**
+     * File name extension of property bundles
+     */
+    public static final String SUFFIX = "properties";
+
+    /**
+     * Format name used with {@link ResourceBundle.Control}
+     */
+    public static final String FORMAT = "java.properties";
+
+    /**
+     * Loads property bundles through
+     * {@code ResourceBundle#getBundle(String, Locale, ClassLoader, ResourceBundle.Control)}.
+     */
+    public static final ResourceBundle.Control CONTROL = new PropertiesControl();
+
+    private PropertiesBundle(InputStream in) throws IOException {
+        super(in);
+    }
+
+    /**
+     * Control that loads property files but never classes.
+     */
+    private static final class PropertiesControl extends BundleControl {
+        PropertiesControl() {
+            super(FORMAT, SUFFIX);
+        }
+
+        @Override
+        ResourceBundle read(URL url) throws IOException {
+            try (InputStream in = open(url)) {
+                return new PropertiesBundle(in);
+            }
+        }
+    }
+}
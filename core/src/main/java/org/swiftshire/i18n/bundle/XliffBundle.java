@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.bundle;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+/**
+ * Resource bundle read from an <a href="http://docs.oasis-open.org/xliff/v1.2/os/xliff-core.html">XLIFF 1.2</a>
+ * file. The file is read with a streaming StAX parser, and the text of every {@code trans-unit} goes straight
+ * into the lookup table as it is parsed. No document tree is built, so even very large vendor files need no
+ * more memory than the messages they hold.
+ * <p>
+ * The key of a message is the {@code resname} of its {@code trans-unit}, or its {@code id} when there is no
+ * resource name. The value is the text of its {@code target}, or of its {@code source} when it has not been
+ * translated, that is when the target is missing, blank or in the {@code new} or {@code needs-translation}
+ * state. The text of inline elements such as {@code g} or {@code mrk} is kept, while the elements
+ * themselves are dropped. The units of all {@code file} elements are merged into one bundle.
+ * <p>
+ * Bundles of this format are loaded with {@link #CONTROL}, which looks for {@code .xlf} files following the
+ * usual {@code name_lang_COUNTRY_variant} naming and fallback rules.
+ *
+ * @author swiftj
+ * @since 1.0
+ * @see org.swiftshire.i18n.annotation.BundleType#XLIFF
+ */
+public final class XliffBundle extends ResourceBundle {
+    /**
+     * File name extension of XLIFF bundles
+     */
+    public static final String SUFFIX = "xlf";
+
+    /**
+     * Format name used with {@link ResourceBundle.Control}
+     */
+    public static final String FORMAT = "ji18n.xliff";
+
+    /**
+     * Loads XLIFF bundles through {@code ResourceBundle#getBundle(String, Locale, ClassLoader, ResourceBundle.Control)}.
+     */
+    public static final ResourceBundle.Control CONTROL = new XliffControl();
+
+    /**
+     * Namespace of XLIFF 1.2 documents
+     */
+    static final String NAMESPACE = "urn:oasis:names:tc:xliff:document:1.2";
+
+    /**
+     * Messages keyed by bundle key
+     */
+    private final Map<String, Object> entries;
+
+    private XliffBundle(Map<String, Object> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Reads a bundle in the XLIFF 1.2 format.
+     *
+     * @param in Stream to read, left open
+     * @return Bundle
+     * @throws IOException if the stream fails or does not hold a well formed XLIFF document
+     */
+    public static XliffBundle read(InputStream in) throws IOException {
+        Map<String, Object> entries = new HashMap<>();
+        XMLStreamReader reader = null;
+
+        try {
+            reader = XmlBundle.newInputFactory().createXMLStreamReader(in);
+
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "trans-unit".equals( reader.getLocalName() )) {
+                    readUnit(reader, entries);
+                }
+            }
+        }
+        catch (XMLStreamException ex) {
+            throw new IOException("Malformed XLIFF bundle: " + ex.getMessage(), ex);
+        }
+        finally {
+            XmlBundle.close(reader);
+        }
+
+        return new XliffBundle(entries);
+    }
+
+    /**
+     * Reads one {@code trans-unit}, leaving the reader on its end tag.
+     *
+     * @param reader  Reader positioned on the start tag of the unit
+     * @param entries Table to add the message to
+     * @throws XMLStreamException if the document is malformed
+     * @throws IOException        if the unit has no key
+     */
+    private static void readUnit(XMLStreamReader reader, Map<String, Object> entries)
+            throws XMLStreamException, IOException {
+        String key = reader.getAttributeValue(null, "resname");
+
+        if (key == null) {
+            key = reader.getAttributeValue(null, "id");
+        }
+
+        if (key == null) {
+            throw new IOException("Translation unit without an id at line " + reader.getLocation().getLineNumber());
+        }
+
+        String source = null;
+        String target = null;
+        int depth = 1;
+
+        while (depth > 0) {
+            int event = reader.next();
+
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                // Only the direct source and target count; alt-trans and notes carry other text
+                if (depth == 1 && "source".equals( reader.getLocalName() )) {
+                    source = readText(reader);
+                }
+                else if (depth == 1 && "target".equals( reader.getLocalName() )) {
+                    String state = reader.getAttributeValue(null, "state");
+                    String text = readText(reader);
+
+                    // Vendors ship untranslated units with empty or placeholder targets
+                    if (!text.trim().isEmpty() && !"new".equals(state) && !"needs-translation".equals(state)) {
+                        target = text;
+                    }
+                }
+                else {
+                    depth++;
+                }
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+
+        String value = target != null ? target : source;
+
+        if (value != null) {
+            entries.put(key, value);
+        }
+    }
+
+    /**
+     * Reads the text of an element including that of any inline elements, leaving the reader on its end tag.
+     *
+     * @param reader Reader positioned on the start tag of the element
+     * @return Text of the element
+     * @throws XMLStreamException if the document is malformed
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = null;
+        String first = null;
+        int depth = 1;
+
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    // Most messages are a single run of text, which needs no builder
+                    if (first == null) {
+                        first = reader.getText();
+                    }
+                    else {
+                        if (text == null) {
+                            text = new StringBuilder(first);
+                        }
+                        text.append( reader.getText() );
+                    }
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        return text != null ? text.toString() : (first != null ? first : "");
+    }
+
+    /**
+     * Number of messages in this bundle, not counting its parents.
+     *
+     * @return Message count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object handleGetObject(String key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        return entries.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Set<String> handleKeySet() {
+        return Collections.unmodifiableSet( entries.keySet() );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Enumeration<String> getKeys() {
+        return Collections.enumeration( keySet() );
+    }
+
+    /**
+     * Control that loads XLIFF bundles instead of classes or property files.
+     */
+    private static final class XliffControl extends BundleControl {
+        XliffControl() {
+            super(FORMAT, SUFFIX);
+        }
+
+        @Override
+        ResourceBundle read(URL url) throws IOException {
+            try (InputStream in = open(url)) {
+                return XliffBundle.read(in);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.bundle;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes messages as an XLIFF 1.2 document read by {@link XliffBundle}. Each message becomes a
+ * {@code trans-unit} whose {@code id} and {@code resname} are the key and whose {@code source} is the
+ * pattern, ready to be handed to translators. Messages are written in key order so that generated files
+ * compare cleanly between builds.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public final class XliffBundleWriter {
+    /**
+     * Encoding of written bundles
+     */
+    private static final String ENCODING = "UTF-8";
+
+    private XliffBundleWriter() {}
+
+    /**
+     * Writes the given messages as an XLIFF bundle.
+     *
+     * @param messages Message patterns keyed by bundle key
+     * @param original Name of the bundle the messages come from
+     * @param locale   Locale the messages are written in
+     * @param out      Stream to write to, left open
+     * @throws IOException if the stream fails
+     */
+    public static void write(Map<String, String> messages, String original, Locale locale, OutputStream out)
+            throws IOException {
+        XMLStreamWriter writer = null;
+
+        try {
+            writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, ENCODING);
+
+            writer.writeStartDocument(ENCODING, "1.0");
+            writer.writeCharacters("\n");
+            writer.setDefaultNamespace(XliffBundle.NAMESPACE);
+            writer.writeStartElement(XliffBundle.NAMESPACE, "xliff");
+            writer.writeDefaultNamespace(XliffBundle.NAMESPACE);
+            writer.writeAttribute("version", "1.2");
+            writer.writeCharacters("\n  ");
+
+            writer.writeStartElement(XliffBundle.NAMESPACE, "file");
+            writer.writeAttribute("original", original);
+            writer.writeAttribute("source-language", locale.toLanguageTag());
+            writer.writeAttribute("datatype", "javapropertyresourcebundle");
+            writer.writeCharacters("\n    ");
+            writer.writeStartElement(XliffBundle.NAMESPACE, "body");
+
+            for (Map.Entry<String, String> entry : new TreeMap<>(messages).entrySet()) {
+                writer.writeCharacters("\n      ");
+                writer.writeStartElement(XliffBundle.NAMESPACE, "trans-unit");
+                writer.writeAttribute("id", entry.getKey());
+                writer.writeAttribute("resname", entry.getKey());
+                writer.writeCharacters("\n        ");
+                writer.writeStartElement(XliffBundle.NAMESPACE, "source");
+                writer.writeAttribute("xml", "http://www.w3.org/XML/1998/namespace", "space", "preserve");
+                writer.writeCharacters( entry.getValue() );
+                writer.writeEndElement();
+                writer.writeCharacters("\n      ");
+                writer.writeEndElement();
+            }
+
+            writer.writeCharacters("\n    ");
+            writer.writeEndElement();
+            writer.writeCharacters("\n  ");
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndDocument();
+            writer.flush();
+        }
+        catch (XMLStreamException ex) {
+            throw new IOException("Failed writing XLIFF bundle: " + ex.getMessage(), ex);
+        }
+        finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                }
+                catch (XMLStreamException ignore) {
+                }
+            }
+        }
+
+        out.flush();
+    }
+}
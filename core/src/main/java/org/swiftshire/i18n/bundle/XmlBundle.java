@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.bundle;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+/**
+ * Resource bundle read from a file in the XML format of {@link java.util.Properties#storeToXML}. The file is
+ * read with a streaming StAX parser straight into the lookup table in a single pass, so no DOM is built and
+ * the memory needed beyond the table itself does not grow with the size of the file. The document type is
+ * not fetched or validated.
+ * <p>
+ * Bundles of this format are loaded with {@link #CONTROL}, which looks for {@code .xml} files following the
+ * usual {@code name_lang_COUNTRY_variant} naming and fallback rules.
+ *
+ * @author swiftj
+ * @since 1.0
+ * @see org.swiftshire.i18n.annotation.BundleType#XML
+ */
+public final class XmlBundle extends ResourceBundle {
+    /**
+     * File name extension of XML bundles
+     */
+    public static final String SUFFIX = "xml";
+
+    /**
+     * Format name used with {@link ResourceBundle.Control}
+     */
+    public static final String FORMAT = "ji18n.xml";
+
+    /**
+     * Loads XML bundles through {@code ResourceBundle#getBundle(String, Locale, ClassLoader, ResourceBundle.Control)}.
+     */
+    public static final ResourceBundle.Control CONTROL = new XmlControl();
+
+    /**
+     * Name of the element holding one message
+     */
+    private static final String ENTRY = "entry";
+
+    /**
+     * Attribute holding the key of a message
+     */
+    private static final String KEY = "key";
+
+    /**
+     * Messages keyed by bundle key
+     */
+    private final Map<String, Object> entries;
+
+    private XmlBundle(Map<String, Object> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Reads a bundle in the XML properties format.
+     *
+     * @param in Stream to read, left open
+     * @return Bundle
+     * @throws IOException if the stream fails or does not hold a well formed properties document
+     */
+    public static XmlBundle read(InputStream in) throws IOException {
+        Map<String, Object> entries = new HashMap<>();
+        XMLStreamReader reader = null;
+
+        try {
+            reader = newInputFactory().createXMLStreamReader(in);
+
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && ENTRY.equals( reader.getLocalName() )) {
+                    String key = reader.getAttributeValue(null, KEY);
+
+                    if (key == null) {
+                        throw new IOException("Entry without a key at line " + reader.getLocation().getLineNumber());
+                    }
+
+                    entries.put(key, reader.getElementText());
+                }
+            }
+        }
+        catch (XMLStreamException ex) {
+            throw new IOException("Malformed XML bundle: " + ex.getMessage(), ex);
+        }
+        finally {
+            close(reader);
+        }
+
+        return new XmlBundle(entries);
+    }
+
+    /**
+     * Creates a StAX factory that neither loads the DTD nor resolves external entities.
+     *
+     * @return Input factory
+     */
+    static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        return factory;
+    }
+
+    /**
+     * Closes a stream reader, ignoring failures.
+     *
+     * @param reader Reader to close, may be {@code null}
+     */
+    static void close(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            }
+            catch (XMLStreamException ignore) {
+            }
+        }
+    }
+
+    /**
+     * Number of messages in this bundle, not counting its parents.
+     *
+     * @return Message count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object handleGetObject(String key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        return entries.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Set<String> handleKeySet() {
+        return Collections.unmodifiableSet( entries.keySet() );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Enumeration<String> getKeys() {
+        return Collections.enumeration( keySet() );
+    }
+
+    /**
+     * Control that loads XML bundles instead of classes or property files.
+     */
+    private static final class XmlControl extends BundleControl {
+        XmlControl() {
+            super(FORMAT, SUFFIX);
+        }
+
+        @Override
+        ResourceBundle read(URL url) throws IOException {
+            try (InputStream in = open(url)) {
+                return XmlBundle.read(in);
+            }
+        }
+    }
+}
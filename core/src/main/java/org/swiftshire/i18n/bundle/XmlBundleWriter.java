@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.bundle;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes messages in the XML format of {@link java.util.Properties#storeToXML} read by {@link XmlBundle}.
+ * Messages are written in key order so that generated bundles compare cleanly between builds.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public final class XmlBundleWriter {
+    /**
+     * Encoding of written bundles
+     */
+    private static final String ENCODING = "UTF-8";
+
+    /**
+     * Document type of the properties format
+     */
+    private static final String DOCTYPE = "<!DOCTYPE properties SYSTEM \"http://java.sun.com/dtd/properties.dtd\">";
+
+    private XmlBundleWriter() {}
+
+    /**
+     * Writes the given messages as an XML bundle.
+     *
+     * @param messages Message patterns keyed by bundle key
+     * @param out      Stream to write to, left open
+     * @throws IOException if the stream fails
+     */
+    public static void write(Map<String, String> messages, OutputStream out) throws IOException {
+        XMLStreamWriter writer = null;
+
+        try {
+            writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, ENCODING);
+
+            writer.writeStartDocument(ENCODING, "1.0");
+            writer.writeCharacters("\n");
+            writer.writeDTD(DOCTYPE);
+            writer.writeCharacters("\n");
+            writer.writeStartElement("properties");
+            writer.writeCharacters("\n");
+
+            for (Map.Entry<String, String> entry : new TreeMap<>(messages).entrySet()) {
+                writer.writeStartElement("entry");
+                writer.writeAttribute("key", entry.getKey());
+                writer.writeCharacters( entry.getValue() );
+                writer.writeEndElement();
+                writer.writeCharacters("\n");
+            }
+
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndDocument();
+            writer.flush();
+        }
+        catch (XMLStreamException ex) {
+            throw new IOException("Failed writing XML bundle: " + ex.getMessage(), ex);
+        }
+        finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                }
+                catch (XMLStreamException ignore) {
+                }
+            }
+        }
+
+        out.flush();
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * This package contains the resource bundle formats supported in addition to property files.
+ *
+ * @since 1.0
+ */
+package org.swiftshire.i18n.bundle;
@@ -0,0 +1,663 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.format;
+
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.Format;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * ji18n's own message template engine. A pattern is compiled once into an immutable array of literal
+ * and argument segments which are rendered straight into a caller supplied {@link StringBuilder}, without
+ * the {@code FieldPosition}, {@code Format[]} and intermediate buffers {@link java.text.MessageFormat}
+ * creates on every call. Strings are appended as is and integral numbers are formatted digit by digit
+ * using the symbols of the locale's number format; only other numbers and dates are handed to a
+ * {@link Format}. As a {@link PrimitiveTemplate} it also renders {@code long} and {@code double} arguments
+ * without boxing them.
+ * <p/>
+ * Output is identical to {@code MessageFormat} for plain, {@code number} (including its modifiers and
+ * patterns), {@code date} and {@code time} arguments as well as quoted text. Patterns using {@code choice}
+ * are not compiled; {@link #compile(String)} returns {@code null} for them and for malformed patterns so
+ * the caller can fall back to {@code MessageFormat}.
+ *
+ * @author swiftj
+ * @since 1.0
+ * @see TemplateEngine#COMPILED
+ */
+public final class CompiledTemplate implements PrimitiveTemplate {
+
+    private static final String[] TYPE_KEYWORDS = { "", "number", "date", "time", "choice" };
+    private static final String[] NUMBER_MODIFIER_KEYWORDS = { "", "currency", "percent", "integer" };
+    private static final String[] DATE_TIME_MODIFIER_KEYWORDS = { "", "short", "medium", "long", "full" };
+    private static final int[] DATE_TIME_MODIFIERS = {
+            DateFormat.DEFAULT, DateFormat.SHORT, DateFormat.MEDIUM, DateFormat.LONG, DateFormat.FULL };
+
+    /**
+     * Kinds of arguments passed to {@link #render}.
+     */
+    private static final int REFERENCE = 0, LONG = 1, DOUBLE = 2;
+
+    /**
+     * Formats {@code MessageFormat} applies to numbers and dates of plain arguments, per locale.
+     */
+    private static final ConcurrentMap<Locale, Defaults> defaults = new ConcurrentHashMap<>();
+
+    /**
+     * Source pattern
+     */
+    private final String pattern;
+
+    /**
+     * Compiled segments in rendering order.
+     */
+    private final Segment[] segments;
+
+    /**
+     * Total length of the literal segments.
+     */
+    private final int constantLength;
+
+    /**
+     * Number of argument segments.
+     */
+    private final int argumentCount;
+
+    private CompiledTemplate(String pattern, Segment[] segments, int constantLength, int argumentCount) {
+        this.pattern = pattern;
+        this.segments = segments;
+        this.constantLength = constantLength;
+        this.argumentCount = argumentCount;
+    }
+
+    /**
+     * Compiles the given pattern using the default locale, as {@link java.text.MessageFormat#format(String, Object...)}
+     * does.
+     *
+     * @param pattern Message pattern
+     * @return Compiled template or {@code null} if the pattern is malformed or uses unsupported features
+     */
+    public static CompiledTemplate compile(String pattern) {
+        return compile(pattern, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Compiles the given pattern. Parsing follows {@code MessageFormat#applyPattern} rule for rule.
+     *
+     * @param pattern Message pattern
+     * @param locale  Locale used to format numbers and dates
+     * @return Compiled template or {@code null} if the pattern is malformed or uses unsupported features
+     */
+    public static CompiledTemplate compile(String pattern, Locale locale) {
+        final int raw = 0, index = 1, type = 2, modifier = 3;
+
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder[] parts = { new StringBuilder(), null, null, null };
+        StringBuilder literal = parts[raw];
+
+        int part = raw;
+        int constantLength = 0;
+        int argumentCount = 0;
+        int braceStack = 0;
+        boolean inQuote = false;
+
+        for (int i = 0; i < pattern.length(); ++i) {
+            char ch = pattern.charAt(i);
+
+            if (part == raw) {
+                if (ch == '\'') {
+                    if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                        literal.append(ch);
+                        ++i;
+                    }
+                    else {
+                        inQuote = !inQuote;
+                    }
+                }
+                else if (ch == '{' && !inQuote) {
+                    part = index;
+                    parts[index] = new StringBuilder();
+                }
+                else {
+                    literal.append(ch);
+                }
+            }
+            else if (inQuote) {
+                parts[part].append(ch);
+
+                if (ch == '\'') {
+                    inQuote = false;
+                }
+            }
+            else {
+                switch (ch) {
+                    case ',':
+                        if (part < modifier) {
+                            parts[++part] = new StringBuilder();
+                        }
+                        else {
+                            parts[part].append(ch);
+                        }
+                        break;
+
+                    case '{':
+                        ++braceStack;
+                        parts[part].append(ch);
+                        break;
+
+                    case '}':
+                        if (braceStack == 0) {
+                            Argument argument = argument(parts[index], parts[type], parts[modifier], locale);
+
+                            if (argument == null) {
+                                return null;
+                            }
+
+                            if (literal.length() > 0) {
+                                segments.add( new Literal(literal.toString()) );
+                                constantLength += literal.length();
+                                literal.setLength(0);
+                            }
+
+                            segments.add(argument);
+                            ++argumentCount;
+
+                            part = raw;
+                            parts[index] = parts[type] = parts[modifier] = null;
+                        }
+                        else {
+                            --braceStack;
+                            parts[part].append(ch);
+                        }
+                        break;
+
+                    case ' ':
+                        if (part != type || parts[type].length() > 0) {
+                            parts[part].append(ch);
+                        }
+                        break;
+
+                    case '\'':
+                        inQuote = true;
+                        parts[part].append(ch);
+                        break;
+
+                    default:
+                        parts[part].append(ch);
+                        break;
+                }
+            }
+        }
+
+        if (part != raw) {
+            // Unmatched braces; let MessageFormat decide what that means
+            return null;
+        }
+
+        if (literal.length() > 0) {
+            segments.add( new Literal(literal.toString()) );
+            constantLength += literal.length();
+        }
+
+        return new CompiledTemplate(pattern, segments.toArray(new Segment[segments.size()]),
+                constantLength, argumentCount);
+    }
+
+    /**
+     * Rebuilds a template from the parts returned by {@link #decompose(List)}, skipping the parser.
+     * Literal {@code i} precedes argument {@code i} and the last literal follows the last argument, so
+     * there is always one more literal than there are arguments.
+     *
+     * @param pattern   Source pattern the parts were taken from
+     * @param literals  Literal text, possibly empty, around the arguments
+     * @param arguments Argument indexes in rendering order
+     * @param locale    Locale used to format numbers and dates
+     * @return Template equivalent to compiling the pattern
+     * @throws IllegalArgumentException if the number of literals does not match the arguments
+     */
+    public static CompiledTemplate assemble(String pattern, String[] literals, int[] arguments, Locale locale) {
+        if (literals.length != arguments.length + 1) {
+            throw new IllegalArgumentException("Expected " + (arguments.length + 1) + " literals");
+        }
+
+        List<Segment> segments = new ArrayList<>(literals.length + arguments.length);
+        int constantLength = 0;
+
+        for (int i = 0; i < literals.length; i++) {
+            if (!literals[i].isEmpty()) {
+                segments.add( new Literal(literals[i]) );
+                constantLength += literals[i].length();
+            }
+
+            if (i < arguments.length) {
+                segments.add( new Argument(arguments[i], null, locale) );
+            }
+        }
+
+        return new CompiledTemplate(pattern, segments.toArray(new Segment[segments.size()]),
+                constantLength, arguments.length);
+    }
+
+    /**
+     * Splits this template into the literal text and argument indexes accepted by
+     * {@link #assemble(String, String[], int[], Locale)}. Only templates whose arguments are all plain
+     * {@code {n}} placeholders can be split this way.
+     *
+     * @param literals List the literal text is added to
+     * @return Argument indexes, or {@code null} if an argument has a format type
+     */
+    public int[] decompose(List<String> literals) {
+        int[] arguments = new int[argumentCount];
+        int count = 0;
+        StringBuilder literal = new StringBuilder();
+
+        for (Segment segment : segments) {
+            if (segment instanceof Literal) {
+                literal.append( ((Literal) segment).text );
+            }
+            else {
+                Argument argument = (Argument) segment;
+
+                if (!argument.isPlain()) {
+                    return null;
+                }
+
+                literals.add( literal.toString() );
+                literal.setLength(0);
+                arguments[count++] = argument.index;
+            }
+        }
+
+        literals.add( literal.toString() );
+
+        return arguments;
+    }
+
+    /**
+     * Builds an argument segment exactly like {@code MessageFormat#makeFormat} builds its sub formats.
+     *
+     * @return Argument segment or {@code null} if unsupported or malformed
+     */
+    private static Argument argument(StringBuilder indexPart, StringBuilder typePart, StringBuilder modifierPart,
+                                     Locale locale) {
+        final int argumentNumber;
+
+        try {
+            argumentNumber = Integer.parseInt( indexPart.toString() );
+        }
+        catch (NumberFormatException ex) {
+            return null;
+        }
+
+        if (argumentNumber < 0) {
+            return null;
+        }
+
+        final String type = typePart != null ? typePart.toString() : "";
+        final String modifier = modifierPart != null ? modifierPart.toString() : "";
+
+        Format format = null;
+
+        try {
+            if (!type.isEmpty()) {
+                switch (findKeyword(type, TYPE_KEYWORDS)) {
+                    case 0:
+                        break;
+
+                    case 1:
+                        switch (findKeyword(modifier, NUMBER_MODIFIER_KEYWORDS)) {
+                            case 0:
+                                format = NumberFormat.getInstance(locale);
+                                break;
+                            case 1:
+                                format = NumberFormat.getCurrencyInstance(locale);
+                                break;
+                            case 2:
+                                format = NumberFormat.getPercentInstance(locale);
+                                break;
+                            case 3:
+                                format = NumberFormat.getIntegerInstance(locale);
+                                break;
+                            default:
+                                format = new DecimalFormat(modifier, DecimalFormatSymbols.getInstance(locale));
+                                break;
+                        }
+                        break;
+
+                    case 2:
+                    case 3:
+                        int mod = findKeyword(modifier, DATE_TIME_MODIFIER_KEYWORDS);
+
+                        if (mod >= 0) {
+                            format = "date".equals( findKeywordValue(type) ) ?
+                                    DateFormat.getDateInstance(DATE_TIME_MODIFIERS[mod], locale) :
+                                    DateFormat.getTimeInstance(DATE_TIME_MODIFIERS[mod], locale);
+                        }
+                        else {
+                            format = new SimpleDateFormat(modifier, locale);
+                        }
+                        break;
+
+                    default:
+                        // Choice formats render nested patterns; leave them to MessageFormat
+                        return null;
+                }
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            return null;
+        }
+
+        return new Argument(argumentNumber, format, locale);
+    }
+
+    private static int findKeyword(String s, String[] list) {
+        for (int i = 0; i < list.length; ++i) {
+            if (s.equals(list[i])) {
+                return i;
+            }
+        }
+
+        String ls = s.trim().toLowerCase(Locale.ROOT);
+
+        for (int i = 0; i < list.length; ++i) {
+            if (ls.equals(list[i])) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static String findKeywordValue(String s) {
+        return s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String format(Object... args) {
+        StringBuilder out = new StringBuilder( estimateLength() );
+
+        formatTo(out, args);
+
+        return out.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void formatTo(StringBuilder out, Object... args) {
+        for (Segment segment : segments) {
+            segment.appendTo(out, args);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String format(long arg0) {
+        return render(1, LONG, null, arg0, REFERENCE, null, 0L);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String format(double arg0) {
+        return render(1, DOUBLE, null, Double.doubleToRawLongBits(arg0), REFERENCE, null, 0L);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String format(Object arg0, long arg1) {
+        return render(2, REFERENCE, arg0, 0L, LONG, null, arg1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String format(Object arg0, double arg1) {
+        return render(2, REFERENCE, arg0, 0L, DOUBLE, null, Double.doubleToRawLongBits(arg1));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String format(long arg0, Object arg1) {
+        return render(2, LONG, null, arg0, REFERENCE, arg1, 0L);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String format(long arg0, long arg1) {
+        return render(2, LONG, null, arg0, LONG, null, arg1);
+    }
+
+    /**
+     * Renders this template with up to two arguments, each either a reference or primitive bits whose
+     * meaning is given by its kind.
+     */
+    private String render(int arity, int kind0, Object ref0, long bits0, int kind1, Object ref1, long bits1) {
+        StringBuilder out = new StringBuilder( estimateLength() );
+
+        for (Segment segment : segments) {
+            if (!(segment instanceof Argument)) {
+                segment.appendTo(out, null);
+                continue;
+            }
+
+            Argument argument = (Argument) segment;
+
+            if (argument.index >= arity) {
+                argument.appendMissing(out);
+            }
+            else if (argument.index == 0) {
+                argument.append(out, kind0, ref0, bits0);
+            }
+            else {
+                argument.append(out, kind1, ref1, bits1);
+            }
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * Returns the expected length of a rendered message, based on the constant length of the template.
+     *
+     * @return Initial buffer capacity to use
+     */
+    public int estimateLength() {
+        return constantLength + (argumentCount << 4);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * A piece of a compiled template.
+     */
+    private abstract static class Segment {
+        abstract void appendTo(StringBuilder out, Object[] args);
+    }
+
+    /**
+     * Constant text
+     */
+    private static final class Literal extends Segment {
+        private final String text;
+
+        Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        void appendTo(StringBuilder out, Object[] args) {
+            out.append(text);
+        }
+    }
+
+    /**
+     * A placeholder for an argument, rendered the way {@code MessageFormat#subformat} does.
+     */
+    private static final class Argument extends Segment {
+        final int index;
+        private final Locale locale;
+        private final PooledFormat format;
+        private final IntegerStyle integers;
+
+        Argument(int index, Format format, Locale locale) {
+            this.index = index;
+            this.locale = locale;
+            this.format = format != null ? new PooledFormat(format) : null;
+            this.integers = IntegerStyle.of(format != null ? format : defaults(locale).numbers.prototype());
+        }
+
+        @Override
+        void appendTo(StringBuilder out, Object[] args) {
+            if (args == null || index >= args.length) {
+                appendMissing(out);
+            }
+            else {
+                appendValue(out, args[index]);
+            }
+        }
+
+        void append(StringBuilder out, int kind, Object ref, long bits) {
+            switch (kind) {
+                case LONG:
+                    appendLong(out, bits);
+                    break;
+
+                case DOUBLE:
+                    appendDouble(out, Double.longBitsToDouble(bits));
+                    break;
+
+                default:
+                    appendValue(out, ref);
+                    break;
+            }
+        }
+
+        boolean isPlain() {
+            return format == null;
+        }
+
+        void appendMissing(StringBuilder out) {
+            out.append('{').append(index).append('}');
+        }
+
+        void appendValue(StringBuilder out, Object arg) {
+            if (arg == null) {
+                out.append("null");
+            }
+            else if (integers != null && IntegerStyle.isIntegral(arg)) {
+                integers.append(out, ((Number) arg).longValue());
+            }
+            else if (format != null) {
+                out.append( format.format(arg) );
+            }
+            else if (arg instanceof String) {
+                out.append( (String) arg );
+            }
+            else if (arg instanceof Number) {
+                out.append( defaults(locale).numbers.format(arg) );
+            }
+            else if (arg instanceof Date) {
+                out.append( defaults(locale).dates.format(arg) );
+            }
+            else {
+                String text = arg.toString();
+                out.append(text != null ? text : "null");
+            }
+        }
+
+        void appendLong(StringBuilder out, long value) {
+            if (integers != null) {
+                integers.append(out, value);
+            }
+            else {
+                out.append( (format != null ? format : defaults(locale).numbers).format(value) );
+            }
+        }
+
+        void appendDouble(StringBuilder out, double value) {
+            out.append( (format != null ? format : defaults(locale).numbers).format(value) );
+        }
+    }
+
+    private static Defaults defaults(Locale locale) {
+        Defaults result = defaults.get(locale);
+
+        if (result == null) {
+            result = new Defaults(locale);
+
+            Defaults existing = defaults.putIfAbsent(locale, result);
+
+            if (existing != null) {
+                result = existing;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Formats applied to numbers and dates passed to arguments without a format type.
+     */
+    private static final class Defaults {
+        final PooledFormat numbers;
+        final PooledFormat dates;
+
+        Defaults(Locale locale) {
+            numbers = new PooledFormat( NumberFormat.getInstance(locale) );
+            dates = new PooledFormat( DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale) );
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.format;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.Format;
+
+/**
+ * Formats {@code long} values exactly like a given {@link DecimalFormat} would, without a {@code DigitList},
+ * {@code FieldPosition} or intermediate buffer. Only formats that render integers as plain grouped digits
+ * between a prefix and a suffix qualify; everything else (multipliers, exponents, fraction digits, padding
+ * of the integer part, currencies) is left to the format itself.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+final class IntegerStyle {
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+
+    /**
+     * Digits per group or {@code 0} if grouping is not used.
+     */
+    private final int groupingSize;
+    private final char groupingSeparator;
+    private final char zeroDigit;
+
+    private IntegerStyle(DecimalFormat format) {
+        DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+
+        this.positivePrefix = format.getPositivePrefix();
+        this.positiveSuffix = format.getPositiveSuffix();
+        this.negativePrefix = format.getNegativePrefix();
+        this.negativeSuffix = format.getNegativeSuffix();
+        this.groupingSize = format.isGroupingUsed() ? format.getGroupingSize() : 0;
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.zeroDigit = symbols.getZeroDigit();
+    }
+
+    /**
+     * Returns the integer style of the given format.
+     *
+     * @param format Format that would otherwise be used
+     * @return Integer style or {@code null} if the format does not qualify
+     */
+    static IntegerStyle of(Format format) {
+        if (format == null || format.getClass() != DecimalFormat.class) {
+            return null;
+        }
+
+        DecimalFormat decimal = (DecimalFormat) format;
+        String pattern = decimal.toPattern();
+
+        if (decimal.getMultiplier() != 1 ||
+                decimal.getMinimumIntegerDigits() != 1 ||
+                decimal.getMaximumIntegerDigits() < 19 ||
+                decimal.getMinimumFractionDigits() != 0 ||
+                decimal.isDecimalSeparatorAlwaysShown() ||
+                pattern.indexOf('E') >= 0 ||
+                pattern.indexOf('\u00A4') >= 0) {
+            return null;
+        }
+
+        return new IntegerStyle(decimal);
+    }
+
+    /**
+     * Returns true if the value is one of the types rendered by {@link #append(StringBuilder, long)}.
+     *
+     * @param value Argument value
+     * @return True for {@link Integer}, {@link Long}, {@link Short} and {@link Byte}
+     */
+    static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * Appends the formatted value to the buffer.
+     *
+     * @param out   Buffer to append to
+     * @param value Value to format
+     */
+    void append(StringBuilder out, long value) {
+        final boolean negative = value < 0;
+
+        out.append(negative ? negativePrefix : positivePrefix);
+
+        final int start = out.length();
+        int digits = 0;
+
+        // Work on the negated value so that Long.MIN_VALUE needs no special case
+        long remaining = negative ? value : -value;
+
+        do {
+            if (groupingSize > 0 && digits > 0 && digits % groupingSize == 0) {
+                out.append(groupingSeparator);
+            }
+
+            out.append( (char) (zeroDigit - (int) (remaining % 10)) );
+            remaining /= 10;
+            digits++;
+        }
+        while (remaining != 0);
+
+        for (int i = start, j = out.length() - 1; i < j; i++, j--) {
+            char c = out.charAt(i);
+            out.setCharAt(i, out.charAt(j));
+            out.setCharAt(j, c);
+        }
+
+        out.append(negative ? negativeSuffix : positiveSuffix);
+    }
+}
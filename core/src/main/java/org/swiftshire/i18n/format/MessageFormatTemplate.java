@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.format;
+
+import java.text.MessageFormat;
+
+/**
+ * {@link MessageTemplate} backed by a parsed {@link MessageFormat}. Since {@code MessageFormat} is not
+ * thread safe, the parsed pattern is only used through a {@link PooledFormat}.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public final class MessageFormatTemplate implements MessageTemplate {
+    /**
+     * Source pattern
+     */
+    private final String pattern;
+
+    /**
+     * Parsed pattern
+     */
+    private final PooledFormat format;
+
+    /**
+     * Parses the given pattern using the default locale, as {@link MessageFormat#format(String, Object...)} does.
+     *
+     * @param pattern Message pattern to parse
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public MessageFormatTemplate(String pattern) {
+        this.pattern = pattern;
+        this.format = new PooledFormat( new MessageFormat(pattern) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String format(Object... args) {
+        return format.format(args);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void formatTo(StringBuilder out, Object... args) {
+        out.append( format.format(args) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
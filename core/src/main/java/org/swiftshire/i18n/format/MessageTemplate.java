@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.format;
+
+/**
+ * A message pattern that has already been parsed and is ready to be rendered. Implementations
+ * must be safe to share between threads.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public interface MessageTemplate {
+    /**
+     * Renders this template with the given arguments.
+     *
+     * @param args Arguments to insert into the message, may be {@code null}
+     * @return Localized string
+     */
+    String format(Object... args);
+
+    /**
+     * Renders this template with the given arguments, appending the result to the given buffer.
+     *
+     * @param out  Buffer to append the message to
+     * @param args Arguments to insert into the message, may be {@code null}
+     */
+    void formatTo(StringBuilder out, Object... args);
+
+    /**
+     * Returns the source pattern this template was compiled from.
+     *
+     * @return Message pattern
+     */
+    String getPattern();
+}
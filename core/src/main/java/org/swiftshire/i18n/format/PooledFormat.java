@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.format;
+
+import java.text.Format;
+import java.text.NumberFormat;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread safe wrapper around a {@link Format}, which itself is not thread safe.
+ * <p/>
+ * The prototype is never used to format directly. Instead a single idle copy is parked in an atomic
+ * slot: a caller takes it, formats and puts it back. Callers that find the slot empty because another
+ * thread is formatting work on a fresh clone of the prototype, which is still much cheaper than
+ * creating the format from scratch.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+final class PooledFormat {
+    /**
+     * Configured format; only ever read to produce working copies.
+     */
+    private final Format prototype;
+
+    /**
+     * Working copy that is currently not in use by any thread, if any.
+     */
+    private final AtomicReference<Format> idle;
+
+    PooledFormat(Format prototype) {
+        this.prototype = prototype;
+        this.idle = new AtomicReference<>( (Format) prototype.clone() );
+    }
+
+    /**
+     * Formats the given object.
+     *
+     * @param obj Object to format
+     * @return Formatted string
+     * @see Format#format(Object)
+     */
+    String format(Object obj) {
+        Format format = acquire();
+
+        try {
+            return format.format(obj);
+        }
+        finally {
+            idle.lazySet(format);
+        }
+    }
+
+    /**
+     * Formats the given number, without boxing it if the format is a {@link NumberFormat}.
+     *
+     * @param value Number to format
+     * @return Formatted string
+     * @see NumberFormat#format(long)
+     */
+    String format(long value) {
+        Format format = acquire();
+
+        try {
+            return format instanceof NumberFormat ? ((NumberFormat) format).format(value) : format.format(value);
+        }
+        finally {
+            idle.lazySet(format);
+        }
+    }
+
+    /**
+     * Formats the given number, without boxing it if the format is a {@link NumberFormat}.
+     *
+     * @param value Number to format
+     * @return Formatted string
+     * @see NumberFormat#format(double)
+     */
+    String format(double value) {
+        Format format = acquire();
+
+        try {
+            return format instanceof NumberFormat ? ((NumberFormat) format).format(value) : format.format(value);
+        }
+        finally {
+            idle.lazySet(format);
+        }
+    }
+
+    /**
+     * Takes the idle working copy, or clones a new one if another thread holds it.
+     */
+    private Format acquire() {
+        Format format = idle.getAndSet(null);
+
+        return format != null ? format : (Format) prototype.clone();
+    }
+
+    /**
+     * Returns the configured format. Callers must not use it to format anything.
+     *
+     * @return Prototype format
+     */
+    Format prototype() {
+        return prototype;
+    }
+}
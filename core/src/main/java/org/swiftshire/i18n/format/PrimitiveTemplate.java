@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.format;
+
+/**
+ * A {@link MessageTemplate} that can render numeric arguments straight from primitives, without boxing
+ * them or collecting them into an argument array. Only the argument shapes of typical counting messages
+ * are covered; {@code int}, {@code short} and {@code byte} arguments are passed as {@code long} and
+ * {@code float} arguments as {@code double}. Output is identical to passing the boxed values to
+ * {@link #format(Object...)}.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public interface PrimitiveTemplate extends MessageTemplate {
+    /**
+     * Renders this template with a single integral argument.
+     *
+     * @param arg0 First argument
+     * @return Localized string
+     */
+    String format(long arg0);
+
+    /**
+     * Renders this template with a single floating point argument.
+     *
+     * @param arg0 First argument
+     * @return Localized string
+     */
+    String format(double arg0);
+
+    /**
+     * Renders this template with an object and an integral argument.
+     *
+     * @param arg0 First argument, may be {@code null}
+     * @param arg1 Second argument
+     * @return Localized string
+     */
+    String format(Object arg0, long arg1);
+
+    /**
+     * Renders this template with an object and a floating point argument.
+     *
+     * @param arg0 First argument, may be {@code null}
+     * @param arg1 Second argument
+     * @return Localized string
+     */
+    String format(Object arg0, double arg1);
+
+    /**
+     * Renders this template with an integral and an object argument.
+     *
+     * @param arg0 First argument
+     * @param arg1 Second argument, may be {@code null}
+     * @return Localized string
+     */
+    String format(long arg0, Object arg1);
+
+    /**
+     * Renders this template with two integral arguments.
+     *
+     * @param arg0 First argument
+     * @param arg1 Second argument
+     * @return Localized string
+     */
+    String format(long arg0, long arg1);
+}
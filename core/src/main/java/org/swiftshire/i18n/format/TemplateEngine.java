@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.format;
+
+/**
+ * Engines available to compile message patterns into {@link MessageTemplate templates}.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public enum TemplateEngine {
+    /**
+     * Renders messages with {@link java.text.MessageFormat}. This is the default.
+     */
+    MESSAGE_FORMAT {
+        @Override
+        public MessageTemplate compile(String pattern) {
+            return new MessageFormatTemplate(pattern);
+        }
+    },
+
+    /**
+     * Renders messages with {@link CompiledTemplate}, falling back to {@link java.text.MessageFormat} for
+     * patterns it does not support such as {@code choice} arguments.
+     */
+    COMPILED {
+        @Override
+        public MessageTemplate compile(String pattern) {
+            MessageTemplate template = CompiledTemplate.compile(pattern);
+
+            return template != null ? template : new MessageFormatTemplate(pattern);
+        }
+    };
+
+    /**
+     * Compiles the given pattern into a template.
+     *
+     * @param pattern Message pattern
+     * @return Compiled template
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public abstract MessageTemplate compile(String pattern);
+}
@@ -0,0 +1,6 @@
+/**
+ * This package contains the parsed message templates used to render localized messages.
+ *
+ * @since 1.0
+ */
+package org.swiftshire.i18n.format;
@@ -0,0 +1,354 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.handler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal class file assembler used to generate {@link org.swiftshire.i18n.Messages Messages}
+ * implementations at run time. It only supports what the generator needs: a constant pool,
+ * methods made of straight-line code (no branches, hence no stack map frames) and no fields.
+ * Classes are written in the Java 7 (version 51) format.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+final class ClassFileWriter {
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    static final int ACONST_NULL = 0x01;
+    static final int ICONST_0 = 0x03;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC = 0x12;
+    static final int LDC_W = 0x13;
+    static final int ILOAD = 0x15;
+    static final int LLOAD = 0x16;
+    static final int FLOAD = 0x17;
+    static final int DLOAD = 0x18;
+    static final int ALOAD = 0x19;
+    static final int ALOAD_0 = 0x2a;
+    static final int ALOAD_1 = 0x2b;
+    static final int AASTORE = 0x53;
+    static final int DUP = 0x59;
+    static final int I2L = 0x85;
+    static final int F2D = 0x8d;
+    static final int ARETURN = 0xb0;
+    static final int RETURN = 0xb1;
+    static final int INVOKEVIRTUAL = 0xb6;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKESTATIC = 0xb8;
+    static final int INVOKEINTERFACE = 0xb9;
+    static final int ANEWARRAY = 0xbd;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> constants = new HashMap<>();
+    private int poolCount = 1;
+
+    private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+    private final DataOutputStream methods = new DataOutputStream(methodBytes);
+    private int methodCount;
+
+    /**
+     * Body of a single method under construction.
+     */
+    final class Code {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int maxStack;
+        private int maxLocals;
+
+        Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        Code op1(int opcode, int operand) {
+            bytes.write(opcode);
+            bytes.write(operand);
+            return this;
+        }
+
+        Code op2(int opcode, int operand) {
+            bytes.write(opcode);
+            bytes.write(operand >>> 8);
+            bytes.write(operand);
+            return this;
+        }
+
+        Code pushInt(int value) {
+            if (value >= 0 && value <= 5) {
+                return op(ICONST_0 + value);
+            }
+            else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                return op1(BIPUSH, value);
+            }
+            else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                return op2(SIPUSH, value);
+            }
+
+            return ldc( integer(value) );
+        }
+
+        Code pushString(String value) {
+            return ldc( string(value) );
+        }
+
+        Code ldc(int index) {
+            return index < 256 ? op1(LDC, index) : op2(LDC_W, index);
+        }
+
+        Code load(int opcode, int slot) {
+            if (slot > 255) {
+                throw new IllegalStateException("Local variable slot out of range: " + slot);
+            }
+
+            return op1(opcode, slot);
+        }
+
+        Code invokeInterface(String owner, String name, String descriptor, int argSlots) {
+            op2(INVOKEINTERFACE, interfaceMethodRef(owner, name, descriptor));
+            bytes.write(argSlots + 1);
+            bytes.write(0);
+            return this;
+        }
+
+        Code maxs(int maxStack, int maxLocals) {
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+            return this;
+        }
+    }
+
+    Code newCode() {
+        return new Code();
+    }
+
+    int utf8(String value) {
+        Integer index = constants.get("U" + value);
+
+        if (index == null) {
+            index = add("U" + value);
+
+            try {
+                pool.writeByte(CONSTANT_UTF8);
+                pool.writeUTF(value);
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        return index;
+    }
+
+    int integer(int value) {
+        Integer index = constants.get("I" + value);
+
+        if (index == null) {
+            index = add("I" + value);
+            write(CONSTANT_INTEGER, value >>> 16, value & 0xffff);
+        }
+
+        return index;
+    }
+
+    int classRef(String internalName) {
+        Integer index = constants.get("C" + internalName);
+
+        if (index == null) {
+            int name = utf8(internalName);
+
+            index = add("C" + internalName);
+            write(CONSTANT_CLASS, name);
+        }
+
+        return index;
+    }
+
+    int string(String value) {
+        Integer index = constants.get("S" + value);
+
+        if (index == null) {
+            int utf = utf8(value);
+
+            index = add("S" + value);
+            write(CONSTANT_STRING, utf);
+        }
+
+        return index;
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return memberRef(CONSTANT_METHODREF, owner, name, descriptor);
+    }
+
+    int interfaceMethodRef(String owner, String name, String descriptor) {
+        return memberRef(CONSTANT_INTERFACE_METHODREF, owner, name, descriptor);
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        final String id = "M" + tag + owner + '.' + name + descriptor;
+
+        Integer index = constants.get(id);
+
+        if (index == null) {
+            int clazz = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+
+            index = add(id);
+            write(tag, clazz, nameAndType);
+        }
+
+        return index;
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        final String id = "N" + name + ' ' + descriptor;
+
+        Integer index = constants.get(id);
+
+        if (index == null) {
+            int n = utf8(name);
+            int d = utf8(descriptor);
+
+            index = add(id);
+            write(CONSTANT_NAME_AND_TYPE, n, d);
+        }
+
+        return index;
+    }
+
+    private int add(String id) {
+        int index = poolCount++;
+        constants.put(id, index);
+        return index;
+    }
+
+    private void write(int tag, int... shorts) {
+        try {
+            pool.writeByte(tag);
+
+            for (int value : shorts) {
+                pool.writeShort(value);
+            }
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Adds a method with the given body to the class.
+     *
+     * @param access     Access flags
+     * @param name       Method name
+     * @param descriptor Method descriptor
+     * @param code       Method body
+     */
+    void addMethod(int access, String name, String descriptor, Code code) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int codeIndex = utf8("Code");
+
+        byte[] body = code.bytes.toByteArray();
+
+        try {
+            methods.writeShort(access);
+            methods.writeShort(nameIndex);
+            methods.writeShort(descriptorIndex);
+            methods.writeShort(1);
+
+            methods.writeShort(codeIndex);
+            methods.writeInt(12 + body.length);
+            methods.writeShort(code.maxStack);
+            methods.writeShort(code.maxLocals);
+            methods.writeInt(body.length);
+            methods.write(body);
+            methods.writeShort(0);
+            methods.writeShort(0);
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        ++methodCount;
+    }
+
+    /**
+     * Assembles the class file.
+     *
+     * @param access     Class access flags
+     * @param name       Internal name of the class
+     * @param superName  Internal name of the super class
+     * @param interfaces Internal names of the implemented interfaces
+     * @return Class file bytes
+     */
+    byte[] toByteArray(int access, String name, String superName, String... interfaces) {
+        int thisIndex = classRef(name);
+        int superIndex = classRef(superName);
+        int[] interfaceIndexes = new int[interfaces.length];
+
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaceIndexes[i] = classRef(interfaces[i]);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                poolBytes.size() + methodBytes.size() + 32);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(51);
+            out.writeShort(poolCount);
+            out.write(poolBytes.toByteArray());
+            out.writeShort(access);
+            out.writeShort(thisIndex);
+            out.writeShort(superIndex);
+            out.writeShort(interfaceIndexes.length);
+
+            for (int index : interfaceIndexes) {
+                out.writeShort(index);
+            }
+
+            out.writeShort(0);
+            out.writeShort(methodCount);
+            out.write(methodBytes.toByteArray());
+            out.writeShort(0);
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.handler;
+
+import org.swiftshire.i18n.format.MessageTemplate;
+
+/**
+ * Immutable, pre-resolved description of how a single method of a {@link org.swiftshire.i18n.Messages Messages}
+ * interface is dispatched by a {@link MessageHandler}. Entries are built once when the handler is created so that
+ * proxy invocations need neither reflection nor annotation parsing.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public final class DispatchEntry {
+    /**
+     * What a dispatched method does.
+     */
+    public enum Kind {
+        /**
+         * A {@link org.swiftshire.i18n.annotation.Message} annotated method
+         */
+        MESSAGE,
+
+        /**
+         * A {@link org.swiftshire.i18n.annotation.Message} annotated method rendering into the
+         * {@code Appendable} passed as its first argument
+         */
+        MESSAGE_TO,
+
+        /**
+         * {@code Messages#format(String)}
+         */
+        FORMAT,
+
+        /**
+         * {@code Messages#format(String, Object...)}
+         */
+        FORMAT_ARGS,
+
+        /**
+         * {@code Messages#formatTo(StringBuilder, String, Object...)} and
+         * {@code Messages#formatTo(Appendable, String, Object...)}
+         */
+        FORMAT_TO,
+
+        /**
+         * {@code Messages#getBundle()}
+         */
+        GET_BUNDLE,
+
+        /**
+         * {@code Messages#getLocale()}
+         */
+        GET_LOCALE,
+
+        /**
+         * {@code Object#equals(Object)}
+         */
+        EQUALS,
+
+        /**
+         * {@code Object#hashCode()}
+         */
+        HASH_CODE,
+
+        /**
+         * {@code Object#toString()}
+         */
+        TO_STRING
+    }
+
+    private final Kind kind;
+    private final String key;
+    private final MessageTemplate template;
+    private final int arity;
+
+    /**
+     * Creates a new dispatch entry.
+     *
+     * @param kind     What the method does
+     * @param key      Bundle key of the message, {@code null} unless the kind is {@code MESSAGE} or {@code MESSAGE_TO}
+     * @param template Compiled message template, {@code null} unless the kind is {@code MESSAGE} or {@code MESSAGE_TO}
+     * @param arity    Number of method parameters
+     */
+    public DispatchEntry(Kind kind, String key, MessageTemplate template, int arity) {
+        this.kind = kind;
+        this.key = key;
+        this.template = template;
+        this.arity = arity;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public MessageTemplate getTemplate() {
+        return template;
+    }
+
+    public int getArity() {
+        return arity;
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return kind + (key != null ? ("[" + key + "]") : "") + "/" + arity;
+    }
+}
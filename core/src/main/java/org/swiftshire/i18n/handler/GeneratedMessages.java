@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.handler;
+
+import org.swiftshire.i18n.Messages;
+import org.swiftshire.i18n.annotation.Message;
+import org.swiftshire.i18n.format.MessageTemplate;
+import org.swiftshire.i18n.format.PrimitiveTemplate;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+/**
+ * Base class of generated {@link Messages} implementations. Every {@link org.swiftshire.i18n.annotation.Message}
+ * method of a generated class is compiled into a direct call on the template at a fixed index, so calls involve
+ * neither a proxy nor a dispatch table lookup. The remaining {@link Messages} methods are delegated to the
+ * {@link MessageHandler} the instance was created with.
+ *
+ * @author swiftj
+ * @since 1.0
+ * @see MessagesClassGenerator
+ */
+public abstract class GeneratedMessages implements Messages {
+    /**
+     * Handler that owns the bundle and its templates.
+     */
+    private final MessageHandler handler;
+
+    /**
+     * Bundle keys of the generated methods, in method index order.
+     */
+    private final String[] keys;
+
+    /**
+     * Number of rendered messages to remember for each generated method, in method index order.
+     */
+    private final int[] memoize;
+
+    /**
+     * Templates of the generated methods, resolved against the current templates of the handler.
+     */
+    private volatile Resolved resolved;
+
+    /**
+     * Binds a generated implementation to a handler.
+     *
+     * @param handler Handler that owns the bundle
+     * @param keys    Bundle keys of the generated methods, in method index order
+     */
+    protected GeneratedMessages(MessageHandler handler, String[] keys) {
+        this.handler = handler;
+        this.keys = keys;
+        this.memoize = memoSizes(getClass(), keys);
+        this.resolved = resolve();
+    }
+
+    /**
+     * Returns the template of the generated method with the given index. The templates are resolved
+     * again, once, after the handler has {@link MessageHandler#reload() reloaded} its bundle.
+     *
+     * @param index Method index
+     * @return Message template
+     */
+    protected final MessageTemplate template(int index) {
+        Resolved current = resolved;
+
+        if (current.source != handler.getTemplateCache()) {
+            current = resolve();
+            resolved = current;
+        }
+
+        return current.templates[index];
+    }
+
+    /**
+     * Returns the index of the generated method rendering the given bundle key, so that callers dispatching
+     * on behalf of this object, such as locale aware messages objects, can resolve each method once and
+     * then render through {@link #messageTemplate(int)} without reflection.
+     *
+     * @param key Bundle key
+     * @return Method index, or -1 if no generated method renders the key
+     */
+    public final int messageIndex(String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the current template of the generated method with the given index, exactly as the method
+     * itself renders it.
+     *
+     * @param index Method index
+     * @return Message template
+     * @see #messageIndex(String)
+     */
+    public final MessageTemplate messageTemplate(int index) {
+        return template(index);
+    }
+
+    /**
+     * Looks up the templates of all generated methods in the current templates of the handler.
+     *
+     * @return Resolved templates
+     */
+    private Resolved resolve() {
+        TemplateCache source = handler.getTemplateCache();
+        MessageTemplate[] templates = new MessageTemplate[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            templates[i] = handler.getTemplate(keys[i], memoize[i]);
+        }
+
+        return new Resolved(source, templates);
+    }
+
+    /**
+     * Looks up the memoization setting of each generated method in the messages interface the class
+     * implements. Generated classes only pass the bundle keys of their methods, so the setting of each
+     * key is taken from the message method it belongs to.
+     *
+     * @param generated Generated class
+     * @param keys      Bundle keys of the generated methods, in method index order
+     * @return Number of rendered messages to remember per method
+     * @see MessageHandler#memoSize(Class, Method)
+     */
+    private static int[] memoSizes(Class<?> generated, String[] keys) {
+        Map<String, Integer> sizes = new HashMap<>();
+
+        for (Class<?> type : generated.getInterfaces()) {
+            for (Method method : type.getMethods()) {
+                Message annotation = method.getAnnotation(Message.class);
+
+                if (annotation != null) {
+                    sizes.put(annotation.key().isEmpty() ? method.getName() : annotation.key(),
+                              MessageHandler.memoSize(type, method));
+                }
+            }
+        }
+
+        int[] memoize = new int[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            Integer size = sizes.get(keys[i]);
+            memoize[i] = size != null ? size : 0;
+        }
+
+        return memoize;
+    }
+
+    /**
+     * Renders a template with the arguments of a generated method whose parameters are numeric primitives
+     * or objects, without boxing them if the template is a {@link PrimitiveTemplate}. Generated methods
+     * with other parameter lists build an argument array instead.
+     *
+     * @see PrimitiveTemplate#format(long)
+     */
+    protected static String formatUnboxed(MessageTemplate template, long arg0) {
+        return template instanceof PrimitiveTemplate ?
+                ((PrimitiveTemplate) template).format(arg0) : template.format(new Object[] { arg0 });
+    }
+
+    /**
+     * @see #formatUnboxed(MessageTemplate, long)
+     * @see PrimitiveTemplate#format(double)
+     */
+    protected static String formatUnboxed(MessageTemplate template, double arg0) {
+        return template instanceof PrimitiveTemplate ?
+                ((PrimitiveTemplate) template).format(arg0) : template.format(new Object[] { arg0 });
+    }
+
+    /**
+     * @see #formatUnboxed(MessageTemplate, long)
+     * @see PrimitiveTemplate#format(Object, long)
+     */
+    protected static String formatUnboxed(MessageTemplate template, Object arg0, long arg1) {
+        return template instanceof PrimitiveTemplate ?
+                ((PrimitiveTemplate) template).format(arg0, arg1) : template.format(new Object[] { arg0, arg1 });
+    }
+
+    /**
+     * @see #formatUnboxed(MessageTemplate, long)
+     * @see PrimitiveTemplate#format(Object, double)
+     */
+    protected static String formatUnboxed(MessageTemplate template, Object arg0, double arg1) {
+        return template instanceof PrimitiveTemplate ?
+                ((PrimitiveTemplate) template).format(arg0, arg1) : template.format(new Object[] { arg0, arg1 });
+    }
+
+    /**
+     * @see #formatUnboxed(MessageTemplate, long)
+     * @see PrimitiveTemplate#format(long, Object)
+     */
+    protected static String formatUnboxed(MessageTemplate template, long arg0, Object arg1) {
+        return template instanceof PrimitiveTemplate ?
+                ((PrimitiveTemplate) template).format(arg0, arg1) : template.format(new Object[] { arg0, arg1 });
+    }
+
+    /**
+     * @see #formatUnboxed(MessageTemplate, long)
+     * @see PrimitiveTemplate#format(long, long)
+     */
+    protected static String formatUnboxed(MessageTemplate template, long arg0, long arg1) {
+        return template instanceof PrimitiveTemplate ?
+                ((PrimitiveTemplate) template).format(arg0, arg1) : template.format(new Object[] { arg0, arg1 });
+    }
+
+    /**
+     * Renders a template into the buffer passed to a generated sink method.
+     *
+     * @param template Template of the method
+     * @param out      Buffer to append the message to
+     * @param args     Remaining arguments of the method, may be {@code null}
+     */
+    protected static void render(MessageTemplate template, StringBuilder out, Object[] args) {
+        template.formatTo(out, args);
+    }
+
+    /**
+     * Renders a template into the target passed to a generated sink method.
+     *
+     * @param template Template of the method
+     * @param out      Target to append the message to
+     * @param args     Remaining arguments of the method, may be {@code null}
+     * @throws IOException if the target fails to append
+     */
+    protected static void render(MessageTemplate template, Appendable out, Object[] args) throws IOException {
+        MessageHandler.render(template, out, args);
+    }
+
+    /**
+     * Returns the handler this implementation delegates to.
+     *
+     * @return Message handler
+     */
+    public final MessageHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String format(String key) {
+        return handler.format(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String format(String key, Object... args) {
+        return handler.format(key, args);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void formatTo(StringBuilder out, String key, Object... args) {
+        handler.formatTo(out, key, args);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void formatTo(Appendable out, String key, Object... args) throws IOException {
+        handler.formatTo(out, key, args);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResourceBundle getBundle() {
+        return handler.getBundle();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Locale getLocale() {
+        return handler.getLocale();
+    }
+
+    /**
+     * Templates of the generated methods together with the template cache they were taken from.
+     */
+    private static final class Resolved {
+        final TemplateCache source;
+        final MessageTemplate[] templates;
+
+        Resolved(TemplateCache source, MessageTemplate[] templates) {
+            this.source = source;
+            this.templates = templates;
+        }
+    }
+}
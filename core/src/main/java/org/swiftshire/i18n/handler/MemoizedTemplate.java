@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.swiftshire.i18n.handler;
+
+import org.swiftshire.i18n.format.MessageTemplate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Template that remembers the messages it rendered, keyed by their arguments, and returns the remembered
+ * message when a call repeats the arguments of an earlier one. Each template belongs to the bundle of a
+ * single locale and is dropped with it when the bundle is reloaded, so the remembered messages are in
+ * effect keyed by locale and arguments.
+ * <p>
+ * Only calls whose arguments are all immutable values are remembered; calls with any other argument, such
+ * as a date, are rendered every time. The size limit holds under concurrent calls: every new message first
+ * reserves a slot, and once the limit is reached a CLOCK sweep over the remembered messages evicts one that
+ * has not been used since the sweep last passed it. Lookups only set a reference bit and never lock.
+ *
+ * @author swiftj
+ * @since 1.0
+ * @see org.swiftshire.i18n.annotation.Message#memoize()
+ * @see org.swiftshire.i18n.annotation.ResourceBundle#memoize()
+ */
+public final class MemoizedTemplate implements MessageTemplate {
+    /**
+     * Argument types whose instances never change, so that equal arguments always render alike
+     */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.asList(
+            String.class, Integer.class, Long.class, Short.class, Byte.class, Double.class, Float.class,
+            Boolean.class, Character.class, BigInteger.class, BigDecimal.class, Locale.class));
+
+    /**
+     * Number of calls answered with a remembered message
+     */
+    private static final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Number of calls with immutable arguments that had to render the message
+     */
+    private static final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Number of remembered messages evicted to make room for new ones
+     */
+    private static final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Template rendering the messages
+     */
+    private final MessageTemplate template;
+
+    /**
+     * Maximum number of remembered messages
+     */
+    private final int maxSize;
+
+    /**
+     * Remembered messages keyed by their arguments
+     */
+    private final ConcurrentMap<List<Object>, Remembered> rendered = new ConcurrentHashMap<>();
+
+    /**
+     * Remembered messages plus slots reserved for messages about to be remembered
+     */
+    private final AtomicInteger reserved = new AtomicInteger();
+
+    /**
+     * CLOCK hand over the remembered messages, guarded by this template
+     */
+    private Iterator<Map.Entry<List<Object>, Remembered>> hand;
+
+    /**
+     * Wraps a template.
+     *
+     * @param template Template rendering the messages
+     * @param maxSize  Maximum number of remembered messages
+     */
+    public MemoizedTemplate(MessageTemplate template, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Memoization size must be positive: " + maxSize);
+        }
+
+        this.template = template;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String format(Object... args) {
+        List<Object> key = key(args);
+
+        if (key == null) {
+            return template.format(args);
+        }
+
+        Remembered remembered = rendered.get(key);
+
+        if (remembered != null) {
+            if (!remembered.referenced) {
+                remembered.referenced = true;
+            }
+
+            hits.incrementAndGet();
+            return remembered.message;
+        }
+
+        misses.incrementAndGet();
+        String message = template.format(args);
+
+        // Every slot taken beyond the limit must be paid for with an eviction before the message is stored
+        if (reserved.incrementAndGet() > maxSize && !evict()) {
+            reserved.decrementAndGet();
+            return message;
+        }
+
+        if (rendered.putIfAbsent(key, new Remembered(message)) != null) {
+            reserved.decrementAndGet();
+        }
+
+        return message;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void formatTo(StringBuilder out, Object... args) {
+        out.append( format(args) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getPattern() {
+        return template.getPattern();
+    }
+
+    /**
+     * Template rendering the messages.
+     *
+     * @return Wrapped template
+     */
+    public MessageTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Number of messages currently remembered.
+     *
+     * @return Remembered message count
+     */
+    public int size() {
+        return rendered.size();
+    }
+
+    /**
+     * Removes one remembered message that has not been used since the hand last passed it, giving every
+     * other message a second chance.
+     *
+     * @return true if a message was removed, false if none could be found
+     */
+    private synchronized boolean evict() {
+        // Two sweeps suffice: the first clears every reference bit the second may find set
+        for (int scanned = 0; scanned <= 2 * maxSize; scanned++) {
+            if (hand == null || !hand.hasNext()) {
+                hand = rendered.entrySet().iterator();
+
+                if (!hand.hasNext()) {
+                    return false;
+                }
+            }
+
+            Map.Entry<List<Object>, Remembered> entry = hand.next();
+            Remembered remembered = entry.getValue();
+
+            if (remembered.referenced) {
+                remembered.referenced = false;
+            }
+            else if (rendered.remove(entry.getKey(), remembered)) {
+                reserved.decrementAndGet();
+                evictions.incrementAndGet();
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Copies the arguments of a call into a key, if they are all immutable.
+     *
+     * @param args Arguments of the call, may be {@code null}
+     * @return Key of the call, or {@code null} if the call cannot be remembered
+     */
+    private static List<Object> key(Object[] args) {
+        if (args == null || args.length == 0) {
+            return Collections.emptyList();
+        }
+
+        for (Object arg : args) {
+            if (arg != null && !(arg instanceof Enum) && !IMMUTABLE_TYPES.contains( arg.getClass() )) {
+                return null;
+            }
+        }
+
+        return Arrays.asList( args.clone() );
+    }
+
+    /**
+     * Rendered message along with its CLOCK reference bit.
+     */
+    private static final class Remembered {
+        final String message;
+
+        /**
+         * Set on every hit and cleared by the CLOCK hand
+         */
+        volatile boolean referenced;
+
+        Remembered(String message) {
+            this.message = message;
+        }
+    }
+
+    /**
+     * Number of calls answered with a remembered message so far.
+     *
+     * @return Hit count
+     */
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Number of calls that could have been answered with a remembered message but had to render it.
+     *
+     * @return Miss count
+     */
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Number of remembered messages evicted to make room for new ones.
+     *
+     * @return Eviction count
+     */
+    public static long getEvictionCount() {
+        return evictions.get();
+    }
+}
@@ -21,14 +21,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.swiftshire.i18n.Messages;
 import org.swiftshire.i18n.annotation.Message;
+import org.swiftshire.i18n.format.MessageTemplate;
+import org.swiftshire.i18n.format.TemplateEngine;
 
 
+import java.io.IOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Implementation of the {@link Messages} interface as well as derived interfaces
@@ -49,9 +59,61 @@ public class MessageHandler implements Messages, InvocationHandler {
     private static final String BOGUS_KEY_DECORATOR = "!!";
 
     /**
-     * Internal resource bundle this handler delegates to.
+     * Upper bound on the number of missing keys remembered per bundle. Further missing keys are still
+     * rendered decorated, just built anew on every call.
      */
-    private final ResourceBundle bundle;
+    private static final int MAX_MISSING_KEYS = 256;
+
+    /**
+     * {@code ResourceBundle.getBaseBundleName()}, which only runtimes newer than the source level of this
+     * library have; {@code null} where it is missing
+     */
+    private static final Method BASE_BUNDLE_NAME = baseBundleNameMethod();
+
+    /**
+     * Number of lookups of keys the bundle has no message for, across reloads
+     */
+    private final AtomicLong missingKeyCount = new AtomicLong();
+
+    /**
+     * Bundle, templates and dispatch table currently in use, replaced as a whole on {@link #reload()}.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Messages interface this handler implements, may be {@code null}
+     */
+    private final Class<? extends Messages> type;
+
+    /**
+     * Engine used to compile message patterns.
+     */
+    private final TemplateEngine engine;
+
+    /**
+     * Base name of the bundle, {@code null} if the handler was given a bundle directly
+     */
+    private final String bundleName;
+
+    /**
+     * Locale the bundle was requested for
+     */
+    private final Locale locale;
+
+    /**
+     * Class loader the bundle was loaded with
+     */
+    private final ClassLoader classLoader;
+
+    /**
+     * Control the bundle was loaded with, {@code null} for the default one
+     */
+    private final ResourceBundle.Control control;
+
+    /**
+     * Base name and locale of the bundle as given to this handler, for reports
+     */
+    private final String description;
 
     /**
      * Ctor takes a given bundle to use directly.
@@ -59,7 +121,31 @@ public class MessageHandler implements Messages, InvocationHandler {
      * @param bundle bundle to use internally.
      */
     public MessageHandler(ResourceBundle bundle) {
-        this.bundle = bundle;
+        this(bundle, null);
+    }
+
+    /**
+     * Ctor takes a given bundle to use directly and resolves the methods of the given
+     * interface up front.
+     *
+     * @param bundle bundle to use internally.
+     * @param type   Messages interface this handler implements, may be {@code null}
+     */
+    public MessageHandler(ResourceBundle bundle, Class<? extends Messages> type) {
+        this(bundle, type, TemplateEngine.MESSAGE_FORMAT);
+    }
+
+    /**
+     * Ctor takes a given bundle to use directly, compiles its messages with the given engine and
+     * resolves the methods of the given interface up front. The bundle's parent chain is flattened
+     * into a {@link ResolvedBundle} so each message lookup is a single probe.
+     *
+     * @param bundle bundle to use internally.
+     * @param type   Messages interface this handler implements, may be {@code null}
+     * @param engine Engine used to compile message patterns
+     */
+    public MessageHandler(ResourceBundle bundle, Class<? extends Messages> type, TemplateEngine engine) {
+        this(bundle, type, engine, null, null, null, null);
     }
 
     /**
@@ -71,7 +157,440 @@ public class MessageHandler implements Messages, InvocationHandler {
      * @see java.util.PropertyResourceBundle
      */
     public MessageHandler(String bundleName, Locale locale, ClassLoader classLoader) {
-        this.bundle = ResourceBundle.getBundle(bundleName, locale, classLoader);
+        this(bundleName, locale, classLoader, null);
+    }
+
+    /**
+     * Creates a new {@code MessageHandler} and resolves the methods of the given interface up front.
+     *
+     * @param bundleName  Base name of the bundle to use
+     * @param locale      Locale of bundle to use for this handler
+     * @param classLoader Class loader to use to load bundle with
+     * @param type        Messages interface this handler implements, may be {@code null}
+     * @see java.util.PropertyResourceBundle
+     */
+    public MessageHandler(String bundleName, Locale locale, ClassLoader classLoader, Class<? extends Messages> type) {
+        this(bundleName, locale, classLoader, type, TemplateEngine.MESSAGE_FORMAT);
+    }
+
+    /**
+     * Creates a new {@code MessageHandler} that compiles messages with the given engine and resolves the
+     * methods of the given interface up front.
+     *
+     * @param bundleName  Base name of the bundle to use
+     * @param locale      Locale of bundle to use for this handler
+     * @param classLoader Class loader to use to load bundle with
+     * @param type        Messages interface this handler implements, may be {@code null}
+     * @param engine      Engine used to compile message patterns
+     * @see java.util.PropertyResourceBundle
+     */
+    public MessageHandler(String bundleName, Locale locale, ClassLoader classLoader, Class<? extends Messages> type,
+                          TemplateEngine engine) {
+        this(bundleName, locale, classLoader, type, engine, null);
+    }
+
+    /**
+     * Creates a new {@code MessageHandler} whose bundle is loaded through the given control, such as
+     * {@link org.swiftshire.i18n.bundle.BinaryBundle#CONTROL} for binary bundles,
+     * {@link org.swiftshire.i18n.bundle.XmlBundle#CONTROL} for XML bundles or
+     * {@link org.swiftshire.i18n.bundle.XliffBundle#CONTROL} for XLIFF bundles.
+     *
+     * @param bundleName  Base name of the bundle to use
+     * @param locale      Locale of bundle to use for this handler
+     * @param classLoader Class loader to use to load bundle with
+     * @param type        Messages interface this handler implements, may be {@code null}
+     * @param engine      Engine used to compile message patterns
+     * @param control     Control used to load the bundle, {@code null} for the default property bundles
+     */
+    public MessageHandler(String bundleName, Locale locale, ClassLoader classLoader, Class<? extends Messages> type,
+                          TemplateEngine engine, ResourceBundle.Control control) {
+        this(load(bundleName, locale, classLoader, control), type, engine, bundleName, locale, classLoader, control);
+    }
+
+    /**
+     * Creates a new {@code MessageHandler}, remembering where the bundle came from if it can be reloaded.
+     *
+     * @param bundle      Bundle to use
+     * @param type        Messages interface this handler implements, may be {@code null}
+     * @param engine      Engine used to compile message patterns
+     * @param bundleName  Base name of the bundle, {@code null} if it cannot be reloaded
+     * @param locale      Locale the bundle was requested for
+     * @param classLoader Class loader the bundle was loaded with
+     * @param control     Control the bundle was loaded with, may be {@code null}
+     */
+    private MessageHandler(ResourceBundle bundle, Class<? extends Messages> type, TemplateEngine engine,
+                           String bundleName, Locale locale, ClassLoader classLoader, ResourceBundle.Control control) {
+        this.type = type;
+        this.engine = engine;
+        this.bundleName = bundleName;
+        this.locale = locale;
+        this.classLoader = classLoader;
+        this.control = control;
+        this.description = describe(bundle, type, bundleName, locale);
+        this.snapshot = build(bundle);
+    }
+
+    /**
+     * Names a bundle for reports. The bundle is named before it is flattened into a {@link ResolvedBundle},
+     * whose class says nothing about where the messages came from.
+     *
+     * @param bundle     Bundle given to the handler, may be {@code null}
+     * @param type       Messages interface of the handler, may be {@code null}
+     * @param bundleName Base name the bundle was loaded by, may be {@code null}
+     * @param locale     Locale the bundle was requested for, may be {@code null}
+     * @return Bundle name and locale
+     */
+    private static String describe(ResourceBundle bundle, Class<?> type, String bundleName, Locale locale) {
+        if (bundleName != null) {
+            return bundleName + "_" + locale;
+        }
+
+        if (bundle == null) {
+            return "none";
+        }
+
+        String name = baseBundleName(bundle);
+
+        if (name == null) {
+            name = type != null ? type.getName() : bundle.getClass().getName();
+        }
+
+        return name + "_" + bundle.getLocale();
+    }
+
+    /**
+     * Returns the base name a bundle was loaded by, where the runtime records it.
+     *
+     * @param bundle Bundle
+     * @return Base name, or {@code null} if unknown
+     */
+    private static String baseBundleName(ResourceBundle bundle) {
+        if (BASE_BUNDLE_NAME == null) {
+            return null;
+        }
+
+        try {
+            return (String) BASE_BUNDLE_NAME.invoke(bundle);
+        }
+        catch (ReflectiveOperationException | RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads a bundle through the given control, or the default one if {@code null}.
+     *
+     * @param bundleName  Base name of the bundle
+     * @param locale      Locale of the bundle
+     * @param classLoader Class loader to load the bundle with
+     * @param control     Control used to load the bundle, may be {@code null}
+     * @return Bundle
+     * @throws MissingResourceException if there is no such bundle
+     */
+    private static ResourceBundle load(String bundleName, Locale locale, ClassLoader classLoader,
+                                       ResourceBundle.Control control) {
+        return control != null ? ResourceBundle.getBundle(bundleName, locale, classLoader, control)
+                               : ResourceBundle.getBundle(bundleName, locale, classLoader);
+    }
+
+    /**
+     * Builds the state of this handler for the given bundle.
+     *
+     * @param bundle Bundle to use, may be {@code null}
+     * @return New snapshot
+     */
+    private Snapshot build(ResourceBundle bundle) {
+        ResourceBundle resolved = ResolvedBundle.resolve(bundle);
+        TemplateCache templates = new TemplateCache(resolved, engine);
+
+        return new Snapshot(resolved, templates, buildDispatchTable(type, resolved, templates));
+    }
+
+    /**
+     * Loads the bundle of this handler again and publishes it, with its templates and dispatch table, in a
+     * single volatile write. The new bundle is read and every template compiled under the old one is
+     * compiled again before the swap, so callers rendering messages meanwhile neither block nor pay for
+     * the rebuild; they simply keep using the previous bundle until the swap. Handlers that were given
+     * a bundle directly, such as fabricated ones, cannot be reloaded. If the bundle can no longer be
+     * loaded the handler keeps its current one.
+     * <p/>
+     * This clears every bundle cached by {@link ResourceBundle} for the class loader of the handler. Callers
+     * reloading many handlers should clear that cache once and then {@link #refresh()} each handler.
+     *
+     * @return true if the bundle was reloaded
+     */
+    public boolean reload() {
+        if (bundleName == null) {
+            return false;
+        }
+
+        ResourceBundle.clearCache(classLoader);
+
+        return refresh();
+    }
+
+    /**
+     * Rebuilds this handler from its bundle as currently cached by {@link ResourceBundle}, loading it only
+     * if it is no longer cached, and publishes it like {@link #reload()} does. Handlers sharing bundles,
+     * such as parent bundles, therefore read each changed file only once after the cache has been cleared.
+     *
+     * @return true if the bundle was rebuilt
+     */
+    public boolean refresh() {
+        if (bundleName == null) {
+            return false;
+        }
+
+        Snapshot current = snapshot;
+        Snapshot next;
+
+        try {
+            next = build( load(bundleName, locale, classLoader, control) );
+        }
+        catch (MissingResourceException ex) {
+            log.warn("Failed to reload bundle " + bundleName + "_" + locale + "; keeping the current one. "
+                    + ex.getMessage());
+            return false;
+        }
+
+        next.templates.compileAll( current.templates.keys() );
+
+        snapshot = next;
+
+        return true;
+    }
+
+    /**
+     * Returns true if this handler loaded its bundle by name and can therefore {@link #reload()} it.
+     *
+     * @return True if reloadable
+     */
+    public boolean isReloadable() {
+        return bundleName != null;
+    }
+
+    /**
+     * Base name of the bundle of this handler.
+     *
+     * @return Bundle name, or {@code null} if the handler was given a bundle directly
+     */
+    public String getBundleName() {
+        return bundleName;
+    }
+
+    /**
+     * Locale the bundle of this handler was requested for, which may be more specific than the
+     * locale of the bundle actually found.
+     *
+     * @return Requested locale, or {@code null} if the handler was given a bundle directly
+     */
+    public Locale getRequestedLocale() {
+        return locale;
+    }
+
+    /**
+     * Class loader the bundle of this handler was loaded with.
+     *
+     * @return Class loader, or {@code null} if the handler was given a bundle directly
+     */
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * Resolves every method of the given interface into an immutable dispatch entry.
+     *
+     * @param type      Messages interface, may be {@code null}
+     * @param bundle    Bundle the templates are compiled from
+     * @param templates Templates of the bundle
+     * @return Dispatch table keyed by method
+     */
+    private Map<Method, DispatchEntry> buildDispatchTable(Class<? extends Messages> type, ResourceBundle bundle,
+                                                          TemplateCache templates) {
+        if (type == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<Method, DispatchEntry> table = new HashMap<>();
+
+        for (Method method : Object.class.getMethods()) {
+            resolve(method, table, bundle, templates);
+        }
+
+        for (Method method : type.getMethods()) {
+            resolve(method, table, bundle, templates);
+        }
+
+        return table;
+    }
+
+    /**
+     * Resolves a single method into a dispatch entry. Methods this handler does not
+     * know how to dispatch are left out and take the reflective path.
+     *
+     * @param method    Method to resolve
+     * @param table     Table to add the resulting entry to
+     * @param bundle    Bundle the templates are compiled from
+     * @param templates Templates of the bundle
+     */
+    private void resolve(Method method, Map<Method, DispatchEntry> table, ResourceBundle bundle,
+                         TemplateCache templates) {
+        final String name = method.getName();
+        final int arity = method.getParameterTypes().length;
+
+        DispatchEntry entry = null;
+
+        Message annotation = method.getAnnotation(Message.class);
+
+        if (annotation != null) {
+            final String key = annotation.key().isEmpty() ? name : annotation.key();
+
+            MessageTemplate template = memoize(key, getTemplate(key, bundle, templates), bundle, memoSize(type, method));
+
+            entry = new DispatchEntry(isSink(method) ? DispatchEntry.Kind.MESSAGE_TO : DispatchEntry.Kind.MESSAGE,
+                    key, template, arity);
+        }
+        else if (method.getDeclaringClass() == Object.class) {
+            if ("equals".equals(name)) {
+                entry = new DispatchEntry(DispatchEntry.Kind.EQUALS, null, null, arity);
+            }
+            else if ("hashCode".equals(name)) {
+                entry = new DispatchEntry(DispatchEntry.Kind.HASH_CODE, null, null, arity);
+            }
+            else if ("toString".equals(name)) {
+                entry = new DispatchEntry(DispatchEntry.Kind.TO_STRING, null, null, arity);
+            }
+        }
+        else if (method.getDeclaringClass() == Messages.class) {
+            if ("format".equals(name)) {
+                entry = new DispatchEntry(
+                        arity == 1 ? DispatchEntry.Kind.FORMAT : DispatchEntry.Kind.FORMAT_ARGS, null, null, arity);
+            }
+            else if ("formatTo".equals(name)) {
+                entry = new DispatchEntry(DispatchEntry.Kind.FORMAT_TO, null, null, arity);
+            }
+            else if ("getBundle".equals(name)) {
+                entry = new DispatchEntry(DispatchEntry.Kind.GET_BUNDLE, null, null, arity);
+            }
+            else if ("getLocale".equals(name)) {
+                entry = new DispatchEntry(DispatchEntry.Kind.GET_LOCALE, null, null, arity);
+            }
+        }
+
+        if (entry != null) {
+            table.put(method, entry);
+        }
+    }
+
+    /**
+     * Returns the compiled template for the given message key. Missing or malformed messages are
+     * not reported here; the returned template reports them on each use instead, exactly as if the
+     * message had been looked up by key at that point.
+     *
+     * @param key Bundle key identifying the message
+     * @return Template for the message, never {@code null}
+     */
+    public MessageTemplate getTemplate(String key) {
+        Snapshot current = snapshot;
+
+        return getTemplate(key, current.bundle, current.templates);
+    }
+
+    /**
+     * Returns the compiled template for the given message key, remembering the messages it renders if
+     * {@code memoize} is positive and the bundle has the message.
+     *
+     * @param key     Bundle key identifying the message
+     * @param memoize Maximum number of rendered messages to remember, 0 for none
+     * @return Template for the message, never {@code null}
+     * @see #memoSize(Class, Method)
+     */
+    MessageTemplate getTemplate(String key, int memoize) {
+        Snapshot current = snapshot;
+
+        return memoize(key, getTemplate(key, current.bundle, current.templates), current.bundle, memoize);
+    }
+
+    /**
+     * Wraps a template into a {@link MemoizedTemplate}. Stand-ins of missing messages are never wrapped, so
+     * that each use of one is still counted as a missing key.
+     *
+     * @param key      Bundle key identifying the message
+     * @param template Template of the message
+     * @param bundle   Bundle the template was compiled from, may be {@code null}
+     * @param memoize  Maximum number of rendered messages to remember, 0 for none
+     * @return Template to render the message with
+     */
+    private static MessageTemplate memoize(String key, MessageTemplate template, ResourceBundle bundle,
+                                           int memoize) {
+        return memoize > 0 && bundle != null && bundle.containsKey(key) ?
+                new MemoizedTemplate(template, memoize) : template;
+    }
+
+    /**
+     * Returns the number of rendered messages to remember for the given message method, as set on the
+     * method itself or else on the bundle annotation of its interface.
+     *
+     * @param type   Messages interface the method belongs to, may be {@code null}
+     * @param method Message method
+     * @return Maximum number of rendered messages to remember, 0 for none
+     */
+    static int memoSize(Class<?> type, Method method) {
+        Message message = method.getAnnotation(Message.class);
+
+        if (message != null && message.memoize() >= 0) {
+            return message.memoize();
+        }
+
+        org.swiftshire.i18n.annotation.ResourceBundle bundle = type != null ?
+                type.getAnnotation(org.swiftshire.i18n.annotation.ResourceBundle.class) : null;
+
+        return bundle != null ? Math.max(0, bundle.memoize()) : 0;
+    }
+
+    /**
+     * Returns the compiled template for the given message key from the given templates.
+     *
+     * @param key       Bundle key identifying the message
+     * @param bundle    Bundle the templates are compiled from, may be {@code null}
+     * @param templates Templates of the bundle
+     * @return Template for the message, never {@code null}
+     */
+    private MessageTemplate getTemplate(final String key, ResourceBundle bundle, TemplateCache templates) {
+        if (bundle != null) {
+            try {
+                MessageTemplate template = templates.find(key);
+
+                if (template != null) {
+                    return template;
+                }
+            }
+            catch (IllegalArgumentException ignore) {
+            }
+        }
+
+        return new MessageTemplate() {
+            public String format(Object... args) {
+                return formatArgs(key, args);
+            }
+
+            public void formatTo(StringBuilder out, Object... args) {
+                out.append( formatArgs(key, args) );
+            }
+
+            public String getPattern() {
+                return BOGUS_KEY_DECORATOR + key + BOGUS_KEY_DECORATOR;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache of compiled message templates used by this handler.
+     *
+     * @return Template cache
+     */
+    public TemplateCache getTemplateCache() {
+        return snapshot.templates;
     }
 
     /**
@@ -79,7 +598,7 @@ public class MessageHandler implements Messages, InvocationHandler {
      */
     @Override
     public ResourceBundle getBundle() {
-        return bundle;
+        return snapshot.bundle;
     }
 
     /**
@@ -87,7 +606,7 @@ public class MessageHandler implements Messages, InvocationHandler {
      */
     @Override
     public Locale getLocale() {
-        return bundle.getLocale();
+        return snapshot.bundle.getLocale();
     }
 
     /**
@@ -106,6 +625,65 @@ public class MessageHandler implements Messages, InvocationHandler {
         return formatArgs(key, args);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void formatTo(StringBuilder out, String key, Object... args) {
+        Snapshot current = snapshot;
+        MessageTemplate template = current.bundle != null ? current.templates.find(key) : null;
+
+        if (template != null) {
+            template.formatTo(out, args);
+        }
+        else {
+            out.append( missing(current, key) );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void formatTo(Appendable out, String key, Object... args) throws IOException {
+        if (out instanceof StringBuilder) {
+            formatTo((StringBuilder) out, key, args);
+        }
+        else {
+            out.append( formatArgs(key, args) );
+        }
+    }
+
+    /**
+     * Renders a template into the given target, directly if the target is a {@link StringBuilder}.
+     *
+     * @param template Template to render
+     * @param out      Target to append the message to
+     * @param args     Arguments to insert into the message, may be {@code null}
+     * @throws IOException if the target fails to append
+     */
+    public static void render(MessageTemplate template, Appendable out, Object[] args) throws IOException {
+        if (out instanceof StringBuilder) {
+            template.formatTo((StringBuilder) out, args);
+        }
+        else {
+            out.append( template.format(args) );
+        }
+    }
+
+    /**
+     * Returns true if the given message method renders into the {@link Appendable} passed as its first
+     * parameter instead of returning a string.
+     *
+     * @param method Message method
+     * @return True for sink methods
+     */
+    public static boolean isSink(Method method) {
+        Class<?>[] params = method.getParameterTypes();
+
+        return method.getReturnType() == void.class && params.length > 0 && Appendable.class.isAssignableFrom(params[0]);
+    }
+
     /**
      * Formats the message with the given arguments.
      *
@@ -115,18 +693,76 @@ public class MessageHandler implements Messages, InvocationHandler {
      * @see java.text.MessageFormat
      */
     private String formatArgs(String key, Object... args) {
+        Snapshot current = snapshot;
+        MessageTemplate template = current.bundle != null ? current.templates.find(key) : null;
 
-        if (bundle != null) {
+        return template != null ? template.format(args) : missing(current, key);
+    }
 
-            try {
-                return MessageFormat.format(bundle.getString(key), args);
-            }
-            catch (MissingResourceException ex) {
-                log.error(ex.getMessage());
+    /**
+     * Returns the decorated stand-in for a key the bundle has no message for. The stand-in of each key is
+     * built once per bundle, and only the first miss of a key is reported, through a rate limited log.
+     *
+     * @param current Bundle state the key was looked up in
+     * @param key     Missing key
+     * @return Decorated key
+     */
+    private String missing(Snapshot current, String key) {
+        missingKeyCount.incrementAndGet();
+
+        String decorated = current.missing.get(key);
+
+        if (decorated == null) {
+            decorated = BOGUS_KEY_DECORATOR + key + BOGUS_KEY_DECORATOR;
+
+            if (current.missing.size() >= MAX_MISSING_KEYS || current.missing.putIfAbsent(key, decorated) == null) {
+                MissingKeyLog.report(description, key);
             }
         }
 
-        return BOGUS_KEY_DECORATOR + key + BOGUS_KEY_DECORATOR;
+        return decorated;
+    }
+
+    /**
+     * Looks up {@code ResourceBundle.getBaseBundleName()}.
+     *
+     * @return Method, or {@code null} if the runtime lacks it
+     */
+    private static Method baseBundleNameMethod() {
+        try {
+            return ResourceBundle.class.getMethod("getBaseBundleName");
+        }
+        catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Names the bundle of this handler for reports, by the base name it was loaded by or, for bundles
+     * given directly whose base name is unknown, by the messages interface of the handler.
+     *
+     * @return Bundle name and locale
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Number of lookups of keys the bundle has no message for since this handler was created.
+     *
+     * @return Missing key count
+     */
+    public long getMissingKeyCount() {
+        return missingKeyCount.get();
+    }
+
+    /**
+     * Keys the current bundle was asked for but has no message for, as far as they are remembered.
+     *
+     * @return Missing keys
+     */
+    public Set<String> getMissingKeys() {
+        return Collections.unmodifiableSet( snapshot.missing.keySet() );
     }
 
     /**
@@ -141,16 +777,95 @@ public class MessageHandler implements Messages, InvocationHandler {
      */
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 
+        DispatchEntry entry = snapshot.dispatch.get(method);
+
+        if (entry == null) {
+            return invokeReflectively(method, args);
+        }
+
+        switch (entry.getKind()) {
+            case MESSAGE:
+                return entry.getTemplate().format(args);
+
+            case MESSAGE_TO:
+                render(entry.getTemplate(), (Appendable) args[0], Arrays.copyOfRange(args, 1, args.length));
+                return null;
+
+            case FORMAT:
+                return format( (String) args[0] );
+
+            case FORMAT_ARGS:
+                return format( (String) args[0], (Object[]) args[1] );
+
+            case FORMAT_TO:
+                formatTo( (Appendable) args[0], (String) args[1], (Object[]) args[2] );
+                return null;
+
+            case GET_BUNDLE:
+                return getBundle();
+
+            case GET_LOCALE:
+                return getLocale();
+
+            case EQUALS:
+                return equals(args[0]);
+
+            case HASH_CODE:
+                return hashCode();
+
+            case TO_STRING:
+                return toString();
+
+            default:
+                return invokeReflectively(method, args);
+        }
+    }
+
+    /**
+     * Dispatches a method call that has no pre-resolved dispatch entry.
+     *
+     * @param method Method (aka 'message') caller wants localized
+     * @param args   Optional arguments to include in the localized message.
+     * @return Localized message string
+     * @throws Throwable
+     */
+    private Object invokeReflectively(Method method, Object[] args) throws Throwable {
+
         Message annotation = method.getAnnotation(Message.class);
 
         if (annotation != null) {
-            final String key = annotation.key();
+            final String key = annotation.key().isEmpty() ? method.getName() : annotation.key();
+
+            if (isSink(method)) {
+                formatTo( (Appendable) args[0], key, Arrays.copyOfRange(args, 1, args.length) );
+                return null;
+            }
 
-            return format(key.isEmpty() ? method.getName() : key, args);
+            return format(key, args);
         }
         else {
             // This is a Messages method call so dispatch to internal impl
             return method.invoke(this, args);
         }
     }
+
+    /**
+     * Everything a handler derives from its bundle, published as one unit.
+     */
+    private static final class Snapshot {
+        final ResourceBundle bundle;
+        final TemplateCache templates;
+        final Map<Method, DispatchEntry> dispatch;
+
+        /**
+         * Decorated stand-ins of the keys the bundle has no message for
+         */
+        final ConcurrentMap<String, String> missing = new ConcurrentHashMap<>();
+
+        Snapshot(ResourceBundle bundle, TemplateCache templates, Map<Method, DispatchEntry> dispatch) {
+            this.bundle = bundle;
+            this.templates = templates;
+            this.dispatch = dispatch;
+        }
+    }
 }
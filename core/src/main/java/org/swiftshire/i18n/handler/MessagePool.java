@@ -0,0 +1,356 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.handler;
+
+import org.swiftshire.i18n.format.MessageTemplate;
+import org.swiftshire.i18n.format.TemplateEngine;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of the strings and compiled templates shared by all bundles loaded through message handlers. Locales
+ * often have identical values, such as brand names, bare {@code {0}} placeholders or untranslated
+ * fallbacks, and the same messages are typically loaded for several interfaces; the pool keeps a single
+ * copy of each. Entries are held weakly and disappear once no bundle or template cache refers to them.
+ * <p>
+ * Interning happens only while bundles are loaded and templates compiled, never while messages are
+ * rendered. The pool is a concurrent map of weak references purged through a reference queue, so bundles
+ * loaded in parallel, as by {@link org.swiftshire.i18n.MessageFactory#preload preloading}, do not contend
+ * on a lock.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public final class MessagePool {
+    /**
+     * Estimated size of a {@code String} and its character array, excluding the characters
+     */
+    private static final int STRING_OVERHEAD = 40;
+
+    /**
+     * Estimated size of a compiled template, excluding its pattern
+     */
+    private static final int TEMPLATE_OVERHEAD = 64;
+
+    /**
+     * Pooled strings, each keyed by its own entry
+     */
+    private static final ConcurrentMap<PooledString, PooledString> strings = new ConcurrentHashMap<>();
+
+    /**
+     * Pooled templates keyed by engine, format locale and pattern
+     */
+    private static final ConcurrentMap<TemplateKey, PooledTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Entries whose string or template has been reclaimed
+     */
+    private static final ReferenceQueue<Object> reclaimed = new ReferenceQueue<>();
+
+    /**
+     * Number of strings and templates that were replaced by a pooled copy
+     */
+    private static final AtomicLong hits = new AtomicLong();
+
+    private MessagePool() {}
+
+    /**
+     * Returns the pooled copy of the given string, adding it to the pool if there is none.
+     *
+     * @param text String to intern, may be {@code null}
+     * @return Pooled string equal to {@code text}
+     */
+    public static String intern(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        purge();
+
+        PooledString entry = new PooledString(text, reclaimed);
+
+        while (true) {
+            PooledString existing = strings.putIfAbsent(entry, entry);
+
+            if (existing == null) {
+                return text;
+            }
+
+            String pooled = existing.get();
+
+            if (pooled != null) {
+                if (pooled != text) {
+                    existing.shared();
+                }
+
+                return pooled;
+            }
+
+            // Reclaimed but not purged yet
+            strings.remove(existing, existing);
+        }
+    }
+
+    /**
+     * Returns the pooled template of the given pattern, compiling and pooling it if there is none. Templates
+     * are shared only between callers compiling under the same default format locale.
+     *
+     * @param engine  Engine used to compile the pattern
+     * @param pattern Message pattern
+     * @return Compiled template
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static MessageTemplate template(TemplateEngine engine, String pattern) {
+        TemplateKey key = new TemplateKey(engine, Locale.getDefault(Locale.Category.FORMAT), pattern);
+        PooledTemplate pooled = templates.get(key);
+        MessageTemplate template = pooled != null ? pooled.get() : null;
+
+        if (template != null) {
+            pooled.shared();
+            return template;
+        }
+
+        return share(engine, engine.compile(pattern));
+    }
+
+    /**
+     * Returns the pooled template with the same pattern as the given one, pooling the given template
+     * if there is none.
+     *
+     * @param engine   Engine the template was compiled with
+     * @param template Compiled template
+     * @return Pooled template equivalent to {@code template}
+     */
+    public static MessageTemplate share(TemplateEngine engine, MessageTemplate template) {
+        purge();
+
+        TemplateKey key = new TemplateKey(engine, Locale.getDefault(Locale.Category.FORMAT),
+                intern( template.getPattern() ));
+        PooledTemplate entry = new PooledTemplate(key, template, reclaimed);
+
+        while (true) {
+            PooledTemplate existing = templates.putIfAbsent(key, entry);
+
+            if (existing == null) {
+                return template;
+            }
+
+            MessageTemplate pooled = existing.get();
+
+            if (pooled != null) {
+                if (pooled != template) {
+                    existing.shared();
+                }
+
+                return pooled;
+            }
+
+            templates.remove(key, existing);
+        }
+    }
+
+    /**
+     * Number of strings and templates replaced by a pooled copy so far.
+     *
+     * @return Hit count
+     */
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Estimated number of bytes currently saved by the pooled strings and templates, counting the copies
+     * each replaced. Savings are forgotten along with their entry once nothing refers to it anymore.
+     *
+     * @return Bytes saved
+     */
+    public static long getBytesSaved() {
+        purge();
+
+        long saved = 0;
+
+        for (PooledString entry : strings.keySet()) {
+            saved += (long) entry.shares * entry.size;
+        }
+
+        for (PooledTemplate entry : templates.values()) {
+            saved += (long) entry.shares * entry.size;
+        }
+
+        return saved;
+    }
+
+    /**
+     * Number of distinct strings currently pooled.
+     *
+     * @return String count
+     */
+    public static int getStringCount() {
+        purge();
+        return strings.size();
+    }
+
+    /**
+     * Number of distinct templates currently pooled.
+     *
+     * @return Template count
+     */
+    public static int getTemplateCount() {
+        purge();
+        return templates.size();
+    }
+
+    /**
+     * Empties the pool. Strings and templates already handed out remain valid.
+     */
+    public static void clear() {
+        strings.clear();
+        templates.clear();
+    }
+
+    /**
+     * Removes the entries whose string or template has been reclaimed.
+     */
+    private static void purge() {
+        Reference<?> ref;
+
+        while ((ref = reclaimed.poll()) != null) {
+            if (ref instanceof PooledString) {
+                strings.remove(ref, ref);
+            }
+            else {
+                PooledTemplate entry = (PooledTemplate) ref;
+                templates.remove(entry.key, entry);
+            }
+        }
+    }
+
+    /**
+     * Weakly held pooled string. Entries are equal while their strings are; a reclaimed entry is only
+     * equal to itself, so that it can still be removed.
+     */
+    private static final class PooledString extends WeakReference<String> {
+        private static final AtomicIntegerFieldUpdater<PooledString> SHARES =
+                AtomicIntegerFieldUpdater.newUpdater(PooledString.class, "shares");
+
+        final int hash;
+        final int size;
+
+        /**
+         * Number of copies replaced by this string
+         */
+        volatile int shares;
+
+        PooledString(String text, ReferenceQueue<Object> queue) {
+            super(text, queue);
+            this.hash = text.hashCode();
+            this.size = STRING_OVERHEAD + 2 * text.length();
+        }
+
+        void shared() {
+            SHARES.incrementAndGet(this);
+            hits.incrementAndGet();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+
+            if (!(obj instanceof PooledString) || ((PooledString) obj).hash != hash) {
+                return false;
+            }
+
+            String text = get();
+
+            return text != null && text.equals( ((PooledString) obj).get() );
+        }
+    }
+
+    /**
+     * Identity of a pooled template: the engine, the locale it formats numbers and dates for, and its
+     * pattern.
+     */
+    private static final class TemplateKey {
+        final TemplateEngine engine;
+        final Locale locale;
+        final String pattern;
+
+        TemplateKey(TemplateEngine engine, Locale locale, String pattern) {
+            this.engine = engine;
+            this.locale = locale;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public int hashCode() {
+            return (engine.hashCode() * 31 + locale.hashCode()) * 31 + pattern.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TemplateKey)) {
+                return false;
+            }
+
+            TemplateKey other = (TemplateKey) obj;
+
+            return engine == other.engine && locale.equals(other.locale) && pattern.equals(other.pattern);
+        }
+    }
+
+    /**
+     * Weakly held pooled template.
+     */
+    private static final class PooledTemplate extends WeakReference<MessageTemplate> {
+        private static final AtomicIntegerFieldUpdater<PooledTemplate> SHARES =
+                AtomicIntegerFieldUpdater.newUpdater(PooledTemplate.class, "shares");
+
+        final TemplateKey key;
+        final int size;
+
+        /**
+         * Number of copies replaced by this template
+         */
+        volatile int shares;
+
+        PooledTemplate(TemplateKey key, MessageTemplate template, ReferenceQueue<Object> queue) {
+            super(template, queue);
+            this.key = key;
+            this.size = TEMPLATE_OVERHEAD + 2 * key.pattern.length();
+        }
+
+        void shared() {
+            SHARES.incrementAndGet(this);
+            hits.incrementAndGet();
+        }
+    }
+}
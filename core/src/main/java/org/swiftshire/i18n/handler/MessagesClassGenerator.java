@@ -0,0 +1,562 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.handler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.swiftshire.i18n.Messages;
+import org.swiftshire.i18n.annotation.Message;
+import org.swiftshire.i18n.format.MessageTemplate;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates concrete {@link Messages} implementations at run time as an alternative to
+ * {@code java.lang.reflect.Proxy}, and locates the ones generated at build time by
+ * {@link org.swiftshire.i18n.processor.MessagesProcessor}. Both are named after the interface with
+ * {@link #CLASS_SUFFIX} appended; a build time implementation always takes precedence. One class is
+ * generated per interface and instantiated once per bundle locale. Each {@link Message} method of the
+ * generated class loads its template by constant index and calls it directly, which gives the JIT a
+ * monomorphic call site it can inline instead of the proxy's {@code InvocationHandler} indirection.
+ * <p/>
+ * Interfaces that cannot be implemented this way (non-public interfaces or methods that are not
+ * {@link Message} annotated {@code String} methods) are not generated; callers are expected to fall
+ * back to a proxy in that case.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public final class MessagesClassGenerator {
+    /**
+     * Logging handle
+     */
+    private static final Logger log = LoggerFactory.getLogger(MessagesClassGenerator.class);
+
+    /**
+     * Suffix appended to the interface name to form the name of the generated class.
+     */
+    public static final String CLASS_SUFFIX = "$$Ji18n";
+
+    private static final String BASE = internalName(GeneratedMessages.class);
+    private static final String HANDLER = internalName(MessageHandler.class);
+    private static final String TEMPLATE = internalName(MessageTemplate.class);
+    private static final String OBJECT = "java/lang/Object";
+
+    /**
+     * Parameter shapes of the {@code GeneratedMessages.formatUnboxed} overloads.
+     *
+     * @see #unboxedShape(Class[])
+     */
+    public static final Set<String> UNBOXED_SHAPES =
+            Collections.unmodifiableSet( new HashSet<>( Arrays.asList("J", "D", "LJ", "LD", "JL", "JJ") ) );
+
+    /**
+     * Constructors of implementations compiled at build time, or {@code null} for interfaces without one.
+     */
+    private static final ClassValue<Constructor<?>> compiled = new ClassValue<Constructor<?>>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            return findCompiled(type);
+        }
+    };
+
+    /**
+     * Generated constructors, or {@code null} for interfaces that cannot be generated.
+     */
+    private static final ClassValue<Constructor<?>> constructors = new ClassValue<Constructor<?>>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            return generate(type);
+        }
+    };
+
+    private MessagesClassGenerator() {}
+
+    /**
+     * Returns true if a generated implementation of the given interface is available.
+     *
+     * @param type     Messages interface
+     * @param generate Whether to generate an implementation at run time if none was compiled
+     * @return true if {@link #newInstance(Class, MessageHandler, boolean)} will provide an implementation
+     */
+    public static boolean hasImplementation(Class<?> type, boolean generate) {
+        return implementation(type, generate) != null;
+    }
+
+    /**
+     * Creates a generated implementation of the given interface bound to the given handler.
+     *
+     * @param type    Messages interface to implement
+     * @param handler Handler that owns the bundle
+     * @return New implementation or {@code null} if the interface cannot be generated
+     */
+    public static <T extends Messages> T newInstance(Class<T> type, MessageHandler handler) {
+        return newInstance(type, handler, true);
+    }
+
+    /**
+     * Creates a generated implementation of the given interface bound to the given handler, preferring
+     * one compiled at build time.
+     *
+     * @param type     Messages interface to implement
+     * @param handler  Handler that owns the bundle
+     * @param generate Whether to generate an implementation at run time if none was compiled
+     * @return New implementation or {@code null} if none is available
+     */
+    public static <T extends Messages> T newInstance(Class<T> type, MessageHandler handler, boolean generate) {
+        Constructor<?> constructor = implementation(type, generate);
+
+        if (constructor == null) {
+            return null;
+        }
+
+        try {
+            return type.cast( constructor.newInstance(handler) );
+        }
+        catch (ReflectiveOperationException ex) {
+            log.warn("Failed to instantiate generated messages for " + type.getName() + "; using proxy.");
+
+            if (log.isDebugEnabled()) {
+                log.debug("Generated messages instantiation failure", ex);
+            }
+
+            return null;
+        }
+    }
+
+    private static Constructor<?> implementation(Class<?> type, boolean generate) {
+        Constructor<?> constructor = compiled.get(type);
+
+        if (constructor == null && generate) {
+            constructor = constructors.get(type);
+        }
+
+        return constructor;
+    }
+
+    /**
+     * Looks up the implementation of the given interface generated at build time.
+     *
+     * @param type Messages interface
+     * @return Constructor of the compiled class or {@code null}
+     */
+    private static Constructor<?> findCompiled(Class<?> type) {
+        if (!type.isInterface() || !Messages.class.isAssignableFrom(type)) {
+            return null;
+        }
+
+        try {
+            Class<?> implementation = Class.forName(type.getName() + CLASS_SUFFIX, false, type.getClassLoader());
+
+            if (GeneratedMessages.class.isAssignableFrom(implementation) && type.isAssignableFrom(implementation)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Using compiled messages implementation " + implementation.getName());
+                }
+
+                return implementation.getConstructor(MessageHandler.class);
+            }
+        }
+        catch (ClassNotFoundException | NoSuchMethodException | LinkageError ignore) {
+        }
+
+        return null;
+    }
+
+    /**
+     * Generates and defines the implementation class of the given interface.
+     *
+     * @param type Messages interface
+     * @return Constructor of the generated class or {@code null}
+     */
+    private static Constructor<?> generate(Class<?> type) {
+        if (!type.isInterface() || !Messages.class.isAssignableFrom(type) ||
+                !Modifier.isPublic( type.getModifiers() )) {
+            return null;
+        }
+
+        Map<String, Method> methods = new LinkedHashMap<>();
+
+        for (Method method : type.getMethods()) {
+            if (!Modifier.isAbstract( method.getModifiers() ) || isMessagesMethod(method)) {
+                continue;
+            }
+
+            if (!method.isAnnotationPresent(Message.class) ||
+                    (method.getReturnType() != String.class && !MessageHandler.isSink(method))) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Cannot generate " + type.getName() + "." + method.getName() + "; using proxy.");
+                }
+
+                return null;
+            }
+
+            methods.put(method.getName() + descriptor(method), method);
+        }
+
+        final String className = type.getName() + CLASS_SUFFIX;
+
+        try {
+            byte[] bytes = assemble(internalName(type), className.replace('.', '/'),
+                    new ArrayList<>( methods.values() ));
+
+            ClassLoader parent = type.getClassLoader() != null ?
+                    type.getClassLoader() : MessagesClassGenerator.class.getClassLoader();
+
+            Class<?> generated = new GeneratedClassLoader(parent).define(className, bytes);
+
+            return generated.getConstructor(MessageHandler.class);
+        }
+        catch (RuntimeException | LinkageError | NoSuchMethodException ex) {
+            log.warn("Failed to generate messages implementation for " + type.getName() + "; using proxy.");
+
+            if (log.isDebugEnabled()) {
+                log.debug("Messages class generation failure", ex);
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Writes the class file of the implementation.
+     *
+     * @param interfaceName Internal name of the implemented interface
+     * @param className     Internal name of the generated class
+     * @param methods       Message methods to implement, in index order
+     * @return Class file bytes
+     */
+    private static byte[] assemble(String interfaceName, String className, List<Method> methods) {
+        ClassFileWriter writer = new ClassFileWriter();
+
+        // public <init>(MessageHandler handler) { super(handler, new String[] { keys... }); }
+        ClassFileWriter.Code init = writer.newCode()
+                .op(ClassFileWriter.ALOAD_0)
+                .op(ClassFileWriter.ALOAD_1)
+                .pushInt( methods.size() )
+                .op2(ClassFileWriter.ANEWARRAY, writer.classRef("java/lang/String"));
+
+        for (int i = 0; i < methods.size(); i++) {
+            Message annotation = methods.get(i).getAnnotation(Message.class);
+            String key = annotation.key().isEmpty() ? methods.get(i).getName() : annotation.key();
+
+            init.op(ClassFileWriter.DUP)
+                .pushInt(i)
+                .pushString(key)
+                .op(ClassFileWriter.AASTORE);
+        }
+
+        init.op2(ClassFileWriter.INVOKESPECIAL,
+                    writer.methodRef(BASE, "<init>", "(L" + HANDLER + ";[Ljava/lang/String;)V"))
+            .op(ClassFileWriter.RETURN)
+            .maxs(6, 2);
+
+        writer.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", "(L" + HANDLER + ";)V", init);
+
+        // public String message(args...) { return template(i).format(new Object[] { args... }); }
+        // public void message(out, args...) { render(template(i), out, new Object[] { args... }); }
+        for (int i = 0; i < methods.size(); i++) {
+            Method method = methods.get(i);
+            Class<?>[] params = method.getParameterTypes();
+
+            final boolean sink = MessageHandler.isSink(method);
+            final int first = sink ? 1 : 0;
+            final String shape = sink ? null : unboxedShape(params);
+
+            if (shape != null) {
+                writer.addMethod(ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_FINAL,
+                        method.getName(), descriptor(method), assembleUnboxed(writer, i, params, shape));
+                continue;
+            }
+
+            ClassFileWriter.Code code = writer.newCode()
+                    .op(ClassFileWriter.ALOAD_0)
+                    .pushInt(i)
+                    .op2(ClassFileWriter.INVOKEVIRTUAL,
+                            writer.methodRef(BASE, "template", "(I)L" + TEMPLATE + ";"));
+
+            int slot = 1;
+            boolean wide = false;
+
+            if (sink) {
+                code.op(ClassFileWriter.ALOAD_1);
+                slot++;
+            }
+
+            if (params.length == first) {
+                code.op(ClassFileWriter.ACONST_NULL);
+            }
+            else {
+                code.pushInt(params.length - first)
+                    .op2(ClassFileWriter.ANEWARRAY, writer.classRef(OBJECT));
+
+                for (int p = first; p < params.length; p++) {
+                    code.op(ClassFileWriter.DUP).pushInt(p - first);
+
+                    slot += loadBoxed(writer, code, params[p], slot);
+                    wide |= params[p] == long.class || params[p] == double.class;
+
+                    code.op(ClassFileWriter.AASTORE);
+                }
+            }
+
+            if (sink) {
+                String target = params[0] == StringBuilder.class ? "java/lang/StringBuilder" : "java/lang/Appendable";
+
+                code.op2(ClassFileWriter.INVOKESTATIC, writer.methodRef(BASE, "render",
+                            "(L" + TEMPLATE + ";L" + target + ";[Ljava/lang/Object;)V"))
+                    .op(ClassFileWriter.RETURN);
+            }
+            else {
+                code.invokeInterface(TEMPLATE, "format", "([Ljava/lang/Object;)Ljava/lang/String;", 1)
+                    .op(ClassFileWriter.ARETURN);
+            }
+
+            code.maxs((params.length == first ? 2 : (wide ? 6 : 5)) + first, slot);
+
+            writer.addMethod(ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_FINAL,
+                    method.getName(), descriptor(method), code);
+        }
+
+        return writer.toByteArray(
+                ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER,
+                className, BASE, interfaceName);
+    }
+
+    /**
+     * Writes a method that passes its arguments to the matching {@code GeneratedMessages.formatUnboxed} overload:
+     * {@code return formatUnboxed(template(i), (long) a0, a1);}
+     */
+    private static ClassFileWriter.Code assembleUnboxed(ClassFileWriter writer, int index, Class<?>[] params,
+                                                        String shape) {
+        ClassFileWriter.Code code = writer.newCode()
+                .op(ClassFileWriter.ALOAD_0)
+                .pushInt(index)
+                .op2(ClassFileWriter.INVOKEVIRTUAL,
+                        writer.methodRef(BASE, "template", "(I)L" + TEMPLATE + ";"));
+
+        StringBuilder descriptor = new StringBuilder("(L").append(TEMPLATE).append(';');
+        int slot = 1;
+
+        for (int p = 0; p < params.length; p++) {
+            Class<?> type = params[p];
+
+            switch (shape.charAt(p)) {
+                case 'J':
+                    if (type == long.class) {
+                        code.load(ClassFileWriter.LLOAD, slot);
+                        slot += 2;
+                    }
+                    else {
+                        code.load(ClassFileWriter.ILOAD, slot++).op(ClassFileWriter.I2L);
+                    }
+                    descriptor.append('J');
+                    break;
+
+                case 'D':
+                    if (type == double.class) {
+                        code.load(ClassFileWriter.DLOAD, slot);
+                        slot += 2;
+                    }
+                    else {
+                        code.load(ClassFileWriter.FLOAD, slot++).op(ClassFileWriter.F2D);
+                    }
+                    descriptor.append('D');
+                    break;
+
+                default:
+                    code.load(ClassFileWriter.ALOAD, slot++);
+                    descriptor.append("Ljava/lang/Object;");
+                    break;
+            }
+        }
+
+        descriptor.append(")Ljava/lang/String;");
+
+        return code.op2(ClassFileWriter.INVOKESTATIC, writer.methodRef(BASE, "formatUnboxed", descriptor.toString()))
+                .op(ClassFileWriter.ARETURN)
+                .maxs(5, slot);
+    }
+
+    /**
+     * Returns the shape of a parameter list that {@code GeneratedMessages.formatUnboxed} accepts, one character
+     * per parameter: {@code J} for integral primitives, {@code D} for floating point primitives and {@code L}
+     * for references.
+     *
+     * @param params Parameter types of a message method
+     * @return Shape or {@code null} if the arguments must be boxed into an array
+     */
+    static String unboxedShape(Class<?>[] params) {
+        StringBuilder shape = new StringBuilder(params.length);
+
+        for (Class<?> type : params) {
+            if (!type.isPrimitive()) {
+                shape.append('L');
+            }
+            else if (type == long.class || type == int.class || type == short.class || type == byte.class) {
+                shape.append('J');
+            }
+            else if (type == double.class || type == float.class) {
+                shape.append('D');
+            }
+            else {
+                return null;
+            }
+        }
+
+        return UNBOXED_SHAPES.contains( shape.toString() ) ? shape.toString() : null;
+    }
+
+    /**
+     * Loads a parameter onto the operand stack, boxing primitives.
+     *
+     * @return Number of local variable slots the parameter occupies
+     */
+    private static int loadBoxed(ClassFileWriter writer, ClassFileWriter.Code code, Class<?> type, int slot) {
+        if (!type.isPrimitive()) {
+            code.load(ClassFileWriter.ALOAD, slot);
+            return 1;
+        }
+
+        final String box;
+        int size = 1;
+
+        if (type == long.class) {
+            code.load(ClassFileWriter.LLOAD, slot);
+            box = "java/lang/Long";
+            size = 2;
+        }
+        else if (type == double.class) {
+            code.load(ClassFileWriter.DLOAD, slot);
+            box = "java/lang/Double";
+            size = 2;
+        }
+        else if (type == float.class) {
+            code.load(ClassFileWriter.FLOAD, slot);
+            box = "java/lang/Float";
+        }
+        else {
+            code.load(ClassFileWriter.ILOAD, slot);
+
+            if (type == int.class) {
+                box = "java/lang/Integer";
+            }
+            else if (type == boolean.class) {
+                box = "java/lang/Boolean";
+            }
+            else if (type == char.class) {
+                box = "java/lang/Character";
+            }
+            else if (type == short.class) {
+                box = "java/lang/Short";
+            }
+            else {
+                box = "java/lang/Byte";
+            }
+        }
+
+        code.op2(ClassFileWriter.INVOKESTATIC,
+                writer.methodRef(box, "valueOf", "(" + descriptor(type) + ")L" + box + ";"));
+
+        return size;
+    }
+
+    /**
+     * Returns true if the method is implemented by {@link GeneratedMessages} already.
+     */
+    private static boolean isMessagesMethod(Method method) {
+        try {
+            return Messages.class.getMethod(method.getName(), method.getParameterTypes()).getReturnType() ==
+                    method.getReturnType();
+        }
+        catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    static String descriptor(Method method) {
+        StringBuilder buffer = new StringBuilder("(");
+
+        for (Class<?> param : method.getParameterTypes()) {
+            buffer.append( descriptor(param) );
+        }
+
+        return buffer.append(')').append( descriptor(method.getReturnType()) ).toString();
+    }
+
+    static String descriptor(Class<?> type) {
+        if (type.isArray()) {
+            return internalName(type);
+        }
+        else if (type == void.class) {
+            return "V";
+        }
+        else if (type == int.class) {
+            return "I";
+        }
+        else if (type == long.class) {
+            return "J";
+        }
+        else if (type == double.class) {
+            return "D";
+        }
+        else if (type == float.class) {
+            return "F";
+        }
+        else if (type == boolean.class) {
+            return "Z";
+        }
+        else if (type == char.class) {
+            return "C";
+        }
+        else if (type == short.class) {
+            return "S";
+        }
+        else if (type == byte.class) {
+            return "B";
+        }
+
+        return "L" + internalName(type) + ";";
+    }
+
+    /**
+     * Class loader that defines a single generated class on top of the interface's loader.
+     */
+    private static final class GeneratedClassLoader extends ClassLoader {
+        GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
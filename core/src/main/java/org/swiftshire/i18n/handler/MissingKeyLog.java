@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.handler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limited log of missing message keys. A release missing translations would otherwise log a line for
+ * every rendered message; here at most {@value #MAX_REPORTS} keys are reported per minute across all
+ * bundles, and the number of reports dropped is logged when the next minute starts. Handlers only report
+ * the first miss of each key, so the reports are also free of duplicates.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+final class MissingKeyLog {
+    private static final Logger log = LoggerFactory.getLogger(MessageHandler.class);
+
+    /**
+     * Maximum number of reports logged per window
+     */
+    static final int MAX_REPORTS = 10;
+
+    /**
+     * Length of a window in nanoseconds
+     */
+    private static final long WINDOW = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Start of the current window as given by {@link System#nanoTime()}
+     */
+    private static final AtomicLong windowStart = new AtomicLong( System.nanoTime() );
+
+    /**
+     * Reports made in the current window
+     */
+    private static final AtomicInteger reports = new AtomicInteger();
+
+    /**
+     * Reports dropped in the current window
+     */
+    private static final AtomicInteger suppressed = new AtomicInteger();
+
+    private MissingKeyLog() {}
+
+    /**
+     * Reports a missing message key unless too many were reported in the current window.
+     *
+     * @param bundle Name of the bundle lacking the key
+     * @param key    Missing key
+     */
+    static void report(String bundle, String key) {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+
+        if (now - start >= WINDOW && windowStart.compareAndSet(start, now)) {
+            reports.set(0);
+
+            int dropped = suppressed.getAndSet(0);
+
+            if (dropped > 0) {
+                log.warn("Suppressed " + dropped + " reports of missing message keys in the last minute");
+            }
+        }
+
+        if (reports.incrementAndGet() <= MAX_REPORTS) {
+            log.error("Can't find resource for bundle " + bundle + ", key " + key);
+        }
+        else {
+            suppressed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.handler;
+
+import org.swiftshire.i18n.bundle.BinaryBundle;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Resource bundle whose fallback chain has been resolved up front. Every key visible through the
+ * source bundle, whether it lives in the bundle itself or in one of its parents, is copied into a
+ * single flat table, so a lookup is exactly one probe no matter how deep the
+ * {@code name_lang_COUNTRY_variant} &rarr; {@code name} chain is. Keys that are not present at all
+ * are likewise answered after one probe rather than after walking every parent.
+ * <p>
+ * Resolved tables are shared per source bundle, so every messages interface backed by the same
+ * bundle and locale pays for flattening only once, and keys and values are interned through the
+ * {@link MessagePool} so that identical strings of different bundles are stored once.
+ * {@link BinaryBundle Binary bundles} are not flattened since they are searched in place and copying them
+ * onto the heap would defeat their purpose.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public final class ResolvedBundle extends ResourceBundle {
+    /**
+     * Resolved tables keyed by the bundle they were flattened from. The source bundles are only
+     * weakly referenced so that unloading a class loader also releases its tables.
+     */
+    private static final Map<ResourceBundle, ResolvedBundle> resolved = new WeakHashMap<>();
+
+    /**
+     * Every key of the chain mapped to the value the chain resolves it to.
+     */
+    private final Map<String, Object> entries;
+
+    /**
+     * Locale of the source bundle.
+     */
+    private final Locale locale;
+
+    /**
+     * Flattens the given bundle and its parent chain.
+     *
+     * @param source Bundle to flatten
+     */
+    private ResolvedBundle(ResourceBundle source) {
+        Set<String> keys = source.keySet();
+        Map<String, Object> table = new HashMap<>(Math.max(16, (int) (keys.size() / 0.75f) + 1));
+
+        for (String key : keys) {
+            Object value = source.getObject(key);
+
+            table.put(MessagePool.intern(key), value instanceof String ? MessagePool.intern((String) value) : value);
+        }
+
+        this.entries = table;
+        this.locale = source.getLocale();
+    }
+
+    /**
+     * Returns the resolved form of the given bundle, flattening it on first use.
+     *
+     * @param bundle Bundle to resolve, may be {@code null}
+     * @return Resolved bundle, or {@code null} if {@code bundle} was {@code null}
+     */
+    public static ResourceBundle resolve(ResourceBundle bundle) {
+        if (bundle == null || bundle instanceof ResolvedBundle || bundle instanceof BinaryBundle) {
+            return bundle;
+        }
+
+        synchronized (resolved) {
+            ResolvedBundle table = resolved.get(bundle);
+
+            if (table == null) {
+                table = new ResolvedBundle(bundle);
+                resolved.put(bundle, table);
+            }
+
+            return table;
+        }
+    }
+
+    /**
+     * Discards every resolved table so that the next call to {@link #resolve(ResourceBundle)}
+     * flattens its bundle again.
+     */
+    public static void clear() {
+        synchronized (resolved) {
+            resolved.clear();
+        }
+    }
+
+    /**
+     * Number of keys in the resolved chain.
+     *
+     * @return Key count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object handleGetObject(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Looks the key up in the flattened table, which already holds the keys of all parents.
+     *
+     * @param key Bundle key
+     * @return true if the bundle has the key
+     */
+    @Override
+    public boolean containsKey(String key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+
+        return entries.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Set<String> handleKeySet() {
+        return Collections.unmodifiableSet( entries.keySet() );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Enumeration<String> getKeys() {
+        return Collections.enumeration( entries.keySet() );
+    }
+}
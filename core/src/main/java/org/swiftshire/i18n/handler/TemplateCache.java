@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.handler;
+
+import org.swiftshire.i18n.bundle.BinaryBundle;
+import org.swiftshire.i18n.format.MessageTemplate;
+import org.swiftshire.i18n.format.TemplateEngine;
+
+import java.util.Collections;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of compiled message templates for a single resource bundle, keyed by message key. Each
+ * pattern is parsed at most once per key (modulo a benign race on first use) no matter how many
+ * times the message is rendered.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class TemplateCache {
+    /**
+     * Bundle the templates are compiled from.
+     */
+    private final ResourceBundle bundle;
+
+    /**
+     * Engine used to compile message patterns.
+     */
+    private final TemplateEngine engine;
+
+    /**
+     * Compiled templates keyed by message key.
+     */
+    private final ConcurrentMap<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Number of lookups served from the cache.
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Number of lookups that had to compile a template.
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates an empty cache for the given bundle that compiles patterns with {@link TemplateEngine#MESSAGE_FORMAT}.
+     *
+     * @param bundle Bundle to read message patterns from
+     */
+    public TemplateCache(ResourceBundle bundle) {
+        this(bundle, TemplateEngine.MESSAGE_FORMAT);
+    }
+
+    /**
+     * Creates an empty cache for the given bundle.
+     *
+     * @param bundle Bundle to read message patterns from
+     * @param engine Engine used to compile message patterns
+     */
+    public TemplateCache(ResourceBundle bundle, TemplateEngine engine) {
+        this.bundle = bundle;
+        this.engine = engine;
+    }
+
+    /**
+     * Returns the compiled template for the given message key, compiling and caching it on first use.
+     *
+     * @param key Bundle key identifying the message
+     * @return Compiled template
+     * @throws MissingResourceException if the bundle has no message for the key
+     */
+    public MessageTemplate get(String key) {
+        MessageTemplate template = templates.get(key);
+
+        if (template != null) {
+            hits.incrementAndGet();
+            return template;
+        }
+
+        misses.incrementAndGet();
+
+        template = compile(key);
+
+        MessageTemplate existing = templates.putIfAbsent(key, template);
+
+        return existing != null ? existing : template;
+    }
+
+    /**
+     * Returns the compiled template for the given message key like {@link #get(String)}, but returns
+     * {@code null} instead of throwing when the bundle has no message for the key, so that looking up
+     * missing keys costs no exception.
+     *
+     * @param key Bundle key identifying the message
+     * @return Compiled template, or {@code null} if the bundle has no message for the key
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public MessageTemplate find(String key) {
+        MessageTemplate template = templates.get(key);
+
+        if (template != null) {
+            hits.incrementAndGet();
+            return template;
+        }
+
+        if (bundle == null || !bundle.containsKey(key)) {
+            return null;
+        }
+
+        return get(key);
+    }
+
+    /**
+     * Compiles the templates of the given keys ahead of their first use. Keys the bundle has no valid
+     * message for are skipped. Templates compiled this way are not counted as misses.
+     *
+     * @param keys Bundle keys to compile
+     */
+    public void compileAll(Iterable<String> keys) {
+        for (String key : keys) {
+            if (templates.containsKey(key)) {
+                continue;
+            }
+
+            try {
+                templates.putIfAbsent(key, compile(key));
+            }
+            catch (MissingResourceException | IllegalArgumentException ignore) {
+            }
+        }
+    }
+
+    /**
+     * Compiles the template of the given key, sharing it through the {@link MessagePool} with every other
+     * bundle that has the same pattern.
+     *
+     * @param key Bundle key identifying the message
+     * @return Compiled template
+     * @throws MissingResourceException if the bundle has no message for the key
+     */
+    private MessageTemplate compile(String key) {
+        if (bundle instanceof BinaryBundle) {
+            return MessagePool.share(engine, ((BinaryBundle) bundle).getTemplate(key, engine));
+        }
+
+        return MessagePool.template(engine, bundle.getString(key));
+    }
+
+    /**
+     * Returns the keys of the templates compiled so far.
+     *
+     * @return Live view of the compiled keys
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet( templates.keySet() );
+    }
+
+    /**
+     * Returns the engine used to compile message patterns.
+     *
+     * @return Template engine
+     */
+    public TemplateEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Number of compiled templates currently held.
+     *
+     * @return Cache size
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    /**
+     * Number of lookups served from the cache.
+     *
+     * @return Hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Number of lookups that had to compile a template.
+     *
+     * @return Miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+}
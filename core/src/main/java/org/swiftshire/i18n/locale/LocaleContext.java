@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swiftshire.i18n.locale;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * Strategy {@link LocaleManager} uses to store and look up the current locale.
+ *
+ * @author swiftj
+ * @since 1.0
+ * @see ThreadLocaleContext
+ * @see ScopedLocaleContext
+ */
+public interface LocaleContext {
+    /**
+     * Returns the locale of the calling thread.
+     *
+     * @return current locale
+     */
+    Locale getLocale();
+
+    /**
+     * Sets the locale of the calling thread until it is changed again.
+     *
+     * @param locale locale to set
+     */
+    void setThreadLocale(Locale locale);
+
+    /**
+     * Sets the locale of all threads that have none of their own.
+     *
+     * @param locale locale to set
+     */
+    void setLocale(Locale locale);
+
+    /**
+     * Runs a task with the given locale as the locale of the calling thread, restoring the previous
+     * locale when the task completes.
+     *
+     * @param locale locale to use while the task runs
+     * @param task   task to run
+     * @return result of the task
+     * @throws Exception if the task fails
+     */
+    <V> V callWithLocale(Locale locale, Callable<V> task) throws Exception;
+}
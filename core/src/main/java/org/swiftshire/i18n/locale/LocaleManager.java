@@ -18,9 +18,11 @@
 package org.swiftshire.i18n.locale;
 
 import java.util.Locale;
+import java.util.concurrent.Callable;
 
 /**
- * A simple thread aware locale manager class.
+ * A simple thread aware locale manager class. How the current locale is stored is up to the
+ * {@link LocaleContext} in use, which defaults to a {@link ThreadLocaleContext}.
  *
  * @author swiftj
  */
@@ -31,9 +33,9 @@ public class LocaleManager {
     private static LocaleManager manager = new LocaleManager();
 
     /**
-     *
+     * Strategy used to store the current locale
      */
-    private static ThreadLocale locale = new ThreadLocale();
+    private static volatile LocaleContext context = new ThreadLocaleContext();
 
     /**
      * @return
@@ -42,6 +44,29 @@ public class LocaleManager {
         return manager;
     }
 
+    /**
+     * Replaces the strategy used to store the current locale. Locales set through the previous
+     * strategy are not carried over.
+     *
+     * @param context locale context to use
+     */
+    public void setContext(LocaleContext context) {
+        if (context == null) {
+            throw new IllegalArgumentException("Locale context must not be null");
+        }
+
+        LocaleManager.context = context;
+    }
+
+    /**
+     * Returns the strategy used to store the current locale.
+     *
+     * @return locale context in use
+     */
+    public LocaleContext getContext() {
+        return context;
+    }
+
     /**
      * Set the locale with the language and country for the
      * current thread.
@@ -49,8 +74,7 @@ public class LocaleManager {
      * @param locale locale to set
      */
     public void setThreadLocale(Locale locale) {
-        LocaleManager.locale.setThread(true);
-        LocaleManager.locale.set(locale);
+        context.setThreadLocale(locale);
     }
 
     /**
@@ -59,8 +83,7 @@ public class LocaleManager {
      * @param locale locale to set
      */
     public void setLocale(Locale locale) {
-        LocaleManager.locale.setThread(false);
-        LocaleManager.locale.set(locale);
+        context.setLocale(locale);
     }
 
     /**
@@ -69,6 +92,19 @@ public class LocaleManager {
      * @return currently used locale
      */
     public Locale getLocale() {
-        return locale.get();
+        return context.getLocale();
+    }
+
+    /**
+     * Runs a task with the given locale as the current locale of the calling thread.
+     *
+     * @param locale locale to use while the task runs
+     * @param task   task to run
+     * @return result of the task
+     * @throws Exception if the task fails
+     * @see LocaleContext#callWithLocale(Locale, Callable)
+     */
+    public <V> V callWithLocale(Locale locale, Callable<V> task) throws Exception {
+        return context.callWithLocale(locale, task);
     }
 }
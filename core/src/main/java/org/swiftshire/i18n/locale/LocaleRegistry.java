@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.locale;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of canonical {@link Locale} instances. Locale strings are parsed once and every distinct locale
+ * is interned to a single shared instance with a small integer id, so that caches keyed by locale can use
+ * plain array indexes and equality checks of interned locales succeed on identity.
+ * <p/>
+ * The registry is bounded so that untrusted input, such as locale strings taken from requests, cannot
+ * grow it without limit. Strings and locales beyond the bound are still parsed and returned correctly,
+ * just not cached, and such locales have no id.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public final class LocaleRegistry {
+    /**
+     * Maximum number of locales given an id.
+     */
+    public static final int MAX_LOCALES = 1024;
+
+    /**
+     * Maximum number of locale strings cached.
+     */
+    static final int MAX_STRINGS = 4 * MAX_LOCALES;
+
+    /**
+     * Id returned for locales that have none.
+     */
+    public static final int NO_ID = -1;
+
+    /**
+     * Parsed locale strings
+     */
+    private static final ConcurrentMap<String, Locale> strings = new ConcurrentHashMap<>();
+
+    /**
+     * Canonical locales by language, country and variant, so that looking up components needs no key string
+     */
+    private static final ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, Locale>>> components =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Number of component triples cached in {@link #components}
+     */
+    private static final AtomicInteger componentCount = new AtomicInteger();
+
+    /**
+     * Ids of the canonical locales
+     */
+    private static final ConcurrentMap<Locale, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * Canonical locales indexed by id
+     */
+    private static volatile Locale[] locales = new Locale[0];
+
+    private LocaleRegistry() {}
+
+    /**
+     * Parses a locale string in the form of "language_country_variant" where country and variant
+     * are optional, returning the canonical instance.
+     *
+     * @param localeString locale string to parse
+     * @return Canonical locale
+     */
+    public static Locale parse(String localeString) {
+        Locale locale = strings.get(localeString);
+
+        if (locale == null) {
+            String[] localeComponents = localeString.split("_");
+
+            String language = localeComponents.length > 0 ? localeComponents[0] : "";
+            String country  = localeComponents.length > 1 ? localeComponents[1] : "";
+            String variant  = localeComponents.length > 2 ? localeComponents[2] : "";
+
+            locale = intern( new Locale(language, country, variant) );
+
+            if (strings.size() < MAX_STRINGS) {
+                strings.putIfAbsent(localeString, locale);
+            }
+        }
+
+        return locale;
+    }
+
+    /**
+     * Returns the canonical instance of the locale with the given components.
+     *
+     * @param language language code of the locale
+     * @param country  country code of the locale
+     * @param variant  variant code of the locale
+     * @return Canonical locale
+     */
+    public static Locale of(String language, String country, String variant) {
+        ConcurrentMap<String, ConcurrentMap<String, Locale>> countries = components.get(language);
+        ConcurrentMap<String, Locale> variants = countries != null ? countries.get(country) : null;
+        Locale locale = variants != null ? variants.get(variant) : null;
+
+        if (locale != null) {
+            return locale;
+        }
+
+        locale = intern( new Locale(language, country, variant) );
+
+        if (componentCount.get() < MAX_STRINGS) {
+            if (countries == null) {
+                countries = new ConcurrentHashMap<>();
+                ConcurrentMap<String, ConcurrentMap<String, Locale>> raced = components.putIfAbsent(language, countries);
+                countries = raced != null ? raced : countries;
+            }
+
+            if (variants == null) {
+                variants = new ConcurrentHashMap<>();
+                ConcurrentMap<String, Locale> raced = countries.putIfAbsent(country, variants);
+                variants = raced != null ? raced : variants;
+            }
+
+            if (variants.putIfAbsent(variant, locale) == null) {
+                componentCount.incrementAndGet();
+            }
+        }
+
+        return locale;
+    }
+
+    /**
+     * Returns the canonical instance of the given locale, registering it if there is room.
+     *
+     * @param locale locale to intern
+     * @return Canonical locale or the given locale if the registry is full
+     */
+    public static Locale intern(Locale locale) {
+        Integer id = ids.get(locale);
+
+        if (id != null) {
+            return locales[id];
+        }
+
+        return register(locale);
+    }
+
+    /**
+     * Returns the id of the given locale.
+     *
+     * @param locale locale to look up
+     * @return Id between {@code 0} and {@link #MAX_LOCALES} or {@link #NO_ID} if the registry is full
+     */
+    public static int id(Locale locale) {
+        Integer id = ids.get(locale);
+
+        if (id == null) {
+            register(locale);
+            id = ids.get(locale);
+        }
+
+        return id != null ? id : NO_ID;
+    }
+
+    /**
+     * Returns the canonical locale with the given id.
+     *
+     * @param id locale id
+     * @return Canonical locale
+     * @throws IndexOutOfBoundsException if there is no locale with the id
+     */
+    public static Locale locale(int id) {
+        return locales[id];
+    }
+
+    /**
+     * Number of locales with an id.
+     *
+     * @return Registry size
+     */
+    public static int size() {
+        return locales.length;
+    }
+
+    /**
+     * Registers a locale if there is room.
+     *
+     * @param locale locale to register
+     * @return Canonical locale or the given locale if the registry is full
+     */
+    private static Locale register(Locale locale) {
+        // Locales are never removed, so once full the registry stays full and misses need not lock
+        if (locales.length >= MAX_LOCALES) {
+            return locale;
+        }
+
+        synchronized (LocaleRegistry.class) {
+            return registerLocked(locale);
+        }
+    }
+
+    /**
+     * Registers a locale if there is room. Must hold the class lock.
+     *
+     * @param locale locale to register
+     * @return Canonical locale or the given locale if the registry is full
+     */
+    private static Locale registerLocked(Locale locale) {
+        Integer id = ids.get(locale);
+
+        if (id != null) {
+            return locales[id];
+        }
+
+        Locale[] current = locales;
+
+        if (current.length >= MAX_LOCALES) {
+            return locale;
+        }
+
+        Locale[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = locale;
+
+        // Publish the locale before its id so that readers of the id always find it
+        locales = grown;
+        ids.put(locale, current.length);
+
+        return locale;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swiftshire.i18n.locale;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Locale context meant for servers that run each request as a task, possibly on a large number of short
+ * lived threads. A locale is bound for the length of a task with {@link #callWithLocale(Locale, Callable)}
+ * and is inherited by threads the task starts. Threads without a binding use the global locale; looking up
+ * the locale neither computes a per-thread initial value nor checks a mode flag, and the binding of a thread
+ * is removed again as soon as its outermost task completes.
+ * <p>
+ * The thread local is only probed while some thread may hold a binding, so that threads which merely read
+ * the locale never get a per-thread entry, nor a map their children have to copy. Bindings inherited by
+ * child threads are counted for good, since the end of a child thread cannot be observed.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class ScopedLocaleContext implements LocaleContext {
+    /**
+     * Number of threads that may hold a binding
+     */
+    private final AtomicInteger bindings = new AtomicInteger();
+
+    /**
+     * Locale bound to the current task, {@code null} outside of one
+     */
+    private final InheritableThreadLocal<Locale> bound = new InheritableThreadLocal<Locale>() {
+        @Override
+        protected Locale childValue(Locale parent) {
+            if (parent != null) {
+                bindings.incrementAndGet();
+            }
+
+            return parent;
+        }
+    };
+
+    /**
+     * Locale of threads without a binding, {@code null} for the default locale
+     */
+    private volatile Locale global;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Locale getLocale() {
+        Locale locale = bindings.get() != 0 ? bound.get() : null;
+
+        if (locale == null) {
+            locale = global;
+        }
+
+        return locale != null ? locale : Locale.getDefault();
+    }
+
+    /**
+     * Binds the locale to the calling thread until it is changed again. Prefer
+     * {@link #callWithLocale(Locale, Callable)}, which removes the binding when it is no longer needed.
+     *
+     * @param locale locale to set
+     */
+    @Override
+    public void setThreadLocale(Locale locale) {
+        Locale previous = bindings.get() != 0 ? bound.get() : null;
+
+        if (locale != null) {
+            if (previous == null) {
+                bindings.incrementAndGet();
+            }
+
+            bound.set(locale);
+        }
+        else if (previous != null) {
+            bound.remove();
+            bindings.decrementAndGet();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setLocale(Locale locale) {
+        global = locale;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <V> V callWithLocale(Locale locale, Callable<V> task) throws Exception {
+        Locale previous = bindings.get() != 0 ? bound.get() : null;
+
+        setThreadLocale(locale);
+
+        try {
+            return task.call();
+        }
+        finally {
+            setThreadLocale(previous);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swiftshire.i18n.locale;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Locale context backed by a {@link ThreadLocale}. This is the default strategy: every thread that
+ * asks for its locale gets its own entry, initialized to the default locale, and setting the global
+ * locale switches all threads over to it.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class ThreadLocaleContext implements LocaleContext {
+    /**
+     * Underlying locale storage
+     */
+    private final ThreadLocale locale = new ThreadLocale();
+
+    /**
+     * Locale bound by {@link #callWithLocale(Locale, Callable)} for the calling thread, kept apart from
+     * {@link #locale} so that a scoped call neither changes the global/thread mode nor the stored locales.
+     */
+    private final ThreadLocal<Locale> scoped = new ThreadLocal<>();
+
+    /**
+     * Number of scoped calls in progress on all threads; {@link #scoped} is only probed while there are any,
+     * so that the default path costs no extra lookup or per-thread entry.
+     */
+    private final AtomicInteger scopes = new AtomicInteger();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Locale getLocale() {
+        if (scopes.get() != 0) {
+            Locale bound = scoped.get();
+
+            if (bound != null) {
+                return bound;
+            }
+        }
+
+        return locale.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setThreadLocale(Locale locale) {
+        this.locale.setThread(true);
+        this.locale.set(locale);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setLocale(Locale locale) {
+        this.locale.setThread(false);
+        this.locale.set(locale);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <V> V callWithLocale(Locale locale, Callable<V> task) throws Exception {
+        scopes.incrementAndGet();
+
+        Locale previous = scoped.get();
+
+        scoped.set(locale);
+
+        try {
+            return task.call();
+        }
+        finally {
+            if (previous != null) {
+                scoped.set(previous);
+            }
+            else {
+                scoped.remove();
+            }
+
+            scopes.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,410 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n.processor;
+
+import org.swiftshire.i18n.Messages;
+import org.swiftshire.i18n.annotation.Message;
+import org.swiftshire.i18n.annotation.ResourceBundle;
+import org.swiftshire.i18n.handler.GeneratedMessages;
+import org.swiftshire.i18n.handler.MessageHandler;
+import org.swiftshire.i18n.handler.MessagesClassGenerator;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Annotation processor that generates a plain Java implementation of every {@link Messages} interface
+ * annotated with {@link Message} or {@link ResourceBundle}. The generated classes extend
+ * {@link GeneratedMessages} and are named after the interface with
+ * {@link MessagesClassGenerator#CLASS_SUFFIX} appended, which is where
+ * {@link org.swiftshire.i18n.MessageFactory MessageFactory} looks for them before falling back to a
+ * dynamic proxy. Using them avoids proxy creation and reflection both at startup and on every call.
+ * <p/>
+ * The processor also parses every message pattern so that malformed patterns fail the build rather
+ * than the first call at run time. It is registered as a service and therefore runs automatically
+ * whenever {@code ji18n-core} is on the compiler's class path.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class MessagesProcessor extends AbstractProcessor {
+
+    private static final String GENERATED_BASE = GeneratedMessages.class.getName();
+    private static final String HANDLER = MessageHandler.class.getName();
+
+    /**
+     * Types already generated, across rounds.
+     */
+    private final Set<String> generated = new HashSet<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new HashSet<>( Arrays.asList(Message.class.getName(), ResourceBundle.class.getName()) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> types = new LinkedHashSet<>();
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(Message.class)) {
+            if (element.getEnclosingElement() instanceof TypeElement) {
+                types.add( (TypeElement) element.getEnclosingElement() );
+            }
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(ResourceBundle.class)) {
+            if (element instanceof TypeElement) {
+                types.add( (TypeElement) element );
+            }
+        }
+
+        for (TypeElement type : types) {
+            if (isMessagesInterface(type) && generated.add( type.getQualifiedName().toString() )) {
+                generate(type);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns true if the type is an interface extending {@link Messages}.
+     */
+    private boolean isMessagesInterface(TypeElement type) {
+        TypeElement messages = processingEnv.getElementUtils().getTypeElement( Messages.class.getName() );
+
+        return type.getKind() == ElementKind.INTERFACE && messages != null &&
+                processingEnv.getTypeUtils().isAssignable(
+                        processingEnv.getTypeUtils().erasure( type.asType() ),
+                        processingEnv.getTypeUtils().erasure( messages.asType() ));
+    }
+
+    /**
+     * Generates the implementation of a single interface, unless it contains methods the generated class
+     * cannot implement, in which case the interface is left to the run time proxy.
+     *
+     * @param type Messages interface
+     */
+    private void generate(TypeElement type) {
+        if (!type.getModifiers().contains(Modifier.PUBLIC) || !type.getTypeParameters().isEmpty()) {
+            note(type, "Not generating an implementation of non-public or generic interface " + type);
+            return;
+        }
+
+        List<ExecutableElement> methods = new ArrayList<>();
+
+        for (ExecutableElement method :
+                ElementFilter.methodsIn( processingEnv.getElementUtils().getAllMembers(type) )) {
+
+            if (!method.getModifiers().contains(Modifier.ABSTRACT) || isMessagesMethod(method)) {
+                continue;
+            }
+
+            Message annotation = method.getAnnotation(Message.class);
+
+            if (annotation == null || !method.getTypeParameters().isEmpty() ||
+                    !(isString( method.getReturnType() ) || isSink(method))) {
+                note(method, "Not generating an implementation of " + type +
+                        " since " + method + " is not a @Message method returning String");
+                return;
+            }
+
+            try {
+                new MessageFormat( annotation.value() );
+            }
+            catch (IllegalArgumentException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Malformed message pattern: " + ex.getMessage(), method);
+                return;
+            }
+
+            methods.add(method);
+        }
+
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+
+        final String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        final String nestedName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        final String simpleName = nestedName + MessagesClassGenerator.CLASS_SUFFIX;
+        final String className = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(className, type);
+
+            try (Writer writer = file.openWriter()) {
+                write(new PrintWriter(writer), packageName, simpleName, type, methods);
+            }
+        }
+        catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate " + className + ": " + ex.getMessage(), type);
+        }
+    }
+
+    /**
+     * Writes the source of the generated implementation.
+     */
+    private void write(PrintWriter out, String packageName, String simpleName,
+                       TypeElement type, List<ExecutableElement> methods) {
+
+        final String interfaceName = type.getQualifiedName().toString();
+
+        if (!packageName.isEmpty()) {
+            out.println("package " + packageName + ";");
+            out.println();
+        }
+
+        out.println("/**");
+        out.println(" * Implementation of {@link " + interfaceName + "} generated by ji18n. Do not edit.");
+        out.println(" */");
+        out.println("public final class " + simpleName);
+        out.println("        extends " + GENERATED_BASE);
+        out.println("        implements " + interfaceName + " {");
+        out.println();
+        out.println("    private static final String[] KEYS = {");
+
+        for (ExecutableElement method : methods) {
+            out.println("        \"" + escape( key(method) ) + "\",");
+        }
+
+        out.println("    };");
+        out.println();
+        out.println("    public " + simpleName + "(" + HANDLER + " handler) {");
+        out.println("        super(handler, KEYS);");
+        out.println("    }");
+
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            List<? extends VariableElement> params = method.getParameters();
+
+            StringBuilder signature = new StringBuilder();
+            StringBuilder args = new StringBuilder();
+
+            final boolean sink = isSink(method);
+
+            for (int p = 0; p < params.size(); p++) {
+                String paramType = params.get(p).asType().toString();
+
+                if (method.isVarArgs() && p == params.size() - 1 && paramType.endsWith("[]")) {
+                    paramType = paramType.substring(0, paramType.length() - 2) + "...";
+                }
+
+                signature.append(p > 0 ? ", " : "").append("final ").append(paramType).append(" a").append(p);
+
+                if (!sink || p > 0) {
+                    args.append(args.length() > 0 ? ", " : "").append("a").append(p);
+                }
+            }
+
+            final String array = args.length() == 0 ? "(Object[]) null" : "new Object[] { " + args + " }";
+
+            out.println();
+            out.println("    @Override");
+
+            final String shape = sink ? null : unboxedShape(method);
+
+            if (sink) {
+                out.println("    public void " + method.getSimpleName() + "(" + signature + ")" +
+                        throwsClause(method) + " {");
+                out.println("        render(template(" + i + "), a0, " + array + ");");
+            }
+            else if (shape != null) {
+                StringBuilder unboxed = new StringBuilder();
+
+                for (int p = 0; p < shape.length(); p++) {
+                    String cast = shape.charAt(p) == 'J' ? "long" : shape.charAt(p) == 'D' ? "double" : "Object";
+
+                    unboxed.append(", (").append(cast).append(") a").append(p);
+                }
+
+                out.println("    public String " + method.getSimpleName() + "(" + signature + ") {");
+                out.println("        return formatUnboxed(template(" + i + ")" + unboxed + ");");
+            }
+            else {
+                out.println("    public String " + method.getSimpleName() + "(" + signature + ") {");
+                out.println("        return template(" + i + ").format(" + array + ");");
+            }
+
+            out.println("    }");
+        }
+
+        out.println("}");
+        out.flush();
+    }
+
+    private static String key(ExecutableElement method) {
+        String key = method.getAnnotation(Message.class).key();
+
+        return key.isEmpty() ? method.getSimpleName().toString() : key;
+    }
+
+    private boolean isMessagesMethod(ExecutableElement method) {
+        Element owner = method.getEnclosingElement();
+
+        return owner instanceof TypeElement &&
+                (((TypeElement) owner).getQualifiedName().contentEquals( Messages.class.getName() ) ||
+                 ((TypeElement) owner).getQualifiedName().contentEquals( Object.class.getName() ));
+    }
+
+    /**
+     * Returns true if the method returns nothing and renders into the {@link Appendable} passed as its first
+     * parameter. Targets other than {@link StringBuilder} may fail, so such methods must declare
+     * {@link IOException}.
+     */
+    private boolean isSink(ExecutableElement method) {
+        if (method.getReturnType().getKind() != TypeKind.VOID || method.getParameters().isEmpty()) {
+            return false;
+        }
+
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror target = method.getParameters().get(0).asType();
+
+        if (!types.isAssignable(target, type(Appendable.class))) {
+            return false;
+        }
+
+        if (types.isSameType(target, type(StringBuilder.class))) {
+            return true;
+        }
+
+        for (TypeMirror thrown : method.getThrownTypes()) {
+            if (types.isAssignable(type(IOException.class), thrown)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the shape of the method's parameters if they can be passed to
+     * {@code GeneratedMessages.formatUnboxed} without boxing.
+     *
+     * @see MessagesClassGenerator#UNBOXED_SHAPES
+     */
+    private static String unboxedShape(ExecutableElement method) {
+        StringBuilder shape = new StringBuilder();
+
+        for (VariableElement param : method.getParameters()) {
+            switch (param.asType().getKind()) {
+                case LONG:
+                case INT:
+                case SHORT:
+                case BYTE:
+                    shape.append('J');
+                    break;
+
+                case DOUBLE:
+                case FLOAT:
+                    shape.append('D');
+                    break;
+
+                case BOOLEAN:
+                case CHAR:
+                    return null;
+
+                default:
+                    shape.append('L');
+                    break;
+            }
+        }
+
+        return MessagesClassGenerator.UNBOXED_SHAPES.contains( shape.toString() ) ? shape.toString() : null;
+    }
+
+    private static String throwsClause(ExecutableElement method) {
+        StringBuilder buffer = new StringBuilder();
+
+        for (TypeMirror thrown : method.getThrownTypes()) {
+            buffer.append(buffer.length() == 0 ? " throws " : ", ").append(thrown);
+        }
+
+        return buffer.toString();
+    }
+
+    private TypeMirror type(Class<?> type) {
+        return processingEnv.getElementUtils().getTypeElement( type.getName() ).asType();
+    }
+
+    private boolean isString(TypeMirror type) {
+        return type.toString().equals( String.class.getName() );
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+    private static String escape(String value) {
+        StringBuilder buffer = new StringBuilder(value.length());
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                buffer.append('\\').append(c);
+            }
+            else if (c < 0x20 || c > 0x7e) {
+                buffer.append( String.format("\\u%04x", (int) c) );
+            }
+            else {
+                buffer.append(c);
+            }
+        }
+
+        return buffer.toString();
+    }
+}
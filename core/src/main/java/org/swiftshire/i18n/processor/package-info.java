@@ -0,0 +1,7 @@
+/**
+ * This package contains the annotation processor that generates {@link org.swiftshire.i18n.Messages Messages}
+ * implementations at build time.
+ *
+ * @since 1.0
+ */
+package org.swiftshire.i18n.processor;
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.swiftshire.i18n.bundle.BinaryBundle;
+import org.swiftshire.i18n.bundle.BinaryBundleWriter;
+import org.swiftshire.i18n.format.CompiledTemplate;
+import org.swiftshire.i18n.format.MessageTemplate;
+import org.swiftshire.i18n.format.TemplateEngine;
+import org.swiftshire.i18n.handler.MessageHandler;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link BinaryBundle}
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class BinaryBundleTest {
+    private BundleFixture fixture;
+
+    @Before
+    public void setup() throws Exception {
+        fixture = new BundleFixture("binary.Greetings", BinaryBundle.SUFFIX);
+
+        Map<String, String> base = new HashMap<>();
+        base.put("hello", "Hello {0}, you have {1} messages");
+        base.put("bye", "Goodbye");
+        base.put("count", "{0,number,integer} files");
+        write("", base);
+
+        Map<String, String> spanish = new HashMap<>();
+        spanish.put("hello", "Hola {0}, tiene {1} mensajes");
+        spanish.put("café", "Café ''{0}''");
+        write("_es", spanish);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        fixture.close();
+    }
+
+    @Test
+    public void testLookupAndFallback() {
+        ResourceBundle bundle = fixture.getBundle(new Locale("es"), BinaryBundle.CONTROL);
+
+        BundleFixture.assertBundle(bundle, BinaryBundle.class, new Locale("es"), "hello", "bye", "count", "café");
+        assertEquals("Hola {0}, tiene {1} mensajes", bundle.getString("hello"));
+        assertEquals("Goodbye", bundle.getString("bye"));
+        assertEquals("Café ''{0}''", bundle.getString("café"));
+        assertEquals(2, ((BinaryBundle) bundle).size());
+    }
+
+    @Test(expected = MissingResourceException.class)
+    public void testMissingKey() {
+        fixture.getBundle(new Locale("es"), BinaryBundle.CONTROL).getString("missing");
+    }
+
+    @Test
+    public void testPreparsedTemplates() {
+        BinaryBundle bundle = (BinaryBundle) fixture.getBundle(new Locale("es"), BinaryBundle.CONTROL);
+
+        MessageTemplate hello = bundle.getTemplate("hello", TemplateEngine.COMPILED);
+
+        assertTrue(hello instanceof CompiledTemplate);
+        assertEquals("Hola Ann, tiene 3 mensajes", hello.format("Ann", 3));
+        assertEquals("Café 'x'", bundle.getTemplate("café", TemplateEngine.COMPILED).format("x"));
+        assertEquals("1,234 files", bundle.getTemplate("count", TemplateEngine.COMPILED).format(1234));
+        assertEquals("Hola Ann, tiene 3 mensajes",
+                bundle.getTemplate("hello", TemplateEngine.MESSAGE_FORMAT).format("Ann", 3));
+    }
+
+    @Test
+    public void testHandlerReadsBinaryBundle() {
+        MessageHandler handler = fixture.newHandler(new Locale("es"), BinaryBundle.CONTROL);
+
+        assertTrue(handler.getBundle() instanceof BinaryBundle);
+        assertEquals("Hola Ann, tiene 2 mensajes", handler.format("hello", "Ann", 2));
+        assertEquals("!!missing!!", handler.format("missing"));
+        BundleFixture.assertReloads(handler, "bye", "Goodbye");
+    }
+
+    @Test
+    public void testUnmappedBundleSurvivesRewrite() throws Exception {
+        Path file = fixture.file("");
+
+        BinaryBundle.setMapFiles(false);
+
+        try {
+            BinaryBundle bundle = BinaryBundle.load( file.toUri().toURL() );
+
+            // Truncates the file under the bundle, as a tool rewriting it in place would
+            Files.write(file, new byte[0]);
+
+            assertEquals("Goodbye", bundle.getString("bye"));
+        }
+        finally {
+            BinaryBundle.setMapFiles(true);
+        }
+    }
+
+    @Test
+    public void testCompiledTemplateDecomposition() {
+        List<String> literals = new ArrayList<>();
+        int[] arguments = CompiledTemplate.compile("{0}{1} and '{'{2}").decompose(literals);
+
+        assertArrayEquals(new int[] { 0, 1, 2 }, arguments);
+        assertEquals(Arrays.asList("", "", " and {", ""), literals);
+        assertNull(CompiledTemplate.compile("{0,number}").decompose(new ArrayList<String>()));
+    }
+
+    private void write(String suffix, Map<String, String> messages) throws Exception {
+        try (OutputStream out = fixture.create(suffix)) {
+            BinaryBundleWriter.write(messages, out);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.swiftshire.i18n;
+
+import org.swiftshire.i18n.format.TemplateEngine;
+import org.swiftshire.i18n.handler.MessageHandler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import static org.junit.Assert.*;
+
+/**
+ * Temporary class path directory holding the files of one bundle, with a class loader that sees nothing
+ * but that directory. Shared by the tests of the bundle formats; closing the fixture closes the loader and
+ * deletes the directory.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+final class BundleFixture implements Closeable {
+    /**
+     * Base name of the bundle
+     */
+    private final String bundleName;
+
+    /**
+     * File name extension of the bundle files
+     */
+    private final String extension;
+
+    private final Path root;
+    private final URLClassLoader loader;
+
+    /**
+     * Creates an empty class path directory.
+     *
+     * @param bundleName Base name of the bundle
+     * @param extension  File name extension of the bundle files
+     * @throws IOException if the directory cannot be created
+     */
+    BundleFixture(String bundleName, String extension) throws IOException {
+        this(bundleName, extension, null);
+    }
+
+    /**
+     * Creates an empty class path directory whose loader delegates to the given parent first.
+     *
+     * @param bundleName Base name of the bundle
+     * @param extension  File name extension of the bundle files
+     * @param parent     Parent class loader, {@code null} to see nothing but the directory
+     * @throws IOException if the directory cannot be created
+     */
+    BundleFixture(String bundleName, String extension, ClassLoader parent) throws IOException {
+        this.bundleName = bundleName;
+        this.extension = extension;
+        this.root = Files.createTempDirectory("ji18n");
+        this.loader = new URLClassLoader(new URL[] { root.toUri().toURL() }, parent);
+    }
+
+    String getBundleName() {
+        return bundleName;
+    }
+
+    ClassLoader getLoader() {
+        return loader;
+    }
+
+    /**
+     * Returns the path of the bundle file for the given locale suffix, creating its directory.
+     *
+     * @param suffix Locale suffix such as {@code "_es"}, or {@code ""} for the base bundle
+     * @return Bundle file
+     * @throws IOException if the directory cannot be created
+     */
+    Path file(String suffix) throws IOException {
+        return resource( bundleName.replace('.', '/') + suffix + "." + extension );
+    }
+
+    /**
+     * Returns the path of any other resource in the directory, creating its parent directories.
+     *
+     * @param resource Resource name
+     * @return Resource file
+     * @throws IOException if the directories cannot be created
+     */
+    Path resource(String resource) throws IOException {
+        Path file = root.resolve(resource);
+        Files.createDirectories( file.getParent() );
+
+        return file;
+    }
+
+    /**
+     * Opens the bundle file for the given locale suffix for writing.
+     *
+     * @param suffix Locale suffix such as {@code "_es"}, or {@code ""} for the base bundle
+     * @return Stream to write the bundle to
+     * @throws IOException if the file cannot be created
+     */
+    OutputStream create(String suffix) throws IOException {
+        return Files.newOutputStream( file(suffix) );
+    }
+
+    /**
+     * Loads the bundle through the given control.
+     *
+     * @param locale  Requested locale
+     * @param control Control of the bundle format
+     * @return Bundle
+     */
+    ResourceBundle getBundle(Locale locale, ResourceBundle.Control control) {
+        return ResourceBundle.getBundle(bundleName, locale, loader, control);
+    }
+
+    /**
+     * Creates a handler compiling the bundle, loaded through the given control, with the compiled engine.
+     *
+     * @param locale  Requested locale
+     * @param control Control of the bundle format
+     * @return Handler
+     */
+    MessageHandler newHandler(Locale locale, ResourceBundle.Control control) {
+        return new MessageHandler(bundleName, locale, loader, null, TemplateEngine.COMPILED, control);
+    }
+
+    /**
+     * Checks that a bundle of the expected type was found for the requested locale and, through its
+     * parents, holds exactly the given keys.
+     *
+     * @param bundle Loaded bundle
+     * @param type   Expected bundle class
+     * @param locale Expected locale
+     * @param keys   Expected keys, including those of the parents
+     */
+    static void assertBundle(ResourceBundle bundle, Class<? extends ResourceBundle> type, Locale locale,
+                             String... keys) {
+        assertTrue(type.isInstance(bundle));
+        assertEquals(locale, bundle.getLocale());
+        assertEquals(new HashSet<>(Arrays.asList(keys)), bundle.keySet());
+    }
+
+    /**
+     * Checks that a handler can reload its bundle and still renders the given message afterwards.
+     *
+     * @param handler  Handler to reload
+     * @param key      Key of a message without arguments
+     * @param expected Expected message
+     */
+    static void assertReloads(MessageHandler handler, String key, String expected) {
+        assertEquals(expected, handler.format(key));
+        assertTrue(handler.reload());
+        assertEquals(expected, handler.format(key));
+    }
+
+    /**
+     * Closes the class loader and deletes the directory.
+     *
+     * @throws IOException if the directory cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        ResourceBundle.clearCache(loader);
+        loader.close();
+
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException ex) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.swiftshire.i18n.annotation.BundleType;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link BundleIndex}
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class BundleIndexTest {
+    private Locale defaultLocale;
+
+    @Before
+    public void setup() {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.JAPAN);
+    }
+
+    @After
+    public void teardown() {
+        Locale.setDefault(defaultLocale);
+        BundleIndex.clear();
+    }
+
+    @Test
+    public void testParseAndMerge() throws Exception {
+        Map<String, BundleIndex.Entry> entries = new LinkedHashMap<>();
+
+        BundleIndex.parse(reader("# comment\n\nsample.Folders\tsample.FolderBundle\t=5,en_US=5\n"), entries);
+        BundleIndex.parse(reader("sample.Folders\tsample.FolderBundle\tes=4\nsample.Empty\tsample.Empty\t\n"), entries);
+
+        BundleIndex.Entry folders = entries.get("sample.Folders");
+
+        assertEquals("sample.FolderBundle", folders.getBundleName());
+        assertEquals(new HashSet<>(Arrays.asList(new Locale("en", "US"), new Locale("es"))),
+                new HashSet<>(folders.getLocales()));
+        assertEquals(5, folders.getKeyCount(Locale.ROOT));
+        assertEquals(4, folders.getKeyCount(new Locale("es")));
+        assertEquals(-1, folders.getKeyCount(Locale.FRENCH));
+        assertTrue(entries.get("sample.Empty").getLocales().isEmpty());
+    }
+
+    @Test
+    public void testCovers() throws Exception {
+        Map<String, BundleIndex.Entry> entries = new LinkedHashMap<>();
+        BundleIndex.parse(reader("sample.Folders\tsample.Folders\ten_US=5,es=4\nsample.Base\tsample.Base\t=3\n"), entries);
+
+        BundleIndex.Entry folders = entries.get("sample.Folders");
+
+        assertTrue(folders.covers(new Locale("es", "MX"), true));
+        assertTrue(folders.covers(new Locale("en", "US", "POSIX"), true));
+        assertFalse(folders.covers(Locale.FRENCH, true));
+        assertFalse(folders.covers(Locale.ENGLISH, true));
+        assertTrue(entries.get("sample.Base").covers(Locale.FRENCH, false));
+
+        Locale.setDefault(new Locale("es"));
+
+        assertTrue(folders.covers(Locale.FRENCH, true));
+        assertFalse(folders.covers(Locale.FRENCH, false));
+    }
+
+    @Test
+    public void testIndexedCandidates() throws Exception {
+        Map<String, BundleIndex.Entry> entries = new LinkedHashMap<>();
+        BundleIndex.parse(reader("sample.Folders\tsample.Folders\t=5,en_US=5,es=4\n"), entries);
+
+        BundleIndex.Entry folders = entries.get("sample.Folders");
+        MessagesControl control = folders.control( MessagesControl.of(BundleType.PROPERTY, false) );
+
+        assertTrue(folders.covers(Locale.FRANCE, false));
+        assertSame(control, folders.control( MessagesControl.of(BundleType.PROPERTY, false) ));
+        assertEquals(Arrays.asList(Locale.ROOT), control.getCandidateLocales("sample.Folders", Locale.FRANCE));
+        assertEquals(Arrays.asList(new Locale("es"), Locale.ROOT),
+                control.getCandidateLocales("sample.Folders", new Locale("es", "MX")));
+        assertEquals(Arrays.asList(new Locale("en", "US"), Locale.ROOT),
+                control.getCandidateLocales("sample.Folders", new Locale("en", "US", "POSIX")));
+        assertEquals(4, MessagesControl.of(BundleType.PROPERTY, false)
+                .getCandidateLocales("sample.Folders", new Locale("en", "US", "POSIX")).size());
+    }
+
+    @Test
+    public void testPreloadIndexed() throws Exception {
+        try (BundleFixture fixture = new BundleFixture("index", "", getClass().getClassLoader())) {
+            Files.write(fixture.resource(BundleIndex.RESOURCE),
+                    ("org.swiftshire.i18n.GenericMessages\torg.swiftshire.i18n.GenericMessages\ten_US=5,es=5\n" +
+                     "org.swiftshire.i18n.MissingMessages\torg.swiftshire.i18n.MissingMessages\t\n")
+                    .getBytes(StandardCharsets.UTF_8));
+
+            PreloadReport report = MessageFactory.preloadIndexed(fixture.getLoader());
+
+            assertEquals(2, report.getEntries().size());
+            assertEquals(2, report.getLoadedCount());
+            assertEquals(GenericMessages.class, report.getEntries().get(0).getType());
+            assertEquals(5, report.getEntries().get(0).getTemplateCount());
+        }
+    }
+
+    private static BufferedReader reader(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.swiftshire.i18n.annotation.Message;
+import org.swiftshire.i18n.annotation.ResourceBundle;
+import org.swiftshire.i18n.handler.GeneratedMessages;
+import org.swiftshire.i18n.handler.MessageHandler;
+import org.swiftshire.i18n.handler.MessagesClassGenerator;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ListResourceBundle;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for reloading bundles that change on disk
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class BundleReloadTest {
+    private static final String BUNDLE = "org.swiftshire.i18n.ReloadableMessages";
+
+    @ResourceBundle(name = BUNDLE)
+    public interface ReloadableMessages extends Messages {
+        @Message("Hello {0}")
+        String hello(String name);
+    }
+
+    @ResourceBundle(name = BUNDLE)
+    public interface SharedMessages extends Messages {
+        @Message("Hello {0}")
+        String hello(String name);
+    }
+
+    private BundleFixture fixture;
+
+    @Before
+    public void setup() throws Exception {
+        fixture = new BundleFixture(BUNDLE, "properties");
+
+        write(fixture.file(""), "Hello {0}");
+    }
+
+    @After
+    public void teardown() throws Exception {
+        MessageFactory.setReloadInterval(0);
+        MessageFactory.setCacheMaxEntries(MessageFactory.DEFAULT_CACHE_MAX_ENTRIES);
+        MessageFactory.clearCache();
+
+        fixture.close();
+        Files.deleteIfExists( bundleFile(classesDirectory()) );
+
+        // Forget the bundles the factory loaded from the class path for the tests that follow
+        java.util.ResourceBundle.clearCache( BundleReloadTest.class.getClassLoader() );
+    }
+
+    @Test
+    public void testReloadSwapsBundle() throws Exception {
+        MessageHandler handler = new MessageHandler(BUNDLE, Locale.ROOT, fixture.getLoader(), ReloadableMessages.class);
+
+        ReloadableMessages proxy = (ReloadableMessages) Proxy.newProxyInstance(
+                ReloadableMessages.class.getClassLoader(), new Class[] { ReloadableMessages.class }, handler);
+        ReloadableMessages generated = MessagesClassGenerator.newInstance(ReloadableMessages.class,
+                new MessageHandler(BUNDLE, Locale.ROOT, fixture.getLoader(), null));
+
+        assertEquals("Hello Ann", proxy.hello("Ann"));
+        assertEquals("Hello Ann", generated.hello("Ann"));
+
+        write(fixture.file(""), "Howdy {0}");
+
+        assertTrue(handler.reload());
+        assertTrue(((GeneratedMessages) generated).getHandler().reload());
+
+        assertEquals("Howdy Ann", proxy.hello("Ann"));
+        assertEquals("Howdy Ann", handler.format("hello", "Ann"));
+        assertEquals("Howdy Ann", generated.hello("Ann"));
+        assertEquals(1, handler.getTemplateCache().size());
+    }
+
+    @Test
+    public void testFailedReloadKeepsBundle() throws Exception {
+        MessageHandler handler = new MessageHandler(BUNDLE, Locale.ROOT, fixture.getLoader(), ReloadableMessages.class);
+
+        Files.delete( fixture.file("") );
+
+        assertFalse(handler.reload());
+        assertEquals("Hello Ann", handler.format("hello", "Ann"));
+    }
+
+    @Test
+    public void testBundlesGivenDirectlyAreNotReloadable() {
+        MessageHandler handler = new MessageHandler(new ListResourceBundle() {
+            @Override
+            protected Object[][] getContents() {
+                return new Object[][] { {"hello", "Hi {0}"} };
+            }
+        });
+
+        assertFalse(handler.isReloadable());
+        assertFalse(handler.reload());
+    }
+
+    @Test
+    public void testChangedBundleIsReloaded() throws Exception {
+        Path classes = classesDirectory();
+        write(bundleFile(classes), "Hello {0}");
+
+        MessageFactory.setReloadInterval(20);
+
+        ReloadableMessages messages = MessageFactory.create(ReloadableMessages.class, Locale.ROOT);
+
+        assertEquals("Hello Ann", messages.hello("Ann"));
+
+        // Give the reloader a chance to record the current state of the file first
+        Thread.sleep(300);
+
+        write(bundleFile(classes), "Howdy {0}");
+        Files.setLastModifiedTime(bundleFile(classes),
+                FileTime.fromMillis( System.currentTimeMillis() + 10000 ));
+
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (!"Howdy Ann".equals( messages.hello("Ann") ) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals("Howdy Ann", messages.hello("Ann"));
+        assertTrue(new I18nService().getReloadCount() > 0);
+    }
+
+    @Test
+    public void testInterfacesSharingBundleAreReloaded() throws Exception {
+        Path classes = classesDirectory();
+        write(bundleFile(classes), "Hello {0}");
+
+        ReloadableMessages reloadable = MessageFactory.create(ReloadableMessages.class, Locale.ROOT);
+        SharedMessages shared = MessageFactory.create(SharedMessages.class, Locale.ROOT);
+
+        assertEquals("Hello Ann", reloadable.hello("Ann"));
+        assertEquals("Hello Ann", shared.hello("Ann"));
+        assertEquals(2, new I18nService().getResourceBundleCount());
+
+        write(bundleFile(classes), "Howdy {0}");
+
+        assertEquals(2, MessageFactory.reloadBundles());
+        assertEquals("Howdy Ann", reloadable.hello("Ann"));
+        assertEquals("Howdy Ann", shared.hello("Ann"));
+    }
+
+    @Test
+    public void testEvictedMessagesAreReloaded() throws Exception {
+        Path classes = classesDirectory();
+        write(bundleFile(classes), "Hello {0}");
+
+        MessageFactory.setCacheMaxEntries(1);
+
+        ReloadableMessages evicted = MessageFactory.create(ReloadableMessages.class, Locale.ROOT);
+        MessageFactory.create(ReloadableMessages.class, Locale.GERMAN);
+
+        assertEquals(1, HandlerCache.size());
+
+        write(bundleFile(classes), "Howdy {0}");
+        MessageFactory.reloadBundles();
+
+        assertEquals("Howdy Ann", evicted.hello("Ann"));
+    }
+
+    private static Path classesDirectory() throws Exception {
+        return Paths.get( BundleReloadTest.class.getResource("BundleReloadTest.class").toURI() ).getParent()
+                .getParent().getParent().getParent();
+    }
+
+    private static Path bundleFile(Path dir) {
+        return dir.resolve( BUNDLE.replace('.', '/') + ".properties" );
+    }
+
+    private static void write(Path file, String hello) throws IOException {
+        Files.createDirectories( file.getParent() );
+        Files.write(file, ("hello=" + hello + "\n").getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
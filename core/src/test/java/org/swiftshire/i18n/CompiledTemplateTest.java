@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+import org.swiftshire.i18n.format.CompiledTemplate;
+import org.swiftshire.i18n.format.MessageFormatTemplate;
+import org.swiftshire.i18n.format.TemplateEngine;
+import org.swiftshire.i18n.handler.MessageHandler;
+
+import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Tests that {@link CompiledTemplate} renders exactly what {@link MessageFormat} renders.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class CompiledTemplateTest {
+
+    private static final Locale[] LOCALES = {
+            Locale.US, Locale.GERMANY, Locale.FRANCE, new Locale("es"), new Locale("ar", "EG"), new Locale("hi", "IN") };
+
+    private static final String[] PATTERNS = {
+            "",
+            "No arguments at all.",
+            "{0}",
+            "Hello {0}. You visited this website {1} times.",
+            "{1} before {0}, twice {1}",
+            "{0,number}",
+            "{0,number,integer}",
+            "{0,number,percent}",
+            "{0,number,currency}",
+            "{0,number,#,##0.00}",
+            "{0,number,000}",
+            "{0, number , integer }",
+            "{0,date}",
+            "{0,date,short} at {0,time,long}",
+            "{0,date,yyyy-MM-dd'T'HH:mm}",
+            "File \"'{0}'\" deleted.",
+            "It''s {0}''s turn.",
+            "'{'braces'}' and {0}",
+            "Unterminated quote '{0}",
+            "{0} of {5}",
+    };
+
+    private static final Object[][] ARGUMENTS = {
+            null,
+            {},
+            { null, null },
+            { "John Doe", 1 },
+            { 0, -7 },
+            { 1024, 1234567890123L },
+            { Long.MIN_VALUE, Long.MAX_VALUE },
+            { Integer.MIN_VALUE, (short) -12 },
+            { (byte) 5, 3.14159 },
+            { -0.5d, 1e20 },
+            { new BigDecimal("12345.678"), "text" },
+            { new Date(1234567890123L), new Date(0L) },
+    };
+
+    @After
+    public void teardown() {
+        MessageFactory.setTemplateEngine(TemplateEngine.MESSAGE_FORMAT);
+        MessageFactory.clearCache();
+    }
+
+    @Test
+    public void testSameOutputAsMessageFormat() {
+        for (Locale locale : LOCALES) {
+            for (String pattern : PATTERNS) {
+                CompiledTemplate template = CompiledTemplate.compile(pattern, locale);
+
+                assertNotNull(pattern, template);
+
+                for (Object[] args : ARGUMENTS) {
+                    String expected;
+
+                    try {
+                        expected = new MessageFormat(pattern, locale).format(args);
+                    }
+                    catch (IllegalArgumentException ex) {
+                        // Argument types the pattern cannot format, e.g. a string passed to a number
+                        continue;
+                    }
+
+                    assertEquals(locale + " " + pattern, expected, template.format(args));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPrimitiveArguments() {
+        long[] longs = { 0, 7, -7, 1024, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE };
+        double[] doubles = { 0.0, -0.0, 0.5, -3.14159, 1e20, Double.NaN, Double.NEGATIVE_INFINITY };
+
+        for (Locale locale : LOCALES) {
+            for (String pattern : PATTERNS) {
+                CompiledTemplate template = CompiledTemplate.compile(pattern, locale);
+                MessageFormat reference = new MessageFormat(pattern, locale);
+
+                for (int i = 0; i < longs.length; i++) {
+                    long l = longs[i];
+                    double d = doubles[i];
+
+                    assertEquals(pattern, reference.format(new Object[] { l }), template.format(l));
+                    assertEquals(pattern, reference.format(new Object[] { l, l }), template.format(l, l));
+
+                    if (pattern.contains("date") || pattern.contains("time")) {
+                        continue;
+                    }
+
+                    assertEquals(pattern, reference.format(new Object[] { d }), template.format(d));
+
+                    if (pattern.contains("number")) {
+                        continue;
+                    }
+
+                    assertEquals(pattern, reference.format(new Object[] { "x", l }), template.format("x", l));
+                    assertEquals(pattern, reference.format(new Object[] { "x", d }), template.format("x", d));
+                    assertEquals(pattern, reference.format(new Object[] { l, null }), template.format(l, (Object) null));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFormatTo() {
+        CompiledTemplate template = CompiledTemplate.compile("{0} has {1,number} files", Locale.US);
+        StringBuilder out = new StringBuilder("> ");
+
+        template.formatTo(out, "/tmp", 2048);
+
+        assertEquals("> /tmp has 2,048 files", out.toString());
+    }
+
+    @Test
+    public void testUnsupportedPatterns() {
+        assertNull(CompiledTemplate.compile("{0,choice,0#none|1#one|1<many}"));
+        assertNull(CompiledTemplate.compile("{0"));
+        assertNull(CompiledTemplate.compile("{x}"));
+        assertNull(CompiledTemplate.compile("{0,bogus}"));
+
+        assertTrue(TemplateEngine.COMPILED.compile("{0,choice,0#none|1#one}") instanceof MessageFormatTemplate);
+        assertEquals("one", TemplateEngine.COMPILED.compile("{0,choice,0#none|1#one}").format(1));
+    }
+
+    @Test
+    public void testEngineSelection() {
+        MessageFactory.clearCache();
+        MessageFactory.setTemplateEngine(TemplateEngine.COMPILED);
+
+        TestMessages messages = MessageFactory.create(TestMessages.class, new Locale("en", "us"));
+        MessageHandler handler = MessageFactory.activeHandlers().get(0);
+
+        assertEquals(TemplateEngine.COMPILED, handler.getTemplateCache().getEngine());
+        assertTrue(handler.getTemplate("hello") instanceof CompiledTemplate);
+        assertEquals("Hello John Doe. You visited this website 1 times.", messages.hello("John Doe", 1));
+        assertEquals("This is an English welcome message.", messages.welcome());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.swiftshire.i18n.format.PrimitiveTemplate;
+import org.swiftshire.i18n.format.TemplateEngine;
+import org.swiftshire.i18n.handler.GeneratedMessages;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.text.MessageFormat;
+import java.util.Locale;
+
+/**
+ * Tests for {@link Messages} implementations generated at run time.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class GeneratedMessagesTest {
+
+    @Before
+    public void setup() {
+        MessageFactory.clearCache();
+        MessageFactory.setGenerateClasses(true);
+    }
+
+    @After
+    public void teardown() {
+        MessageFactory.setGenerateClasses(false);
+        MessageFactory.clearCache();
+    }
+
+    @Test
+    public void testGeneratedImplementation() {
+        TestMessages messages = MessageFactory.create(TestMessages.class, new Locale("en", "us"));
+
+        assertTrue(messages instanceof GeneratedMessages);
+        assertFalse(Proxy.isProxyClass(messages.getClass()));
+
+        assertEquals("This is an English welcome message.", messages.welcome());
+        assertEquals("Hello John Doe. You visited this website 1 times.", messages.hello("John Doe", 1));
+        assertEquals("Hello Tom Foolery. You visited this website 2 times.", messages.format("hello", "Tom Foolery", 2));
+        assertEquals(new Locale("en", "us"), messages.getLocale());
+    }
+
+    @Test
+    public void testGeneratedAppendableTargets() throws IOException {
+        TestMessages messages = MessageFactory.create(TestMessages.class, new Locale("en", "us"));
+
+        assertTrue(messages instanceof GeneratedMessages);
+
+        StringBuilder buffer = new StringBuilder();
+
+        messages.hello(buffer, "John Doe", 1);
+        messages.formatTo(buffer, " {0}", "ignored");
+
+        assertEquals("Hello John Doe. You visited this website 1 times.!! {0}!!", buffer.toString());
+
+        StringWriter writer = new StringWriter();
+
+        messages.welcome(writer);
+        messages.formatTo(writer, "hello", "Jane Doe", 2);
+
+        assertEquals("This is an English welcome message.Hello Jane Doe. You visited this website 2 times.",
+                writer.toString());
+    }
+
+    @Test
+    public void testGeneratedLocaleAwareTargets() throws IOException {
+        TestMessages messages = MessageFactory.createLocaleAware(TestMessages.class);
+        Locale previous = MessageFactory.getLocale();
+
+        try {
+            MessageFactory.setThreadLocale(new Locale("en", "us"));
+
+            assertTrue(MessageFactory.create(TestMessages.class, new Locale("en", "us")) instanceof GeneratedMessages);
+            assertEquals("This is an English welcome message.", messages.welcome());
+            assertEquals("Hello John Doe. You visited this website 1 times.", messages.hello("John Doe", 1));
+            assertEquals("Hello Tom Foolery. You visited this website 2 times.", messages.format("hello", "Tom Foolery", 2));
+            assertEquals(new Locale("en", "us"), messages.getLocale());
+
+            StringBuilder buffer = new StringBuilder();
+            StringWriter writer = new StringWriter();
+
+            messages.hello(buffer, "Jane Doe", 2);
+            messages.welcome(writer);
+
+            assertEquals("Hello Jane Doe. You visited this website 2 times.", buffer.toString());
+            assertEquals("This is an English welcome message.", writer.toString());
+        }
+        finally {
+            MessageFactory.setThreadLocale(previous);
+        }
+    }
+
+    @Test
+    public void testGeneratedImplementationPerLocale() {
+        GenericMessages en = MessageFactory.create(GenericMessages.class, "en_US");
+        GenericMessages es = MessageFactory.create(GenericMessages.class, "es");
+
+        assertEquals(en.getClass(), es.getClass());
+        assertEquals("Directory /tmp contains 5 folders.", en.directoryContains("/tmp", 5));
+        assertEquals("El gabinete /tmp contiene 5 carpetas.", es.directoryContains("/tmp", 5));
+        assertEquals("Added 5 files.", en.addedFiles(5));
+        assertEquals("File \"{0}\" deleted.", en.myStuffDeleted());
+    }
+
+    @Test
+    public void testUnboxedArguments() {
+        MessageFactory.setTemplateEngine(TemplateEngine.COMPILED);
+
+        try {
+            GenericMessages en = MessageFactory.create(GenericMessages.class, "en_US");
+
+            assertTrue(en instanceof GeneratedMessages);
+            assertTrue(((GeneratedMessages) en).getHandler().getTemplate("addedFiles") instanceof PrimitiveTemplate);
+
+            assertEquals(new MessageFormat("Added {0,number} files.").format(new Object[] { 1024 }), en.addedFiles(1024));
+            assertEquals("Directory /tmp contains -5 folders.", en.directoryContains("/tmp", -5));
+            assertEquals("Directory null contains 0 folders.", en.directoryContains(null, 0));
+        }
+        finally {
+            MessageFactory.setTemplateEngine(TemplateEngine.MESSAGE_FORMAT);
+        }
+    }
+
+    @Test
+    public void testProxyWhenDisabled() {
+        MessageFactory.setGenerateClasses(false);
+
+        TestMessages messages = MessageFactory.create(TestMessages.class, new Locale("en", "us"));
+
+        assertTrue(Proxy.isProxyClass(messages.getClass()));
+    }
+}
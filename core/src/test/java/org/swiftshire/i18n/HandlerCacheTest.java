@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the bounded cache of messages objects
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class HandlerCacheTest {
+    private static final Locale A = new Locale("xa");
+    private static final Locale B = new Locale("xb");
+    private static final Locale C = new Locale("xc");
+    private static final Locale D = new Locale("xd");
+
+    private final I18nService service = new I18nService();
+
+    @Before
+    public void setup() {
+        MessageFactory.clearCache();
+    }
+
+    @After
+    public void teardown() {
+        MessageFactory.setCacheMaxEntries(MessageFactory.DEFAULT_CACHE_MAX_ENTRIES);
+        MessageFactory.setCachePolicy(CachePolicy.LRU);
+        MessageFactory.setSoftReferences(false);
+        MessageFactory.clearCache();
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        MessageFactory.setCacheMaxEntries(4);
+
+        long evictions = service.getCacheEvictions();
+
+        for (int i = 0; i < 10; i++) {
+            GenericMessages messages = MessageFactory.create(GenericMessages.class, new Locale("x" + i));
+
+            assertEquals("Added 3 files.", messages.addedFiles(3));
+        }
+
+        assertEquals(4, service.getResourceBundleCount());
+        assertEquals(4, HandlerCache.size());
+        assertEquals(6, service.getCacheEvictions() - evictions);
+
+        MessageFactory.setCacheMaxEntries(2);
+
+        assertEquals(2, service.getResourceBundleCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        MessageFactory.setCacheMaxEntries(3);
+
+        GenericMessages a = MessageFactory.create(GenericMessages.class, A);
+        GenericMessages b = MessageFactory.create(GenericMessages.class, B);
+        MessageFactory.create(GenericMessages.class, C);
+
+        assertSame(a, MessageFactory.create(GenericMessages.class, A));
+
+        MessageFactory.create(GenericMessages.class, D);
+
+        assertSame(a, MessageFactory.create(GenericMessages.class, A));
+        assertNotSame(b, MessageFactory.create(GenericMessages.class, B));
+    }
+
+    @Test
+    public void testLeastFrequentlyUsedIsEvicted() {
+        MessageFactory.setCacheMaxEntries(3);
+        MessageFactory.setCachePolicy(CachePolicy.LFU);
+
+        GenericMessages a = MessageFactory.create(GenericMessages.class, A);
+        GenericMessages b = MessageFactory.create(GenericMessages.class, B);
+        GenericMessages c = MessageFactory.create(GenericMessages.class, C);
+
+        for (int i = 0; i < 5; i++) {
+            MessageFactory.create(GenericMessages.class, A);
+            MessageFactory.create(GenericMessages.class, C);
+        }
+
+        MessageFactory.create(GenericMessages.class, D);
+
+        assertSame(a, MessageFactory.create(GenericMessages.class, A));
+        assertSame(c, MessageFactory.create(GenericMessages.class, C));
+        assertNotSame(b, MessageFactory.create(GenericMessages.class, B));
+    }
+
+    @Test
+    public void testHitCountsDoNotWrap() {
+        MessageFactory.setCacheMaxEntries(3);
+        MessageFactory.setCachePolicy(CachePolicy.LFU);
+
+        GenericMessages a = MessageFactory.create(GenericMessages.class, A);
+        GenericMessages b = MessageFactory.create(GenericMessages.class, B);
+        MessageFactory.create(GenericMessages.class, C);
+
+        HandlerCache.Entry hot = HandlerCache.entry(a);
+        long hits = service.getCacheHits();
+
+        hot.hits = Integer.MAX_VALUE - 1;
+        hot.frequency = Integer.MAX_VALUE - 1;
+
+        for (int i = 0; i < 3; i++) {
+            MessageFactory.create(GenericMessages.class, A);
+            MessageFactory.create(GenericMessages.class, B);
+        }
+
+        assertEquals(Integer.MAX_VALUE, hot.frequency);
+        assertEquals(hits + Integer.MAX_VALUE + 5, service.getCacheHits());
+        assertTrue(service.getCacheHitRate() > 0.0);
+
+        MessageFactory.create(GenericMessages.class, D);
+
+        assertSame(a, MessageFactory.create(GenericMessages.class, A));
+        assertSame(b, MessageFactory.create(GenericMessages.class, B));
+        assertEquals(Integer.MAX_VALUE / 2 + 1, hot.frequency);
+    }
+
+    @Test
+    public void testFrequenciesDecay() {
+        MessageFactory.setCacheMaxEntries(2);
+        MessageFactory.setCachePolicy(CachePolicy.LFU);
+
+        GenericMessages a = MessageFactory.create(GenericMessages.class, A);
+
+        HandlerCache.entry(a).frequency = 8;
+
+        // Every admission past the limit halves the frequencies of the resident entries
+        for (int i = 0; i < 5; i++) {
+            MessageFactory.create(GenericMessages.class, new Locale("y" + i));
+        }
+
+        assertNull(HandlerCache.entry(a));
+    }
+
+    @Test
+    public void testSoftReferencesReviveColdLocales() {
+        MessageFactory.setCacheMaxEntries(1);
+        MessageFactory.setSoftReferences(true);
+
+        GenericMessages a = MessageFactory.create(GenericMessages.class, A);
+        GenericMessages b = MessageFactory.create(GenericMessages.class, B);
+
+        assertEquals(1, service.getResourceBundleCount());
+        assertEquals(1, service.getSoftCacheSize());
+
+        // Still reachable through our own reference so the soft reference cannot have been cleared
+        assertSame(a, MessageFactory.create(GenericMessages.class, A));
+        assertSame(b, MessageFactory.create(GenericMessages.class, B));
+    }
+
+    @Test
+    public void testStatistics() {
+        long hits = service.getCacheHits();
+        long misses = service.getCacheMisses();
+
+        MessageFactory.create(GenericMessages.class, A);
+        MessageFactory.create(GenericMessages.class, A);
+        MessageFactory.create(GenericMessages.class, A);
+
+        assertEquals(1, service.getCacheMisses() - misses);
+        assertEquals(2, service.getCacheHits() - hits);
+        assertTrue(service.getCacheHitRate() > 0.0);
+        assertEquals("LRU", service.getCachePolicy());
+
+        service.setCachePolicy("lfu");
+
+        assertEquals(CachePolicy.LFU, MessageFactory.getCachePolicy());
+    }
+}
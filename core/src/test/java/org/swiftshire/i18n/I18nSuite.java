@@ -23,8 +23,23 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         MessageFactoryTest.class,
+        BinaryBundleTest.class,
+        BundleIndexTest.class,
+        BundleReloadTest.class,
+        CompiledTemplateTest.class,
+        GeneratedMessagesTest.class,
+        HandlerCacheTest.class,
+        LocaleContextTest.class,
+        LocaleRegistryTest.class,
+        MemoizedTemplateTest.class,
+        MessagePoolTest.class,
+        MessagesControlTest.class,
+        MessagesProcessorTest.class,
         MessagesProxyTest.class,
-        PropertyBundleTest.class
+        PropertyBundleTest.class,
+        ResolvedBundleTest.class,
+        XliffBundleTest.class,
+        XmlBundleTest.class
 })
 public class I18nSuite {
     // i18n package junit test suite
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swiftshire.i18n;
+
+import org.swiftshire.i18n.locale.LocaleContext;
+import org.swiftshire.i18n.locale.ScopedLocaleContext;
+import org.swiftshire.i18n.locale.ThreadLocaleContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link LocaleContext} strategies when every task sets a locale, reads it a number of times and
+ * completes, as a request would, and when every task only reads the locale without binding one. Tasks run on a fixed pool of platform threads, on a new platform thread each
+ * and, where the running JVM supports them, on a new virtual thread each. This is not a unit test; run it with
+ * {@code java -cp <test classpath> org.swiftshire.i18n.LocaleContextBenchmark [tasks] [reads]}.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class LocaleContextBenchmark {
+
+    private static final Locale[] LOCALES = { Locale.US, Locale.GERMANY, Locale.FRANCE, Locale.JAPAN };
+
+    public static void main(String[] args) throws Exception {
+        final int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        final int reads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("Round " + (round + 1));
+
+            run("pooled platform threads", Executors.newFixedThreadPool(16), tasks, reads);
+            run("platform thread per task", Executors.newCachedThreadPool(), tasks, reads);
+
+            ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+
+            if (virtual != null) {
+                run("virtual thread per task", virtual, tasks, reads);
+            }
+            else if (round == 0) {
+                System.out.println("  virtual threads are not available on this JVM");
+            }
+        }
+    }
+
+    private static void run(String name, ExecutorService executor, int tasks, int reads) throws Exception {
+        try {
+            for (boolean bind : new boolean[] { true, false }) {
+                long thread = measure(new ThreadLocaleContext(), executor, tasks, reads, bind);
+                long scoped = measure(new ScopedLocaleContext(), executor, tasks, reads, bind);
+
+                System.out.printf("  %-26s %-7s ThreadLocaleContext %6d ms   ScopedLocaleContext %6d ms%n", name,
+                        bind ? "bound" : "unbound", TimeUnit.NANOSECONDS.toMillis(thread),
+                        TimeUnit.NANOSECONDS.toMillis(scoped));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long measure(final LocaleContext context, ExecutorService executor, int tasks, final int reads,
+                                final boolean bind) throws Exception {
+
+        List<Future<Integer>> results = new ArrayList<>(tasks);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < tasks; i++) {
+            final Locale locale = LOCALES[i % LOCALES.length];
+
+            final Callable<Integer> read = new Callable<Integer>() {
+                public Integer call() {
+                    int hash = 0;
+
+                    for (int r = 0; r < reads; r++) {
+                        hash += context.getLocale().hashCode();
+                    }
+
+                    return hash;
+                }
+            };
+
+            results.add(executor.submit(new Callable<Integer>() {
+                public Integer call() throws Exception {
+                    return bind ? context.callWithLocale(locale, read) : read.call();
+                }
+            }));
+        }
+
+        for (Future<Integer> result : results) {
+            result.get();
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively since the build targets
+     * JVMs without virtual threads.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swiftshire.i18n;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+import org.swiftshire.i18n.locale.LocaleManager;
+import org.swiftshire.i18n.locale.ScopedLocaleContext;
+import org.swiftshire.i18n.locale.ThreadLocaleContext;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests for the {@link org.swiftshire.i18n.locale.LocaleContext} strategies of {@link LocaleManager}.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class LocaleContextTest {
+
+    @After
+    public void teardown() {
+        LocaleManager.getManager().setContext( new ThreadLocaleContext() );
+    }
+
+    @Test
+    public void testDefaultContext() {
+        assertTrue(LocaleManager.getManager().getContext() instanceof ThreadLocaleContext);
+    }
+
+    @Test
+    public void testScopedLocale() throws Exception {
+        final LocaleManager manager = LocaleManager.getManager();
+        final Locale german = new Locale("de", "DE");
+        final Locale french = new Locale("fr", "FR");
+
+        manager.setContext( new ScopedLocaleContext() );
+        manager.setLocale(Locale.US);
+
+        assertEquals(Locale.US, manager.getLocale());
+
+        String result = manager.callWithLocale(german, new Callable<String>() {
+            public String call() throws Exception {
+                assertEquals(german, manager.getLocale());
+
+                // Nested scopes restore the outer binding
+                manager.callWithLocale(french, new Callable<Void>() {
+                    public Void call() {
+                        assertEquals(french, manager.getLocale());
+                        return null;
+                    }
+                });
+
+                assertEquals(german, manager.getLocale());
+
+                // Threads started by the task inherit its locale
+                final AtomicReference<Locale> inherited = new AtomicReference<>();
+
+                Thread child = new Thread() {
+                    public void run() {
+                        inherited.set( manager.getLocale() );
+                    }
+                };
+
+                child.start();
+                child.join();
+
+                assertEquals(german, inherited.get());
+
+                return MessageFactory.createLocaleAware(GenericMessages.class).addedFiles(5);
+            }
+        });
+
+        assertEquals("Added 5 files.", result);
+        assertEquals(Locale.US, manager.getLocale());
+    }
+
+    @Test
+    public void testInheritedLocaleOutlivesScope() throws Exception {
+        final LocaleManager manager = LocaleManager.getManager();
+        final CountDownLatch scopeDone = new CountDownLatch(1);
+        final AtomicReference<Locale> inherited = new AtomicReference<>();
+
+        manager.setContext( new ScopedLocaleContext() );
+        manager.setLocale(Locale.US);
+
+        Thread child = manager.callWithLocale(Locale.GERMANY, new Callable<Thread>() {
+            public Thread call() {
+                Thread thread = new Thread() {
+                    public void run() {
+                        try {
+                            scopeDone.await();
+                            inherited.set( manager.getLocale() );
+                        }
+                        catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                };
+
+                thread.start();
+                return thread;
+            }
+        });
+
+        scopeDone.countDown();
+        child.join();
+
+        assertEquals(Locale.US, manager.getLocale());
+        assertEquals(Locale.GERMANY, inherited.get());
+    }
+
+    @Test
+    public void testThreadLocaleContextScope() throws Exception {
+        final LocaleManager manager = LocaleManager.getManager();
+
+        manager.setThreadLocale(Locale.US);
+
+        Locale inside = manager.callWithLocale(Locale.GERMANY, new Callable<Locale>() {
+            public Locale call() {
+                return manager.getLocale();
+            }
+        });
+
+        assertEquals(Locale.GERMANY, inside);
+        assertEquals(Locale.US, manager.getLocale());
+    }
+
+    @Test
+    public void testThreadLocaleContextScopeKeepsGlobalLocale() throws Exception {
+        final LocaleManager manager = LocaleManager.getManager();
+
+        manager.setLocale(Locale.FRANCE);
+
+        Locale inside = manager.callWithLocale(Locale.GERMANY, new Callable<Locale>() {
+            public Locale call() {
+                return manager.getLocale();
+            }
+        });
+
+        final AtomicReference<Locale> other = new AtomicReference<>();
+
+        Thread thread = new Thread() {
+            public void run() {
+                other.set( manager.getLocale() );
+            }
+        };
+
+        thread.start();
+        thread.join();
+
+        assertEquals(Locale.GERMANY, inside);
+        assertEquals(Locale.FRANCE, manager.getLocale());
+        assertEquals(Locale.FRANCE, other.get());
+    }
+}
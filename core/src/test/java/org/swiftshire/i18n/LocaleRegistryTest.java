@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swiftshire.i18n;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.swiftshire.i18n.locale.LocaleRegistry;
+
+import java.util.Locale;
+
+/**
+ * Tests for the {@link LocaleRegistry}.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class LocaleRegistryTest {
+
+    @Test
+    public void testParseInternsLocales() {
+        Locale parsed = LocaleRegistry.parse("pt_BR");
+
+        assertEquals(new Locale("pt", "BR"), parsed);
+        assertSame(parsed, LocaleRegistry.parse("pt_BR"));
+        assertSame(parsed, LocaleRegistry.parse("PT_br"));
+        assertSame(parsed, LocaleRegistry.intern( new Locale("pt", "BR") ));
+        assertSame(parsed, LocaleRegistry.of("pt", "BR", ""));
+
+        assertEquals(new Locale("pt"), LocaleRegistry.parse("pt"));
+        assertEquals(new Locale("no", "NO", "NY"), LocaleRegistry.of("no", "NO", "NY"));
+        assertEquals(new Locale("en", "", "POSIX"), LocaleRegistry.of("en", "", "POSIX"));
+        assertSame(LocaleRegistry.of("no", "NO", "NY"), LocaleRegistry.of("no", "NO", "NY"));
+        assertSame(LocaleRegistry.parse("no_NO_NY"), LocaleRegistry.of("no", "NO", "NY"));
+    }
+
+    @Test
+    public void testLocaleIds() {
+        int brazil = LocaleRegistry.id( new Locale("pt", "BR") );
+        int portugal = LocaleRegistry.id( new Locale("pt", "PT") );
+
+        assertTrue(brazil >= 0 && brazil < LocaleRegistry.MAX_LOCALES);
+        assertNotEquals(brazil, portugal);
+        assertEquals(brazil, LocaleRegistry.id( LocaleRegistry.parse("pt_BR") ));
+        assertSame(LocaleRegistry.parse("pt_PT"), LocaleRegistry.locale(portugal));
+    }
+
+    @Test
+    public void testFactoryUsesCanonicalLocales() {
+        GenericMessages parsed = MessageFactory.create(GenericMessages.class, "es");
+
+        assertSame(parsed, MessageFactory.create(GenericMessages.class, new Locale("es")));
+        assertEquals(new Locale("es"), parsed.getLocale());
+
+        MessageFactory.setThreadLocale("es");
+
+        assertSame(LocaleRegistry.parse("es"), MessageFactory.getLocale());
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.swiftshire.i18n;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.swiftshire.i18n.annotation.BundleType;
+import org.swiftshire.i18n.annotation.Message;
+import org.swiftshire.i18n.annotation.ResourceBundle;
+import org.swiftshire.i18n.format.MessageTemplate;
+import org.swiftshire.i18n.handler.GeneratedMessages;
+import org.swiftshire.i18n.handler.MemoizedTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link MemoizedTemplate}
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class MemoizedTemplateTest {
+
+    @Before
+    public void setup() {
+        MessageFactory.clearCache();
+    }
+
+    @After
+    public void teardown() {
+        MessageFactory.setGenerateClasses(false);
+        MessageFactory.clearCache();
+    }
+
+    @Test
+    public void testRepeatedCallsAreRemembered() {
+        CountingTemplate counting = new CountingTemplate();
+        MemoizedTemplate template = new MemoizedTemplate(counting, 8);
+
+        long hits = MemoizedTemplate.getHitCount();
+
+        assertEquals("a:1", template.format("a", 1));
+        assertEquals("a:1", template.format("a", 1));
+        assertEquals("a:2", template.format("a", 2L));
+        assertEquals("SECONDS:null", template.format(TimeUnit.SECONDS, null));
+        assertEquals("SECONDS:null", template.format(TimeUnit.SECONDS, null));
+
+        assertEquals(3, counting.renders);
+        assertEquals(3, template.size());
+        assertTrue(MemoizedTemplate.getHitCount() >= hits + 2);
+
+        StringBuilder out = new StringBuilder(">");
+        template.formatTo(out, "a", 1);
+        assertEquals(">a:1", out.toString());
+        assertEquals(3, counting.renders);
+    }
+
+    @Test
+    public void testMutableArgumentsAreRenderedEveryTime() {
+        CountingTemplate counting = new CountingTemplate();
+        MemoizedTemplate template = new MemoizedTemplate(counting, 8);
+        Date date = new Date(0);
+
+        template.format("a", date);
+        template.format("a", date);
+
+        assertEquals(2, counting.renders);
+        assertEquals(0, template.size());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        CountingTemplate counting = new CountingTemplate();
+        MemoizedTemplate template = new MemoizedTemplate(counting, 2);
+
+        long evictions = MemoizedTemplate.getEvictionCount();
+
+        for (int i = 0; i < 5; i++) {
+            template.format("a", i);
+        }
+
+        assertEquals(2, template.size());
+        assertEquals(5, counting.renders);
+        assertTrue(MemoizedTemplate.getEvictionCount() >= evictions + 3);
+    }
+
+    @Test
+    public void testUsedMessagesSurviveEviction() {
+        CountingTemplate counting = new CountingTemplate();
+        MemoizedTemplate template = new MemoizedTemplate(counting, 3);
+
+        template.format("hot", 0);
+
+        for (int i = 0; i < 20; i++) {
+            template.format("cold", i);
+            template.format("hot", 0);
+        }
+
+        assertEquals(21, counting.renders);
+        assertEquals(3, template.size());
+    }
+
+    @Test
+    public void testSizeIsBoundedUnderConcurrency() throws Exception {
+        final CountingTemplate counting = new CountingTemplate();
+        final MemoizedTemplate template = new MemoizedTemplate(counting, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+
+                results.add(executor.submit(new Runnable() {
+                    public void run() {
+                        for (int i = 0; i < 2000; i++) {
+                            template.format("t" + thread, i % 40);
+                            assertTrue(template.size() <= 16);
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(template.size() <= 16);
+    }
+
+    @Test
+    public void testAnnotatedMethodsAreMemoized() {
+        for (boolean generate : new boolean[] { false, true }) {
+            MessageFactory.clearCache();
+            MessageFactory.setGenerateClasses(generate);
+
+            StatusMessages messages = MessageFactory.create(StatusMessages.class, Locale.ENGLISH);
+
+            assertEquals(generate, messages instanceof GeneratedMessages);
+
+            long hits = new I18nService().getMemoHits();
+
+            assertEquals("Build 7 is RUNNING", messages.status(7));
+            assertEquals("Build 7 is RUNNING", messages.status(7));
+            assertEquals("Deploy 7", messages.deploy(7));
+            assertEquals("Deploy 7", messages.deploy(7));
+
+            // Only status is memoized; deploy opts out
+            assertEquals(hits + 1, new I18nService().getMemoHits());
+            assertTrue(new I18nService().getMemoHitRate() > 0.0);
+        }
+    }
+
+    @ResourceBundle(type = BundleType.NONE, memoize = 16)
+    public interface StatusMessages extends Messages {
+        @Message("Build {0} is RUNNING")
+        String status(int build);
+
+        @Message(value = "Deploy {0}", memoize = 0)
+        String deploy(int build);
+    }
+
+    private static final class CountingTemplate implements MessageTemplate {
+        int renders;
+
+        public String format(Object... args) {
+            renders++;
+            return args[0] + ":" + args[1];
+        }
+
+        public void formatTo(StringBuilder out, Object... args) {
+            out.append( format(args) );
+        }
+
+        public String getPattern() {
+            return "{0}:{1}";
+        }
+    }
+}
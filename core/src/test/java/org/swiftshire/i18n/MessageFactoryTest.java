@@ -21,9 +21,21 @@ import static org.junit.Assert.*;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.swiftshire.i18n.annotation.Message;
+import org.swiftshire.i18n.annotation.ResourceBundle;
+import org.swiftshire.i18n.handler.MessageHandler;
 
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -81,4 +93,212 @@ public class MessageFactoryTest {
 
         assertEquals(MessageFactory.getLocale(), german);
     }
+
+    @Test
+    public void testConcurrentCreationLoadsOnce() throws Exception {
+        final Locale locale = new Locale("xx", "YY");
+        final CountDownLatch start = new CountDownLatch(1);
+        final int fabricated = MessageFactory.fabricatedBundleCount.get();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<TestMessages>> results = new ArrayList<>();
+
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(new Callable<TestMessages>() {
+                    public TestMessages call() throws InterruptedException {
+                        start.await();
+                        return MessageFactory.create(TestMessages.class, locale);
+                    }
+                }));
+            }
+
+            start.countDown();
+
+            TestMessages first = results.get(0).get(10, TimeUnit.SECONDS);
+
+            for (Future<TestMessages> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+
+            assertEquals(fabricated + 1, MessageFactory.fabricatedBundleCount.get());
+            assertSame(first, MessageFactory.create(TestMessages.class, locale));
+        }
+        finally {
+            executor.shutdownNow();
+            MessageFactory.clearCache();
+        }
+    }
+
+    @ResourceBundle(name = "org.swiftshire.i18n.GenericMessages")
+    public interface FolderMessages extends Messages {
+        @Message("Folder {0} is empty.")
+        String folderEmpty(String folderName);
+    }
+
+    @ResourceBundle(name = "org.swiftshire.i18n.GenericMessages")
+    public interface FileMessages extends Messages {
+        @Message("Added {0,number} files.")
+        String addedFiles(int fileCount);
+    }
+
+    @Test
+    public void testRegistryPerInterface() {
+        Locale locale = new Locale("en", "US");
+
+        FolderMessages folders = MessageFactory.create(FolderMessages.class, locale);
+        FileMessages files = MessageFactory.create(FileMessages.class, locale);
+
+        assertSame(folders, MessageFactory.create(FolderMessages.class, locale));
+        assertSame(files, MessageFactory.create(FileMessages.class, locale));
+        assertEquals("Folder /tmp is empty.", folders.folderEmpty("/tmp"));
+        assertEquals("Added 5 files.", files.addedFiles(5));
+
+        MessageFactory.clearCache();
+
+        assertEquals(0, new I18nService().getResourceBundleCount());
+        assertNotSame(folders, MessageFactory.create(FolderMessages.class, locale));
+    }
+
+    @Test
+    public void testLocaleAwareMessages() throws Exception {
+        final GenericMessages messages = MessageFactory.createLocaleAware(GenericMessages.class);
+
+        assertSame(messages, MessageFactory.createLocaleAware(GenericMessages.class));
+
+        final Locale previous = MessageFactory.getLocale();
+
+        try {
+            MessageFactory.setThreadLocale(new Locale("en", "US"));
+
+            assertEquals("Directory /tmp contains 5 folders.", messages.directoryContains("/tmp", 5));
+            assertEquals(new Locale("en", "US"), messages.getLocale());
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+
+            try {
+                Future<String> spanish = executor.submit(new Callable<String>() {
+                    public String call() {
+                        MessageFactory.setThreadLocale(new Locale("es"));
+                        return messages.directoryContains("/tmp", 5);
+                    }
+                });
+
+                assertEquals("El gabinete /tmp contiene 5 carpetas.", spanish.get(10, TimeUnit.SECONDS));
+            }
+            finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals("Directory /tmp contains 5 folders.", messages.directoryContains("/tmp", 5));
+            assertEquals(messages, messages);
+            assertFalse(messages.equals(MessageFactory.create(GenericMessages.class, new Locale("en", "US"))));
+        }
+        finally {
+            MessageFactory.setThreadLocale(previous);
+        }
+    }
+
+    @Test
+    public void testLocaleAwareTargetsAreKeptPerLocale() {
+        GenericMessages messages = MessageFactory.createLocaleAware(GenericMessages.class);
+        LocaleDispatcher<?> dispatcher = (LocaleDispatcher<?>) Proxy.getInvocationHandler(messages);
+
+        List<LocaleDispatcher.Target> targets = new ArrayList<>();
+
+        for (int i = 0; i < 40; i++) {
+            targets.add( dispatcher.target(new Locale("es", "X" + i)) );
+        }
+
+        for (int i = 0; i < 40; i++) {
+            assertSame(targets.get(i), dispatcher.target(new Locale("es", "X" + i)));
+        }
+    }
+
+    @Test
+    public void testExpandFallbackChain() {
+        List<String> names = MessageFactory.expand("Messages", new Locale("en", "US", "POSIX"), ".properties");
+
+        assertEquals(4, names.size());
+        assertEquals("Messages_en_US_POSIX.properties", names.get(0));
+        assertEquals("Messages_en_US.properties", names.get(1));
+        assertEquals("Messages_en.properties", names.get(2));
+        assertEquals("Messages.properties", names.get(3));
+
+        assertSame(names, MessageFactory.expand("Messages", new Locale("en", "US", "POSIX"), ".properties"));
+        assertEquals(1, MessageFactory.expand("Messages", Locale.ROOT, "").size());
+    }
+
+    @Test
+    public void testPreload() {
+        List<Class<? extends Messages>> types = new ArrayList<>();
+        types.add(GenericMessages.class);
+        types.add(MessageHandler.class);
+
+        PreloadReport report = MessageFactory.preload(types, Arrays.asList(new Locale("en", "US"), new Locale("es")));
+
+        assertEquals(4, report.getEntries().size());
+        assertEquals(2, report.getLoadedCount());
+        assertEquals(2, report.getFailedCount());
+
+        PreloadReport.Entry spanish = report.getEntries().get(1);
+
+        assertEquals(GenericMessages.class, spanish.getType());
+        assertEquals(new Locale("es"), spanish.getLocale());
+        assertTrue(spanish.isLoaded());
+        assertEquals(5, spanish.getTemplateCount());
+        assertFalse(report.getEntries().get(2).isLoaded());
+
+        MessageHandler handler = MessageFactory.handlerOf( MessageFactory.create(GenericMessages.class, new Locale("es")) );
+
+        assertEquals(5, handler.getTemplateCache().size());
+        assertTrue(report.toString().startsWith("Preloaded 2 of 4 bundles"));
+    }
+
+    @Test
+    public void testMissingBundleCache() {
+        Locale french = new Locale("fr");
+
+        MessageFactory.clearCache();
+        MessageFactory.setFabricateBundles(false);
+
+        try {
+            int missing = MessageFactory.missingBundleCount.get();
+            long hits = MessageFactory.missingBundleHits.get();
+
+            MissingResourceException[] failures = new MissingResourceException[3];
+
+            for (int i = 0; i < 3; i++) {
+                try {
+                    MessageFactory.create(GenericMessages.class, french);
+                    fail("Expected a missing bundle");
+                }
+                catch (MissingResourceException expected) {
+                    failures[i] = expected;
+                }
+            }
+
+            // Every remembered miss is reported with an exception of its own
+            assertNotSame(failures[1], failures[2]);
+            assertEquals(failures[0].getMessage(), failures[2].getMessage());
+            assertEquals(failures[0].getKey(), failures[2].getKey());
+
+            assertEquals(missing + 1, MessageFactory.missingBundleCount.get());
+            assertEquals(hits + 2, MessageFactory.missingBundleHits.get());
+            assertTrue(new I18nService().fetchBundles().get(0).startsWith("org.swiftshire.i18n.GenericMessages_fr (missing"));
+
+            MessageFactory.setSubstituteLocale(new Locale("es"));
+
+            GenericMessages messages = MessageFactory.create(GenericMessages.class, french);
+
+            assertEquals("El gabinete /tmp contiene 5 carpetas.", messages.directoryContains("/tmp", 5));
+            assertSame(MessageFactory.create(GenericMessages.class, new Locale("es")), messages);
+        }
+        finally {
+            MessageFactory.setFabricateBundles(true);
+            MessageFactory.setSubstituteLocale(null);
+            MessageFactory.clearCache();
+        }
+    }
 }
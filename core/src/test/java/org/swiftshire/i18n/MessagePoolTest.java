@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.junit.Test;
+import org.swiftshire.i18n.format.TemplateEngine;
+import org.swiftshire.i18n.handler.MessageHandler;
+import org.swiftshire.i18n.handler.MessagePool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link MessagePool}
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class MessagePoolTest {
+
+    @Test
+    public void testStringsAreShared() {
+        String text = new String("Acme Widgets");
+        String copy = new String("Acme Widgets");
+
+        long saved = MessagePool.getBytesSaved();
+
+        assertSame(text, MessagePool.intern(text));
+        assertSame(text, MessagePool.intern(copy));
+        assertTrue(MessagePool.getBytesSaved() > saved);
+        assertNull(MessagePool.intern(null));
+    }
+
+    @Test
+    public void testSavingsAreCurrent() {
+        String text = new String("Acme Gadgets");
+
+        MessagePool.clear();
+
+        assertEquals(0, MessagePool.getBytesSaved());
+        assertSame(text, MessagePool.intern(text));
+        assertSame(text, MessagePool.intern( new String(text) ));
+        assertSame(text, MessagePool.intern( new String(text) ));
+
+        long saved = MessagePool.getBytesSaved();
+
+        assertTrue(saved > 0);
+        assertEquals(1, MessagePool.getStringCount());
+
+        MessagePool.clear();
+
+        assertEquals(0, MessagePool.getBytesSaved());
+        assertEquals(0, MessagePool.getStringCount());
+    }
+
+    @Test
+    public void testConcurrentInterning() throws Exception {
+        final String text = new String("Acme Gizmos");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    public String call() {
+                        return MessagePool.intern( new String(text) );
+                    }
+                }));
+            }
+
+            String pooled = MessagePool.intern(text);
+
+            for (Future<String> result : results) {
+                assertSame(pooled, result.get(10, TimeUnit.SECONDS));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBundlesShareValuesAndTemplates() {
+        MessageHandler english = new MessageHandler(new Brand("Acme {0}"), null, TemplateEngine.COMPILED);
+        MessageHandler french = new MessageHandler(new Brand("Acme {0}"), null, TemplateEngine.COMPILED);
+
+        long hits = new I18nService().getPoolHits();
+
+        assertSame(english.getBundle().getString("brand"), french.getBundle().getString("brand"));
+        assertSame(english.getTemplate("brand"), french.getTemplate("brand"));
+        assertEquals("Acme Widgets", french.getTemplate("brand").format("Widgets"));
+        assertTrue(new I18nService().getPoolHits() > hits);
+        assertTrue(new I18nService().getPoolBytesSaved() > 0);
+    }
+
+    @Test
+    public void testTemplatesArePooledPerEngine() {
+        MessageHandler compiled = new MessageHandler(new Brand("Acme {0} Inc."), null, TemplateEngine.COMPILED);
+        MessageHandler standard = new MessageHandler(new Brand("Acme {0} Inc."), null, TemplateEngine.MESSAGE_FORMAT);
+
+        assertNotSame(compiled.getTemplate("brand"), standard.getTemplate("brand"));
+    }
+
+    private static class Brand extends ListResourceBundle {
+        private final String brand;
+
+        Brand(String brand) {
+            // Force a distinct instance per bundle, as separately loaded bundles would have
+            this.brand = new String(brand);
+        }
+
+        @Override
+        protected Object[][] getContents() {
+            return new Object[][] { {"brand", brand} };
+        }
+    }
+}
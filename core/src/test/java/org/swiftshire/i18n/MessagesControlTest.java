@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.swiftshire.i18n.annotation.BundleType;
+import org.swiftshire.i18n.bundle.XmlBundle;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link MessagesControl}
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class MessagesControlTest {
+    private static final String BUNDLE = "control.Greetings";
+
+    private Locale defaultLocale;
+    private BundleFixture fixture;
+
+    @Before
+    public void setup() throws Exception {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.JAPANESE);
+
+        fixture = new BundleFixture(BUNDLE, "properties");
+
+        Files.write(fixture.file("_ja"), "hello=Konnichiwa\n".getBytes(StandardCharsets.ISO_8859_1));
+        Files.write(fixture.file("_es"), "hello=Hola\n".getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @After
+    public void teardown() throws Exception {
+        Locale.setDefault(defaultLocale);
+        fixture.close();
+    }
+
+    @Test
+    public void testCandidateLocales() {
+        MessagesControl control = MessagesControl.of(BundleType.PROPERTY, false);
+
+        assertEquals(Arrays.asList(new Locale("en", "US", "POSIX"), new Locale("en", "US"), Locale.ENGLISH,
+                Locale.ROOT), control.getCandidateLocales(BUNDLE, new Locale("en", "US", "POSIX")));
+        assertEquals(new Locale("de", "DE", "Traditional_WIN"),
+                control.getCandidateLocales(BUNDLE, new Locale("de", "DE", "Traditional_WIN")).get(0));
+        assertEquals(Collections.singletonList("java.properties"), control.getFormats(BUNDLE));
+        assertEquals(Collections.singletonList(XmlBundle.FORMAT),
+                MessagesControl.of(BundleType.XML, false).getFormats(BUNDLE));
+        assertSame(control, MessagesControl.of(BundleType.PROPERTY, false));
+    }
+
+    @Test
+    public void testLookup() {
+        ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE, new Locale("es", "MX"), fixture.getLoader(),
+                MessagesControl.of(BundleType.PROPERTY, false));
+
+        assertEquals(new Locale("es"), bundle.getLocale());
+        assertEquals("Hola", bundle.getString("hello"));
+    }
+
+    @Test(expected = MissingResourceException.class)
+    public void testNoDefaultLocaleFallback() {
+        ResourceBundle.getBundle(BUNDLE, Locale.FRENCH, fixture.getLoader(), MessagesControl.of(BundleType.PROPERTY, false));
+    }
+
+    @Test
+    public void testDefaultLocaleFallback() {
+        ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE, Locale.FRENCH, fixture.getLoader(),
+                MessagesControl.of(BundleType.PROPERTY, true));
+
+        assertEquals("Konnichiwa", bundle.getString("hello"));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.swiftshire.i18n.handler.GeneratedMessages;
+import org.swiftshire.i18n.processor.MessagesProcessor;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+
+/**
+ * Tests for the {@link MessagesProcessor} annotation processor.
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class MessagesProcessorTest {
+
+    private static final String SAMPLE =
+            "package sample;\n" +
+            "import org.swiftshire.i18n.Messages;\n" +
+            "import org.swiftshire.i18n.annotation.Message;\n" +
+            "public interface SampleMessages extends Messages {\n" +
+            "    @Message(\"Hello {0}, you have {1} new messages.\")\n" +
+            "    String inbox(String name, int count);\n" +
+            "    @Message(key = \"bye\", value = \"Goodbye.\")\n" +
+            "    String farewell();\n" +
+            "    @Message(\"Hello {0}, you have {1} new messages.\")\n" +
+            "    void inbox(StringBuilder out, String name, int count);\n" +
+            "    @Message(key = \"bye\", value = \"Goodbye.\")\n" +
+            "    void farewell(Appendable out) throws java.io.IOException;\n" +
+            "}\n";
+
+    private Path workDir;
+
+    @Before
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("ji18n");
+    }
+
+    @After
+    public void teardown() throws IOException {
+        MessageFactory.clearCache();
+
+        Files.walkFileTree(workDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException ex) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Test
+    public void testGeneratedImplementationIsUsed() throws Exception {
+        assertEquals(0, compile("sample/SampleMessages.java", SAMPLE));
+
+        assertTrue(Files.exists(workDir.resolve("sample/SampleMessages$$Ji18n.java")));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { workDir.toUri().toURL() },
+                getClass().getClassLoader())) {
+
+            @SuppressWarnings("unchecked")
+            Class<? extends Messages> type = (Class<? extends Messages>) loader.loadClass("sample.SampleMessages");
+
+            Messages messages = MessageFactory.create(type, Locale.ENGLISH);
+
+            assertTrue(messages instanceof GeneratedMessages);
+            assertEquals("sample.SampleMessages$$Ji18n", messages.getClass().getName());
+            assertEquals(loader, messages.getClass().getClassLoader());
+
+            Method inbox = type.getMethod("inbox", String.class, int.class);
+            Method farewell = type.getMethod("farewell");
+
+            assertEquals("Hello Jane, you have 3 new messages.", inbox.invoke(messages, "Jane", 3));
+            assertEquals("Goodbye.", farewell.invoke(messages));
+            assertEquals("Goodbye.", messages.format("bye"));
+
+            StringBuilder buffer = new StringBuilder();
+
+            type.getMethod("inbox", StringBuilder.class, String.class, int.class).invoke(messages, buffer, "Joe", 1);
+            type.getMethod("farewell", Appendable.class).invoke(messages, buffer);
+
+            assertEquals("Hello Joe, you have 1 new messages.Goodbye.", buffer.toString());
+        }
+    }
+
+    @Test
+    public void testMalformedPatternFailsBuild() throws Exception {
+        String source = SAMPLE.replace("{1} new", "{1 new");
+
+        assertFalse(compile("sample/SampleMessages.java", source) == 0);
+    }
+
+    /**
+     * Compiles the given source with the processor and returns the compiler exit code.
+     */
+    private int compile(String path, String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+        assertNotNull("Tests require a JDK", compiler);
+
+        Path file = workDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+
+        return compiler.run(null, diagnostics, diagnostics,
+                "-classpath", System.getProperty("java.class.path"),
+                "-processor", MessagesProcessor.class.getName(),
+                "-d", workDir.toString(),
+                "-s", workDir.toString(),
+                file.toString());
+    }
+}
@@ -18,11 +18,27 @@
 package org.swiftshire.i18n;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 import org.junit.BeforeClass;
+import org.swiftshire.i18n.handler.MessageHandler;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ListResourceBundle;
 import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Tests for the {@link Messages} API.
@@ -61,4 +77,107 @@ public class MessagesProxyTest {
 
         assertEquals("Hello Tom Foolery. You visited this website 2 times.", msg);
     }
+
+    @Test
+    public void testAppendableTargets() throws IOException {
+        assertTrue(Proxy.isProxyClass(messages.getClass()));
+
+        StringBuilder buffer = new StringBuilder("<p>");
+
+        messages.hello(buffer, "John Doe", 1);
+        messages.formatTo(buffer, "welcome");
+        messages.formatTo(buffer, "missing");
+
+        assertEquals("<p>Hello John Doe. You visited this website 1 times." +
+                "This is an English welcome message.!!missing!!", buffer.toString());
+
+        StringWriter writer = new StringWriter();
+
+        messages.welcome(writer);
+        messages.formatTo(writer, "hello", "Jane Doe", 2);
+
+        assertEquals("This is an English welcome message.Hello Jane Doe. You visited this website 2 times.",
+                writer.toString());
+    }
+
+    @Test
+    public void testTemplateCacheCounters() {
+        I18nService service = new I18nService();
+
+        messages.format("hello", "John Doe", 1);
+
+        long hits = service.getTemplateCacheHits();
+
+        messages.format("hello", "Jane Doe", 2);
+
+        assertTrue(service.getTemplateCacheHits() > hits);
+        assertTrue(service.getTemplateCacheMisses() > 0);
+    }
+
+    @Test
+    public void testMessagesMethods() {
+        assertEquals(new Locale("en", "us"), messages.getLocale());
+        assertEquals(messages.getLocale(), messages.getBundle().getLocale());
+        assertEquals("This is an English welcome message.", messages.format("welcome"));
+        assertEquals("!!bogus!!", messages.format("bogus"));
+    }
+
+    @Test
+    public void testMissingKeys() {
+        MessageHandler handler = new MessageHandler(new ListResourceBundle() {
+            protected Object[][] getContents() {
+                return new Object[][] { { "hello", "Hi {0}" } };
+            }
+        });
+
+        String missing = handler.format("absent");
+
+        assertEquals("!!absent!!", missing);
+        assertSame(missing, handler.format("absent", 1));
+        assertEquals("!!absent!!", handler.getTemplate("absent").format());
+        assertNull(handler.getTemplateCache().find("absent"));
+        assertEquals(3, handler.getMissingKeyCount());
+        assertEquals(Collections.singleton("absent"), handler.getMissingKeys());
+        assertEquals("Hi Ann", handler.format("hello", "Ann"));
+
+        // Handlers given a loaded bundle are reported by its base name rather than by the flattened copy
+        MessageHandler loaded = new MessageHandler(
+                ResourceBundle.getBundle("org.swiftshire.i18n.GenericMessages", new Locale("es")), GenericMessages.class);
+
+        assertEquals("org.swiftshire.i18n.GenericMessages_es", loaded.getDescription());
+    }
+
+    @Test
+    public void testConcurrentFormatting() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+
+            for (int i = 0; i < 8; i++) {
+                final int visits = i;
+
+                results.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() {
+                        for (int n = 0; n < 1000; n++) {
+                            String expected = "Hello User" + visits + ". You visited this website " + n + " times.";
+
+                            if (!expected.equals(messages.hello("User" + visits, n))) {
+                                return false;
+                            }
+                        }
+
+                        return true;
+                    }
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
 }
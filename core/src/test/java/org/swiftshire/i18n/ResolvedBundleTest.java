@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.junit.Test;
+import org.swiftshire.i18n.handler.ResolvedBundle;
+
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link ResolvedBundle}
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class ResolvedBundleTest {
+
+    @Test
+    public void testChainIsFlattened() {
+        ResourceBundle resolved = ResolvedBundle.resolve( new Chained(new Root()) );
+
+        assertEquals("child", resolved.getString("shared"));
+        assertEquals("root", resolved.getString("inherited"));
+        assertEquals("child only", resolved.getString("own"));
+        assertEquals(3, ((ResolvedBundle) resolved).size());
+        assertTrue(resolved.containsKey("inherited"));
+        assertEquals(new Locale("es"), resolved.getLocale());
+    }
+
+    @Test(expected = MissingResourceException.class)
+    public void testMissingKey() {
+        ResolvedBundle.resolve( new Chained(new Root()) ).getString("missing");
+    }
+
+    @Test
+    public void testResolvedOncePerBundle() {
+        ResourceBundle bundle = new Chained(new Root());
+        ResourceBundle resolved = ResolvedBundle.resolve(bundle);
+
+        assertSame(resolved, ResolvedBundle.resolve(bundle));
+        assertSame(resolved, ResolvedBundle.resolve(resolved));
+        assertNull(ResolvedBundle.resolve(null));
+    }
+
+    @Test
+    public void testHandlersUseResolvedBundles() {
+        GenericMessages messages = MessageFactory.create(GenericMessages.class, "es");
+
+        assertTrue(messages.getBundle() instanceof ResolvedBundle);
+        assertEquals(new Locale("es"), messages.getBundle().getLocale());
+    }
+
+    private static class Root extends ListResourceBundle {
+        @Override
+        protected Object[][] getContents() {
+            return new Object[][] { {"shared", "root"}, {"inherited", "root"} };
+        }
+    }
+
+    private static class Chained extends ListResourceBundle {
+        Chained(ResourceBundle parent) {
+            setParent(parent);
+        }
+
+        @Override
+        public Locale getLocale() {
+            return new Locale("es");
+        }
+
+        @Override
+        protected Object[][] getContents() {
+            return new Object[][] { {"shared", "child"}, {"own", "child only"} };
+        }
+    }
+}
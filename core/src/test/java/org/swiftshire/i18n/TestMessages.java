@@ -19,6 +19,8 @@ package org.swiftshire.i18n;
 
 import org.swiftshire.i18n.annotation.Message;
 
+import java.io.IOException;
+
 public interface TestMessages extends Messages {
 
     @Message("This is an English welcome message.")
@@ -26,4 +28,10 @@ public interface TestMessages extends Messages {
 
     @Message("Hello {0}. You visited this website {1} times.")
     String hello(String name, int count);
+
+    @Message("Hello {0}. You visited this website {1} times.")
+    void hello(StringBuilder out, String name, int count);
+
+    @Message(key = "welcome", value = "This is an English welcome message.")
+    void welcome(Appendable out) throws IOException;
 }
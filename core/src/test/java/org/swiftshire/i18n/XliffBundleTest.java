@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.swiftshire.i18n.bundle.XliffBundle;
+import org.swiftshire.i18n.bundle.XliffBundleWriter;
+import org.swiftshire.i18n.handler.MessageHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link XliffBundle}
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class XliffBundleTest {
+    private static final String TRANSLATED =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<xliff version=\"1.2\" xmlns=\"urn:oasis:names:tc:xliff:document:1.2\">\n" +
+            "  <file original=\"Greetings\" source-language=\"en\" target-language=\"es\" datatype=\"plaintext\">\n" +
+            "    <body>\n" +
+            "      <trans-unit id=\"1\" resname=\"hello\">\n" +
+            "        <source>Hello {0}, you have {1} messages</source>\n" +
+            "        <target state=\"final\">Hola {0}, tiene <g id=\"b\">{1}</g> mensajes</target>\n" +
+            "        <alt-trans><target>Buenas {0}</target></alt-trans>\n" +
+            "      </trans-unit>\n" +
+            "      <trans-unit id=\"café\">\n" +
+            "        <source>Coffee &amp; {0}</source>\n" +
+            "        <target><![CDATA[Café & <{0}>]]></target>\n" +
+            "      </trans-unit>\n" +
+            "      <trans-unit id=\"pending\">\n" +
+            "        <source>Not translated yet</source>\n" +
+            "      </trans-unit>\n" +
+            "    </body>\n" +
+            "  </file>\n" +
+            "</xliff>\n";
+
+    private BundleFixture fixture;
+
+    @Before
+    public void setup() throws Exception {
+        fixture = new BundleFixture("xliff.Greetings", XliffBundle.SUFFIX);
+
+        Map<String, String> base = new HashMap<>();
+        base.put("hello", "Hello {0}, you have {1} messages");
+        base.put("bye", "Goodbye");
+
+        try (OutputStream out = fixture.create("")) {
+            XliffBundleWriter.write(base, "Greetings", Locale.ENGLISH, out);
+        }
+
+        Files.write(fixture.file("_es"), TRANSLATED.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void teardown() throws Exception {
+        fixture.close();
+    }
+
+    @Test
+    public void testLookupAndFallback() {
+        ResourceBundle bundle = fixture.getBundle(new Locale("es"), XliffBundle.CONTROL);
+
+        BundleFixture.assertBundle(bundle, XliffBundle.class, new Locale("es"), "hello", "bye", "café", "pending");
+        assertEquals("Goodbye", bundle.getString("bye"));
+        assertEquals(3, ((XliffBundle) bundle).size());
+    }
+
+    @Test
+    public void testTargetText() {
+        ResourceBundle bundle = fixture.getBundle(new Locale("es"), XliffBundle.CONTROL);
+
+        assertEquals("Hola {0}, tiene {1} mensajes", bundle.getString("hello"));
+        assertEquals("Café & <{0}>", bundle.getString("café"));
+        assertEquals("Not translated yet", bundle.getString("pending"));
+    }
+
+    @Test
+    public void testWriterRoundTrip() {
+        ResourceBundle bundle = fixture.getBundle(Locale.ROOT, XliffBundle.CONTROL);
+
+        assertEquals("Hello {0}, you have {1} messages", bundle.getString("hello"));
+        assertEquals("Goodbye", bundle.getString("bye"));
+    }
+
+    @Test
+    public void testUntranslatedTargetsFallBackToSource() throws Exception {
+        XliffBundle bundle = XliffBundle.read( new ByteArrayInputStream((
+                "<xliff version=\"1.2\" xmlns=\"urn:oasis:names:tc:xliff:document:1.2\"><file><body>" +
+                "<trans-unit id=\"empty\"><source>Empty</source><target/></trans-unit>" +
+                "<trans-unit id=\"blank\"><source>Blank</source><target> </target></trans-unit>" +
+                "<trans-unit id=\"new\"><source>New</source><target state=\"new\">Nuevo?</target></trans-unit>" +
+                "<trans-unit id=\"needed\"><source>Needed</source>" +
+                "<target state=\"needs-translation\"></target></trans-unit>" +
+                "<trans-unit id=\"done\"><source>Done</source><target state=\"translated\">Hecho</target></trans-unit>" +
+                "</body></file></xliff>").getBytes(StandardCharsets.UTF_8)) );
+
+        assertEquals("Empty", bundle.getString("empty"));
+        assertEquals("Blank", bundle.getString("blank"));
+        assertEquals("New", bundle.getString("new"));
+        assertEquals("Needed", bundle.getString("needed"));
+        assertEquals("Hecho", bundle.getString("done"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnitWithoutId() throws Exception {
+        XliffBundle.read( new ByteArrayInputStream(
+                "<xliff><file><body><trans-unit><source>x</source></trans-unit></body></file></xliff>"
+                        .getBytes(StandardCharsets.UTF_8)) );
+    }
+
+    @Test
+    public void testHandlerReadsXliffBundle() {
+        MessageHandler handler = fixture.newHandler(new Locale("es"), XliffBundle.CONTROL);
+
+        assertEquals("Hola Ann, tiene 2 mensajes", handler.format("hello", "Ann", 2));
+        BundleFixture.assertReloads(handler, "bye", "Goodbye");
+        assertEquals("Café & <x>", handler.format("café", "x"));
+    }
+}
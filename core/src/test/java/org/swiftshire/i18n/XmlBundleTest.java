@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.swiftshire.i18n;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.swiftshire.i18n.bundle.XmlBundle;
+import org.swiftshire.i18n.bundle.XmlBundleWriter;
+import org.swiftshire.i18n.handler.MessageHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ResourceBundle;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link XmlBundle}
+ *
+ * @author swiftj
+ * @since 1.0
+ */
+public class XmlBundleTest {
+    private BundleFixture fixture;
+
+    @Before
+    public void setup() throws Exception {
+        fixture = new BundleFixture("xml.Greetings", XmlBundle.SUFFIX);
+
+        Map<String, String> base = new HashMap<>();
+        base.put("hello", "Hello {0}, you have {1} messages");
+        base.put("bye", "Goodbye");
+        write("", base);
+
+        Map<String, String> spanish = new HashMap<>();
+        spanish.put("hello", "Hola {0}, tiene {1} mensajes");
+        spanish.put("café", "Café <{0}> & ''{1}''");
+        write("_es", spanish);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        fixture.close();
+    }
+
+    @Test
+    public void testLookupAndFallback() {
+        ResourceBundle bundle = fixture.getBundle(new Locale("es"), XmlBundle.CONTROL);
+
+        BundleFixture.assertBundle(bundle, XmlBundle.class, new Locale("es"), "hello", "bye", "café");
+        assertEquals("Hola {0}, tiene {1} mensajes", bundle.getString("hello"));
+        assertEquals("Goodbye", bundle.getString("bye"));
+        assertEquals("Café <{0}> & ''{1}''", bundle.getString("café"));
+        assertEquals(2, ((XmlBundle) bundle).size());
+    }
+
+    @Test
+    public void testReadsStoreToXml() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("greeting", "Hi {0}");
+        properties.setProperty("multi", "line one\nline two");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        properties.storeToXML(out, "Generated messages");
+
+        XmlBundle bundle = XmlBundle.read( new ByteArrayInputStream(out.toByteArray()) );
+
+        assertEquals(2, bundle.size());
+        assertEquals("Hi {0}", bundle.getString("greeting"));
+        assertEquals("line one\nline two", bundle.getString("multi"));
+    }
+
+    @Test
+    public void testExternalEntitiesIgnored() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<!DOCTYPE properties [ <!ENTITY secret SYSTEM \"file:///etc/passwd\"> ]>\n" +
+                "<properties><entry key=\"leak\">&secret;</entry><entry key=\"ok\">fine</entry></properties>";
+
+        XmlBundle bundle;
+
+        try {
+            bundle = XmlBundle.read( new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)) );
+        }
+        catch (IOException ex) {
+            return;
+        }
+
+        assertEquals("fine", bundle.getString("ok"));
+        assertFalse(bundle.getString("leak").contains("root"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMalformedBundle() throws Exception {
+        XmlBundle.read( new ByteArrayInputStream("<properties><entry key=\"a\">".getBytes(StandardCharsets.UTF_8)) );
+    }
+
+    @Test
+    public void testHandlerReadsXmlBundle() {
+        MessageHandler handler = fixture.newHandler(new Locale("es"), XmlBundle.CONTROL);
+
+        assertEquals("Hola Ann, tiene 2 mensajes", handler.format("hello", "Ann", 2));
+        assertEquals("Café <x> & 'y'", handler.format("café", "x", "y"));
+        BundleFixture.assertReloads(handler, "bye", "Goodbye");
+    }
+
+    private void write(String suffix, Map<String, String> messages) throws Exception {
+        try (OutputStream out = fixture.create(suffix)) {
+            XmlBundleWriter.write(messages, out);
+        }
+    }
+}
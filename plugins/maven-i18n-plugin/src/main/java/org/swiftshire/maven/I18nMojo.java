@@ -25,6 +25,12 @@ import org.swiftshire.i18n.Messages;
 import org.swiftshire.i18n.annotation.BundleType;
 import org.swiftshire.i18n.annotation.Message;
 import org.swiftshire.i18n.annotation.Permission;
+import org.swiftshire.i18n.bundle.BinaryBundle;
+import org.swiftshire.i18n.bundle.BinaryBundleWriter;
+import org.swiftshire.i18n.bundle.XliffBundle;
+import org.swiftshire.i18n.bundle.XliffBundleWriter;
+import org.swiftshire.i18n.bundle.XmlBundle;
+import org.swiftshire.i18n.bundle.XmlBundleWriter;
 
 import java.io.*;
 import java.lang.reflect.Field;
@@ -32,6 +38,9 @@ import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 
 import org.swiftshire.i18n.annotation.ResourceBundle;
@@ -152,6 +161,12 @@ public class I18nMojo extends AbstractMojo {
      */
     private Map<ResourceBundleDefinition, Integer> bundleCounters;
 
+    /**
+     * Base names of the bundles of all processed messages interfaces keyed by interface name, written to
+     * the bundle index at the end of the task's execution.
+     */
+    private Map<String, String> indexedBundles;
+
     /**
      * Resource bundle that stores the internationalized descriptions of permissions.
      */
@@ -211,6 +226,7 @@ public class I18nMojo extends AbstractMojo {
 
         // Now load each class file and process it
         bundleCounters = new HashMap<>();
+        indexedBundles = new TreeMap<>();
 
         for (String classFile : scanner.getIncludedFiles()) {
             try {
@@ -251,6 +267,7 @@ public class I18nMojo extends AbstractMojo {
                 // to a default bundle ("baseName.properties")
                 ResourceBundleDefinition defaultBundle = new ResourceBundleDefinition(bundle.baseName);
                 defaultBundle.locale = null;
+                defaultBundle.type = bundle.type;
 
                 copyResourceBundle(bundle, defaultBundle);
 
@@ -263,6 +280,16 @@ public class I18nMojo extends AbstractMojo {
         // Since we've created more bundles, let's add them to our running counter
         bundleCounters.putAll(defaultBundles);
 
+        // Bundles are always collected as properties; convert those of other types now that they are complete
+        for (ResourceBundleDefinition bundle : bundleCounters.keySet()) {
+            if (bundle.type != BundleType.PROPERTY) {
+                convertResourceBundle(bundle);
+            }
+        }
+
+        // Tell the runtime which bundles exist so that it need not probe the class path for them
+        writeBundleIndex();
+
         // We are done generating the files - let's log a report of what we did
         if (bundleCounters.size() > 0) {
             if (verbose) {
@@ -402,6 +429,12 @@ public class I18nMojo extends AbstractMojo {
                         // Method not annotated with @Message
                     }
                 }
+
+                // Index the bundle under the same base name the runtime will look it up by
+                ResourceBundle annotation = clazz.getAnnotation(ResourceBundle.class);
+                String bundleName = annotation != null ? annotation.name() : "";
+
+                indexedBundles.put(clazz.getName(), bundleName.isEmpty() ? clazz.getName() : bundleName);
             }
 
             // Check interface constants
@@ -674,6 +707,25 @@ public class I18nMojo extends AbstractMojo {
         } while (newlineIndex > -1);
     }
 
+    /**
+     * Moves a file over another in a single rename where the file system supports it, so that readers of
+     * the target, including memory mappings of it, see either the old or the new file but never a partly
+     * written one.
+     *
+     * @param source File to move
+     * @param target File to replace
+     * @throws IOException if the file cannot be moved
+     */
+    private static void replace(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     /**
      * Copies a resource bundle properties file.
      *
@@ -728,6 +780,223 @@ public class I18nMojo extends AbstractMojo {
         }
     }
 
+    /**
+     * Converts a generated resource bundle properties file into the format declared by its bundle type and
+     * removes the properties file, which is no longer needed at run time.
+     *
+     * @param bundle identifies the resource bundle to convert
+     * @throws MojoExecutionException if failed to read the properties file or write the converted bundle
+     */
+    private void convertResourceBundle(ResourceBundleDefinition bundle) throws MojoExecutionException {
+        String suffix;
+
+        switch (bundle.type) {
+            case XML:
+                suffix = XmlBundle.SUFFIX;
+                break;
+
+            case XLIFF:
+                suffix = XliffBundle.SUFFIX;
+                break;
+
+            default:
+                suffix = BinaryBundle.SUFFIX;
+                break;
+        }
+
+        File propertiesFile = new File(bundle + ".properties");
+        File bundleFile = new File(bundle + "." + suffix);
+
+        Properties properties = new Properties();
+
+        // The properties file was written with the platform encoding by writeMessage()
+        try (Reader reader = new BufferedReader(new FileReader(propertiesFile))) {
+            properties.load(reader);
+        }
+        catch (IOException ex) {
+            throw new MojoExecutionException(
+                    "Failed to read resource bundle [" + propertiesFile + "]: " + ex.getMessage());
+        }
+
+        Map<String, String> messages = new HashMap<>();
+
+        for (String key : properties.stringPropertyNames()) {
+            messages.put(key, properties.getProperty(key));
+        }
+
+        File tempFile = null;
+
+        // Binary bundles are memory mapped by running applications, so an existing file must never be
+        // truncated and rewritten in place; the new bundle is written aside and renamed over it instead
+        try {
+            tempFile = File.createTempFile(bundleFile.getName(), ".tmp", bundleFile.getAbsoluteFile().getParentFile());
+
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+                if (bundle.type == BundleType.XML) {
+                    XmlBundleWriter.write(messages, out);
+                }
+                else if (bundle.type == BundleType.XLIFF) {
+                    XliffBundleWriter.write(messages, new File(bundle.baseName).getName(),
+                            bundle.locale != null ? bundle.locale : defaultLocale, out);
+                }
+                else {
+                    BinaryBundleWriter.write(messages, out);
+                }
+            }
+
+            replace(tempFile, bundleFile);
+            tempFile = null;
+        }
+        catch (IOException ex) {
+            throw new MojoExecutionException(
+                    "Failed to write " + suffix + " resource bundle [" + bundleFile + "]: " + ex.getMessage());
+        }
+        finally {
+            if (tempFile != null && !tempFile.delete()) {
+                getLog().warn("Unable to remove temporary resource bundle [" + tempFile + "]");
+            }
+        }
+
+        if (!propertiesFile.delete()) {
+            getLog().warn("Unable to remove intermediate resource bundle [" + propertiesFile + "]");
+        }
+
+        if (getLog().isDebugEnabled()) {
+            getLog().debug("Wrote " + bundle.type + " bundle [" + bundleFile + "] with " + messages.size() + " messages");
+        }
+    }
+
+    /**
+     * Writes the bundle index read by the runtime to {@code META-INF/ji18n/index} in the output directory.
+     * Each line lists a messages interface, the base name of its bundle and the locale and key count of
+     * every bundle file of that base name found in the output directory, including translations that were
+     * not generated by this task.
+     *
+     * @throws MojoExecutionException if failed to read a bundle file or write the index
+     */
+    private void writeBundleIndex() throws MojoExecutionException {
+        if (indexedBundles.isEmpty()) {
+            return;
+        }
+
+        File indexFile = new File(outputDirectory, "META-INF" + File.separator + "ji18n" + File.separator + "index");
+
+        if (!indexFile.getParentFile().isDirectory() && !indexFile.getParentFile().mkdirs()) {
+            throw new MojoExecutionException("Failed to create directory for bundle index [" + indexFile + "]");
+        }
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile), "UTF-8"))) {
+            writer.write("# ji18n bundle index: interface, bundle base name, locale=keys of each bundle file\n");
+
+            for (Map.Entry<String, String> entry : indexedBundles.entrySet()) {
+                StringBuilder line = new StringBuilder();
+
+                line.append( entry.getKey() ).append('\t').append( entry.getValue() ).append('\t');
+
+                for (Map.Entry<String, Integer> file : indexBundleFiles( entry.getValue() ).entrySet()) {
+                    if (line.charAt(line.length() - 1) != '\t') {
+                        line.append(',');
+                    }
+
+                    line.append( file.getKey() ).append('=').append( file.getValue() );
+                }
+
+                writer.write( line.append('\n').toString() );
+            }
+        }
+        catch (IOException ex) {
+            throw new MojoExecutionException("Failed to write bundle index [" + indexFile + "]: " + ex.getMessage());
+        }
+
+        if (getLog().isDebugEnabled()) {
+            getLog().debug("Wrote bundle index [" + indexFile + "] with " + indexedBundles.size() + " interfaces");
+        }
+    }
+
+    /**
+     * Finds the bundle files of the given base name in the output directory, in any of the supported formats.
+     *
+     * @param bundleName Base name of the bundle
+     * @return Key counts keyed by locale, where the base bundle has an empty locale
+     * @throws MojoExecutionException if failed to read a bundle file
+     */
+    private Map<String, Integer> indexBundleFiles(String bundleName) throws MojoExecutionException {
+        File base = new File(outputDirectory, bundleName.replace('.', File.separatorChar));
+        Map<String, Integer> keys = new TreeMap<>();
+
+        File[] files = base.getParentFile().listFiles();
+
+        if (files == null) {
+            return keys;
+        }
+
+        for (File file : files) {
+            String name = file.getName();
+            int dot = name.lastIndexOf('.');
+
+            if (dot < base.getName().length() || !name.startsWith( base.getName() )) {
+                continue;
+            }
+
+            String suffix = name.substring(dot + 1);
+            String locale = name.substring(base.getName().length(), dot);
+
+            if (!locale.isEmpty()) {
+                // Locale parts always start with a lower case language; anything else is another bundle
+                if (locale.length() < 2 || locale.charAt(0) != '_' || !Character.isLowerCase( locale.charAt(1) )) {
+                    continue;
+                }
+
+                locale = locale.substring(1);
+            }
+
+            int count = countKeys(file, suffix);
+
+            if (count >= 0) {
+                Integer existing = keys.get(locale);
+                keys.put(locale, existing != null ? Math.max(existing, count) : count);
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * Counts the messages in a bundle file.
+     *
+     * @param file   Bundle file
+     * @param suffix File name extension identifying the bundle format
+     * @return Number of messages, or -1 if the file is not a bundle
+     * @throws MojoExecutionException if failed to read the bundle file
+     */
+    private int countKeys(File file, String suffix) throws MojoExecutionException {
+        try {
+            if (BinaryBundle.SUFFIX.equals(suffix)) {
+                return BinaryBundle.load( file.toURI().toURL() ).size();
+            }
+
+            try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+                if ("properties".equals(suffix)) {
+                    Properties properties = new Properties();
+                    properties.load(in);
+
+                    return properties.size();
+                }
+                else if (XmlBundle.SUFFIX.equals(suffix)) {
+                    return XmlBundle.read(in).size();
+                }
+                else if (XliffBundle.SUFFIX.equals(suffix)) {
+                    return XliffBundle.read(in).size();
+                }
+            }
+        }
+        catch (IOException ex) {
+            throw new MojoExecutionException("Failed to read resource bundle [" + file + "]: " + ex.getMessage());
+        }
+
+        return -1;
+    }
+
     /**
      * This is a simple object to encapsulate a resource bundle's base name and locale.
      */
@@ -778,9 +1047,8 @@ public class I18nMojo extends AbstractMojo {
         }
 
         public void setType(BundleType type) throws MojoExecutionException {
-            // We currently only support property file bundles. In the future
-            // we should extend this plugin to support XLIFF and Properties XML.
-            if (type != BundleType.PROPERTY) {
+            // Bundles without a file are rejected; the annotation processing skips them anyway
+            if (type == null || type == BundleType.NONE) {
                 throw new MojoExecutionException(
                         "Unsupported bundle type for " + baseName + ": " + type);
             }